@@ -0,0 +1,154 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.config.DataInit;
+import com.inas.vaadinapp.config.DatasetGenerator;
+import com.inas.vaadinapp.config.SessionMemoryMonitor;
+import com.inas.vaadinapp.config.VaadinMetrics;
+import com.inas.vaadinapp.config.ViewConstructionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Contexte Spring partagé par les benchmarks d'un fork : services et repositories sur
+ * une base H2 en mémoire peuplée par DatasetGenerator à l'échelle "scale" (nombre de
+ * réservations). Seules les auto-configurations de persistance sont importées : ni
+ * Vaadin (ni les mesures propres à Vaadin), ni serveur web, ni DataInit ; un registre
+ * Micrometer en mémoire remplace Actuator. Les données sont insérées avant
+ * ApplicationReadyEvent : les modèles de lecture se construisent dessus au démarrage.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({"1000", "100000", "1000000"})
+    public int scale;
+
+    ConfigurableApplicationContext context;
+    EventService eventService;
+    ReservationService reservationService;
+    UserService userService;
+    EventCatalog eventCatalog;
+    PlatformMetricsService platformMetrics;
+
+    private List<Long> clientIds;
+    private List<Long> eventIds;
+    private List<Long> organizerIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(PersistenceOnly.class)
+                .web(WebApplicationType.NONE)
+                .properties("bench.scale=" + scale,
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        eventService = context.getBean(EventService.class);
+        reservationService = context.getBean(ReservationService.class);
+        userService = context.getBean(UserService.class);
+        eventCatalog = context.getBean(EventCatalog.class);
+        platformMetrics = context.getBean(PlatformMetricsService.class);
+
+        DatasetGenerator.Dataset data = context.getBean(Seeder.class).dataset;
+        clientIds = data.clientIds();
+        // Seuls les événements publiés à venir acceptent des réservations
+        eventIds = data.openEventIds();
+        organizerIds = data.organizerIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    Long randomClient(SplittableRandom random) {
+        return clientIds.get(random.nextInt(clientIds.size()));
+    }
+
+    Long randomEvent(SplittableRandom random) {
+        return eventIds.get(random.nextInt(eventIds.size()));
+    }
+
+    Long randomOrganizer(SplittableRandom random) {
+        return organizerIds.get(random.nextInt(organizerIds.size()));
+    }
+
+    /* ================== CONFIGURATION ================== */
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class,
+            DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            JacksonAutoConfiguration.class, TaskExecutionAutoConfiguration.class})
+    @EntityScan("com.inas.vaadinapp.entity")
+    @EnableJpaRepositories("com.inas.vaadinapp.repository")
+    @ComponentScan(basePackages = {"com.inas.vaadinapp.service", "com.inas.vaadinapp.config"},
+                   excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {DataInit.class,
+                           VaadinMetrics.class, ViewConstructionTimer.class, SessionMemoryMonitor.class}))
+    static class PersistenceOnly {
+
+        // Compteurs et timers des services enregistrés comme en production, sans export
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Seeder seeder(DatasetGenerator generator, JdbcTemplate jdbcTemplate, @Value("${bench.scale}") int scale) {
+            return new Seeder(generator, jdbcTemplate, scale);
+        }
+    }
+
+    static class Seeder implements ApplicationRunner {
+
+        private final DatasetGenerator generator;
+        private final JdbcTemplate jdbcTemplate;
+        private final int scale;
+        private DatasetGenerator.Dataset dataset;
+
+        Seeder(DatasetGenerator generator, JdbcTemplate jdbcTemplate, int scale) {
+            this.generator = generator;
+            this.jdbcTemplate = jdbcTemplate;
+            this.scale = scale;
+        }
+
+        @Override
+        public void run(ApplicationArguments args) {
+            // Un client pour cent réservations : l'indexation des clients pour la recherche
+            // domine sinon le temps de préparation à grande échelle
+            dataset = generator.generate(DatasetGenerator.Spec.of(scale, Math.max(50, scale / 100), 0, 42));
+            // Capacité illimitée : les réservations des benchmarks ne remplissent jamais un événement
+            jdbcTemplate.update("UPDATE events SET capacite_max = 10000000");
+        }
+    }
+}
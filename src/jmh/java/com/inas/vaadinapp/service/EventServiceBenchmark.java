@@ -0,0 +1,60 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.dto.CatalogEvent;
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lectures de EventService et du catalogue public qui les remplace côté visiteurs
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class EventServiceBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Benchmark
+    public List<Event> searchEventsAll(BenchmarkContext ctx) {
+        return ctx.eventService.searchEvents(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Event> searchEventsByCityAndCategory(BenchmarkContext ctx) {
+        return ctx.eventService.searchEvents("Rabat", Category.CONCERT, null, null, 300.0);
+    }
+
+    @Benchmark
+    public List<CatalogEvent> catalogSearchByCityAndCategory(BenchmarkContext ctx) {
+        return ctx.eventCatalog.search(Category.CONCERT, "Rabat", null, null, null, 300.0, null);
+    }
+
+    @Benchmark
+    public List<Event> getPopularEvents(BenchmarkContext ctx) {
+        return ctx.eventService.getPopularEvents(3);
+    }
+
+    @Benchmark
+    public int getAvailablePlaces(BenchmarkContext ctx) {
+        return ctx.eventService.getAvailablePlaces(ctx.randomEvent(random));
+    }
+
+    @Benchmark
+    public EventService.OrganizerStatistics getOrganizerStatistics(BenchmarkContext ctx) {
+        return ctx.eventService.getOrganizerStatistics(ctx.randomOrganizer(random));
+    }
+}
@@ -0,0 +1,54 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.dto.ClientReservationTotals;
+import com.inas.vaadinapp.entity.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Création de réservation (écriture + outbox) et statistiques de réservation
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ReservationServiceBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom(11);
+
+    @Benchmark
+    public Reservation createReservation(BenchmarkContext ctx) {
+        return ctx.reservationService.createReservation(ctx.randomEvent(random), ctx.randomClient(random), 1, null);
+    }
+
+    // Un tirage et une vérification d'unicité par code, quel que soit le volume
+    @Benchmark
+    public String generateUniqueCode(BenchmarkContext ctx) {
+        return ctx.reservationService.generateUniqueCode();
+    }
+
+    @Benchmark
+    public ReservationService.ReservationStatistics getReservationStatistics(BenchmarkContext ctx) {
+        return ctx.reservationService.getReservationStatistics();
+    }
+
+    @Benchmark
+    public ReservationService.OrganizerReservationStatistics getOrganizerReservationStatistics(BenchmarkContext ctx) {
+        return ctx.reservationService.getOrganizerReservationStatistics(ctx.randomOrganizer(random));
+    }
+
+    @Benchmark
+    public ClientReservationTotals getClientReservationTotals(BenchmarkContext ctx) {
+        return ctx.reservationService.getClientReservationTotals(ctx.randomClient(random));
+    }
+}
@@ -0,0 +1,43 @@
+package com.inas.vaadinapp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Statistiques des tableaux de bord : chemins en cache et recalcul complet depuis la base
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class StatisticsBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom(13);
+
+    @Benchmark
+    public UserService.UserStatistics userStatisticsCached(BenchmarkContext ctx) {
+        return ctx.userService.getUserStatistics(ctx.randomClient(random));
+    }
+
+    @Benchmark
+    public PlatformMetricsService.PlatformMetrics platformMetricsSnapshot(BenchmarkContext ctx) {
+        return ctx.platformMetrics.getSnapshot();
+    }
+
+    // Recomptage complet, comme la re-vérification périodique
+    @Benchmark
+    public PlatformMetricsService.PlatformMetrics platformMetricsVerify(BenchmarkContext ctx) {
+        ctx.platformMetrics.verify();
+        return ctx.platformMetrics.getSnapshot();
+    }
+}
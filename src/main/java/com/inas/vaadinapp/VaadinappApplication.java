@@ -1,10 +1,14 @@
 package com.inas.vaadinapp;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+// @Push : les tableaux de bord reçoivent leurs statistiques calculées en arrière-plan
+@Push
 @SpringBootApplication
-public class VaadinappApplication {
+public class VaadinappApplication implements AppShellConfigurator {
 
 	public static void main(String[] args) {
 		SpringApplication.run(VaadinappApplication.class, args);
@@ -0,0 +1,89 @@
+package com.inas.vaadinapp.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encodeur de mots de passe BCrypt au coût calibré sur la machine.
+ *
+ * Les hashes sont préfixés par l'algorithme ("{bcrypt}$2a$12$...") et le coût est lu
+ * dans le hash lui-même : un hash plus faible que le coût courant est à réencoder, un
+ * hash nettement plus fort aussi (nœud plus lent). Les anciens hashes sans préfixe
+ * restent vérifiés en BCrypt.
+ */
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    public static final String ALGORITHM = "bcrypt";
+    private static final String PREFIX = "{" + ALGORITHM + "}";
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    // Un coût supérieur d'un cran est toléré : pas de réencodage en boucle entre deux nœuds voisins
+    private static final int DOWNGRADE_MARGIN = 1;
+
+    private final int cost;
+    private final DelegatingPasswordEncoder delegate;
+
+    public AdaptivePasswordEncoder(int cost) {
+        this.cost = cost;
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        this.delegate = new DelegatingPasswordEncoder(ALGORITHM, Map.of(ALGORITHM, bcrypt));
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        if (!encodedPassword.startsWith(PREFIX)) {
+            return true;
+        }
+        int storedCost = costOf(encodedPassword.substring(PREFIX.length()));
+        return storedCost < cost || storedCost > cost + DOWNGRADE_MARGIN;
+    }
+
+    // Coût d'un hash BCrypt ($2a$10$...), -1 si illisible
+    static int costOf(String bcryptHash) {
+        Matcher matcher = BCRYPT_COST.matcher(bcryptHash);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /* ================== CALIBRAGE ================== */
+
+    // Plus grand coût dont un hachage tient dans le budget (chaque cran double le temps)
+    public static int calibrate(Duration budget, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration"); // chauffe
+
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        double ratio = (double) budget.toNanos() / Math.max(fastest, 1);
+        int extra = ratio < 1 ? 0 : (int) Math.floor(Math.log(ratio) / Math.log(2));
+        return Math.max(minCost, Math.min(maxCost, minCost + extra));
+    }
+}
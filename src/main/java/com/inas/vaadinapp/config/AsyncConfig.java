@@ -0,0 +1,50 @@
+package com.inas.vaadinapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Exécution asynchrone et tâches planifiées de l'application.
+ *
+ * Les traitements de fond (@Async, chargements de tableaux de bord...) passent par
+ * l'exécuteur "applicationTaskExecutor" auto-configuré par Spring Boot. Avec
+ * spring.threads.virtual.enabled=true (JDK 21+), Tomcat et cet exécuteur utilisent
+ * des threads virtuels ; sinon on reste sur le pool borné défini par spring.task.execution.*.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+
+        if (!virtualThreadsRequested) {
+            log.info("Threads virtuels désactivés : pool de threads plateforme (JDK {})", javaVersion);
+            return;
+        }
+
+        if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true ignoré : JDK {} détecté, JDK 21+ requis", javaVersion);
+            return;
+        }
+
+        // L'épinglage (pinning) survient quand un thread virtuel bloque dans un bloc synchronized
+        // (pilote JDBC, pool de connexions...). -Djdk.tracePinnedThreads=short l'affiche sur stdout.
+        String tracePinned = System.getProperty("jdk.tracePinnedThreads");
+        log.info("Threads virtuels activés pour Tomcat et les tâches asynchrones (JDK {}, jdk.tracePinnedThreads={})",
+                javaVersion, tracePinned != null ? tracePinned : "désactivé");
+    }
+}
@@ -1,9 +1,11 @@
 package com.inas.vaadinapp.config;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -27,13 +29,31 @@ public class DataInit {
     private final UserRepository userRepository;
     private final ReservationRepository reservationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DatasetGenerator datasetGenerator;
+    private final int datasetScale;
+    private final int datasetClients;
+    private final int datasetEvents;
+    private final long datasetSeed;
+
+    // BCrypt est lent par construction : un seul hachage par mot de passe distinct
+    private final Map<String, String> passwordHashes = new HashMap<>();
 
     public DataInit(EventRepository eventRepository, UserRepository userRepository, 
-                    ReservationRepository reservationRepository) {
+                    ReservationRepository reservationRepository, PasswordEncoder passwordEncoder,
+                    DatasetGenerator datasetGenerator,
+                    @Value("${app.dataset.scale:0}") int datasetScale,
+                    @Value("${app.dataset.clients:0}") int datasetClients,
+                    @Value("${app.dataset.events:0}") int datasetEvents,
+                    @Value("${app.dataset.seed:42}") long datasetSeed) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.reservationRepository = reservationRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordEncoder = passwordEncoder;
+        this.datasetGenerator = datasetGenerator;
+        this.datasetScale = datasetScale;
+        this.datasetClients = datasetClients;
+        this.datasetEvents = datasetEvents;
+        this.datasetSeed = datasetSeed;
     }
 
     @PostConstruct
@@ -330,6 +350,13 @@ public class DataInit {
         System.out.println("   ORGANIZER 2: organizer2@event.ma / org123");
         System.out.println("   CLIENT 1: client1@event.ma / client123");
         System.out.println("   CLIENT 2: client2@event.ma / client123");
+
+        // Volume de production pour les tests de performance et les démos
+        if (datasetScale > 0) {
+            datasetGenerator.generate(DatasetGenerator.Spec.of(datasetScale, datasetClients, datasetEvents, datasetSeed));
+            System.out.println("   Comptes générés : client<n>@" + DatasetGenerator.EMAIL_DOMAIN + " / "
+                    + DatasetGenerator.PASSWORD);
+        }
     }
 
     private User createUser(String nom, String prenom, String email, String password, Role role, String telephone) {
@@ -337,7 +364,7 @@ public class DataInit {
         user.setNom(nom);
         user.setPrenom(prenom);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashes.computeIfAbsent(password, passwordEncoder::encode));
         user.setRole(role);
         user.setDateInscription(LocalDateTime.now());
         user.setActif(true);
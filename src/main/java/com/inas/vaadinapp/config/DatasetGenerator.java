@@ -0,0 +1,336 @@
+package com.inas.vaadinapp.config;
+
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import com.inas.vaadinapp.entity.Role;
+import com.inas.vaadinapp.entity.SearchText;
+import com.inas.vaadinapp.service.ReservationService;
+import com.inas.vaadinapp.service.UserSearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Jeu de données synthétique pour les tests de performance et les démonstrations.
+ *
+ * Le volume découle d'une échelle (nombre de réservations) : un client pour quatre
+ * réservations, un événement pour deux cents, un organisateur pour vingt-cinq
+ * événements, chaque nombre pouvant être imposé. Les tirages partent d'une graine :
+ * même graine, même jeu de données.
+ *
+ * Distributions : popularité des événements en loi de Zipf (quelques événements
+ * concentrent la demande), activité des clients plus légèrement asymétrique, villes
+ * et catégories selon des poids fixes, capacité dimensionnée sur la demande attendue.
+ * Une réservation qui ne tient plus dans la capacité restante est enregistrée annulée.
+ *
+ * Tout est inséré en lots JDBC, sans Hibernate ; le mot de passe commun des comptes
+ * générés (PASSWORD) n'est haché qu'une fois.
+ */
+@Component
+public class DatasetGenerator {
+
+    public static final String PASSWORD = "client123";
+    public static final String EMAIL_DOMAIN = "demo.event.ma";
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+    private static final int BATCH = 5_000;
+
+    // Poids relatifs : villes et catégories dans l'ordre des tableaux
+    private static final String[] CITIES = {"Casablanca", "Rabat", "Marrakech", "Tanger", "Fès", "Agadir",
+            "Meknès", "Oujda", "Tétouan", "Essaouira"};
+    private static final int[] CITY_WEIGHTS = {30, 15, 15, 10, 9, 7, 5, 4, 3, 2};
+    private static final Category[] CATEGORIES = {Category.CONCERT, Category.SPORT, Category.CONFERENCE,
+            Category.FESTIVAL, Category.AUTRE};
+    private static final int[] CATEGORY_WEIGHTS = {30, 20, 20, 15, 15};
+    private static final String[] TITLES = {"Concert", "Match", "Conférence", "Festival", "Salon"};
+    private static final double[] BASE_PRICES = {200.0, 100.0, 300.0, 250.0, 60.0};
+    private static final int[] BASE_CAPACITIES = {500, 2000, 300, 3000, 200};
+    private static final String[] THEMES = {"Andalou", "Gnaoua", "Atlas", "Océan", "Médina", "Sahara",
+            "Printemps", "Jeunesse", "Patrimoine", "Innovation", "Lumières", "Horizons"};
+    private static final String[] FIRST_NAMES = {"Mohamed", "Fatima", "Youssef", "Khadija", "Ahmed", "Amina",
+            "Omar", "Salma", "Hamza", "Imane", "Mehdi", "Sara", "Karim", "Nadia", "Ayoub", "Meryem"};
+    private static final String[] LAST_NAMES = {"Alami", "Bennani", "Idrissi", "Tazi", "Fassi", "Berrada",
+            "Chraibi", "Ziani", "El Amrani", "Lahlou", "Benjelloun", "Ouazzani", "Sqalli", "Kettani"};
+    // Places par réservation : 2,3 en moyenne
+    private static final int[] PLACES = {1, 1, 1, 2, 2, 2, 2, 3, 4, 5};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserSearchIndexService searchIndex;
+    private final PasswordEncoder passwordEncoder;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, UserSearchIndexService searchIndex,
+                            PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchIndex = searchIndex;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public Dataset generate(Spec spec) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        List<Long> organizerIds = insertUsers(Role.ORGANIZER, spec.organizers(), passwordHash, now, random);
+        List<Long> clientIds = insertUsers(Role.CLIENT, spec.clients(), passwordHash, now, random);
+        GeneratedEvents events = insertEvents(spec, organizerIds, now, random);
+        insertReservations(spec, clientIds, events, now, random);
+
+        log.info("Jeu de données généré (graine {}) : {} organisateurs, {} clients, {} événements, "
+                        + "{} réservations en {} ms", spec.seed(), organizerIds.size(), clientIds.size(),
+                events.ids.length, spec.reservations(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return new Dataset(organizerIds, clientIds, Arrays.stream(events.ids).boxed().toList(), events.openIds);
+    }
+
+    /* ================== UTILISATEURS ================== */
+
+    private List<Long> insertUsers(Role role, int count, String passwordHash, LocalDateTime now,
+                                   SplittableRandom random) {
+        String sql = "INSERT INTO users (nom, prenom, email, password, role, date_inscription, actif, telephone, "
+                + "search_text) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String prefix = role.name().toLowerCase();
+        List<Long> ids = new ArrayList<>(count);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            String nom = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String prenom = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String email = prefix + i + "@" + EMAIL_DOMAIN;
+            // Inscriptions étalées sur trois ans
+            LocalDateTime inscription = now.minusMinutes(random.nextInt(3 * 365 * 24 * 60));
+            String telephone = String.format("06%08d", random.nextInt(100_000_000));
+            batch.add(new Object[]{nom, prenom, email, passwordHash, role.name(), Timestamp.valueOf(inscription),
+                    true, telephone, SearchText.ofUser(nom, prenom, email)});
+            if (batch.size() == BATCH || i == count - 1) {
+                ids.addAll(insertUserBatch(sql, batch));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    // Insère le lot et l'indexe pour la recherche : sinon réindexé au démarrage, un par un
+    private List<Long> insertUserBatch(String sql, List<Object[]> batch) {
+        long lastId = lastId("users");
+        jdbcTemplate.batchUpdate(sql, batch);
+        Map<Long, String> searchTexts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, search_text FROM users WHERE id > ? ORDER BY id",
+                rs -> { searchTexts.put(rs.getLong(1), rs.getString(2)); }, lastId);
+        searchIndex.insertGrams(searchTexts);
+        return new ArrayList<>(searchTexts.keySet());
+    }
+
+    /* ================== ÉVÉNEMENTS ================== */
+
+    private GeneratedEvents insertEvents(Spec spec, List<Long> organizerIds, LocalDateTime now,
+                                         SplittableRandom random) {
+        int count = spec.events();
+        EventStatus[] statuses = new EventStatus[count];
+        LocalDateTime[] starts = new LocalDateTime[count];
+        double[] prices = new double[count];
+        double[] popularity = zipf(count, 1.0, random);
+        double totalPopularity = Arrays.stream(popularity).sum();
+        double averagePlaces = Arrays.stream(PLACES).average().orElse(1);
+
+        String sql = "INSERT INTO events (titre, description, categorie, date_debut, date_fin, ville, lieu, "
+                + "capacite_max, prix_unitaire, status, date_creation, date_modification, organisateur_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int[] capacities = new int[count];
+        long lastId = lastId("events");
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            int category = pick(CATEGORY_WEIGHTS, random);
+            String city = CITIES[pick(CITY_WEIGHTS, random)];
+
+            // 80 % publiés à venir, le reste terminé, en brouillon ou annulé
+            int roll = random.nextInt(100);
+            statuses[i] = roll < 80 ? EventStatus.PUBLIE : roll < 88 ? EventStatus.TERMINE
+                    : roll < 94 ? EventStatus.BROUILLON : EventStatus.ANNULE;
+            starts[i] = statuses[i] == EventStatus.TERMINE
+                    ? now.minusDays(1 + random.nextInt(365)).withHour(10 + random.nextInt(11)).withMinute(0)
+                    : now.plusDays(3 + random.nextInt(180)).withHour(10 + random.nextInt(11)).withMinute(0);
+            LocalDateTime end = CATEGORIES[category] == Category.FESTIVAL
+                    ? starts[i].plusDays(1 + random.nextInt(3))
+                    : starts[i].plusHours(2 + random.nextInt(6));
+            LocalDateTime created = starts[i].minusDays(7 + random.nextInt(120));
+            if (created.isAfter(now)) {
+                created = now;
+            }
+            prices[i] = Math.round(BASE_PRICES[category] * (0.5 + random.nextDouble() * 1.5));
+
+            // Les brouillons ne reçoivent aucune réservation ; la capacité couvre la demande attendue
+            if (statuses[i] == EventStatus.BROUILLON) {
+                popularity[i] = 0;
+            }
+            double expectedPlaces = spec.reservations() * popularity[i] / totalPopularity * averagePlaces;
+            int capacity = Math.max(BASE_CAPACITIES[category] / 2 + random.nextInt(BASE_CAPACITIES[category]),
+                    (int) Math.ceil(expectedPlaces * (0.9 + random.nextDouble() * 0.4)));
+            capacities[i] = (capacity + 9) / 10 * 10;
+
+            String title = TITLES[category] + " " + THEMES[random.nextInt(THEMES.length)] + " " + city + " " + (i + 1);
+            batch.add(new Object[]{title, "Événement généré n°" + (i + 1), CATEGORIES[category].name(),
+                    Timestamp.valueOf(starts[i]), Timestamp.valueOf(end), city, "Salle " + (1 + random.nextInt(40)),
+                    capacities[i], prices[i], statuses[i].name(), Timestamp.valueOf(created),
+                    Timestamp.valueOf(created), organizerIds.get(random.nextInt(organizerIds.size()))});
+            if (batch.size() == BATCH || i == count - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+
+        long[] ids = jdbcTemplate.queryForList("SELECT id FROM events WHERE id > ? ORDER BY id", Long.class, lastId)
+                .stream().mapToLong(Long::longValue).toArray();
+        List<Long> openIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (statuses[i] == EventStatus.PUBLIE) {
+                openIds.add(ids[i]);
+            }
+        }
+        return new GeneratedEvents(ids, statuses, starts, prices, capacities, cumulative(popularity), openIds);
+    }
+
+    /* ================== RÉSERVATIONS ================== */
+
+    private void insertReservations(Spec spec, List<Long> clientIds, GeneratedEvents events, LocalDateTime now,
+                                    SplittableRandom random) {
+        if (events.ids.length == 0 || clientIds.isEmpty() || events.cumulativePopularity[events.ids.length - 1] == 0) {
+            return;
+        }
+        double[] clientActivity = cumulative(zipf(clientIds.size(), 0.5, random));
+        int[] remaining = events.capacities.clone();
+        // Codes distincts sans vérification : multiplication par un entier premier avec 31 modulo 31^8
+        long codeOffset = Math.floorMod(spec.seed(), ReservationService.CODE_SPACE);
+
+        String sql = "INSERT INTO reservations (user_id, event_id, nb_places, prix_unitaire, montant_total, "
+                + "date_reservation, code_reservation, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < spec.reservations(); i++) {
+            int event = sample(events.cumulativePopularity, random);
+            int places = PLACES[random.nextInt(PLACES.length)];
+            ReservationStatus status = switch (events.statuses[event]) {
+                case ANNULE -> ReservationStatus.ANNULEE;
+                case TERMINE -> random.nextInt(10) == 0 ? ReservationStatus.ANNULEE : ReservationStatus.CONFIRMEE;
+                default -> {
+                    int roll = random.nextInt(100);
+                    yield roll < 65 ? ReservationStatus.CONFIRMEE
+                            : roll < 85 ? ReservationStatus.EN_ATTENTE : ReservationStatus.ANNULEE;
+                }
+            };
+            if (status != ReservationStatus.ANNULEE) {
+                if (places > remaining[event]) {
+                    status = ReservationStatus.ANNULEE;
+                } else {
+                    remaining[event] -= places;
+                }
+            }
+
+            // Réservée dans les six mois précédant l'événement, jamais dans le futur
+            LocalDateTime latest = events.starts[event].isBefore(now) ? events.starts[event] : now;
+            LocalDateTime reservedAt = latest.minusMinutes(random.nextInt(180 * 24 * 60));
+            String code = ReservationService.formatCode(
+                    Math.floorMod(i * 982_451_653L + codeOffset, ReservationService.CODE_SPACE));
+
+            batch.add(new Object[]{clientIds.get(sample(clientActivity, random)), events.ids[event], places,
+                    events.prices[event], places * events.prices[event], Timestamp.valueOf(reservedAt), code,
+                    status.name()});
+            if (batch.size() == BATCH || i == spec.reservations() - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /* ================== DISTRIBUTIONS ================== */
+
+    // Poids 1/rang^s, rangs répartis au hasard (les plus demandés ne sont pas les premiers insérés)
+    private static double[] zipf(int count, double exponent, SplittableRandom random) {
+        int[] ranks = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = swap;
+        }
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1.0 / Math.pow(ranks[i] + 1, exponent);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] sums = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            sums[i] = sum;
+        }
+        return sums;
+    }
+
+    // Indice tiré proportionnellement aux poids, par dichotomie sur les sommes cumulées
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+
+    private static int pick(int[] weights, SplittableRandom random) {
+        int roll = random.nextInt(Arrays.stream(weights).sum());
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private long lastId(String table) {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return id != null ? id : 0L;
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    // Volumes à générer ; Spec.of dérive de l'échelle les nombres laissés à 0
+    public record Spec(long seed, int organizers, int clients, int events, int reservations) {
+
+        public Spec {
+            if (organizers < 1 || clients < 1 || events < 1 || reservations < 0) {
+                throw new IllegalArgumentException("Volumes du jeu de données invalides.");
+            }
+        }
+
+        public static Spec of(int scale, int clients, int events, long seed) {
+            int eventCount = events > 0 ? events : Math.max(20, scale / 200);
+            return new Spec(seed, Math.max(2, eventCount / 25),
+                    clients > 0 ? clients : Math.max(50, scale / 4), eventCount, scale);
+        }
+    }
+
+    // Identifiants générés ; "openEventIds" : événements publiés à venir, donc réservables
+    public record Dataset(List<Long> organizerIds, List<Long> clientIds, List<Long> eventIds,
+                          List<Long> openEventIds) {
+    }
+
+    private record GeneratedEvents(long[] ids, EventStatus[] statuses, LocalDateTime[] starts, double[] prices,
+                                   int[] capacities, double[] cumulativePopularity, List<Long> openIds) {
+    }
+}
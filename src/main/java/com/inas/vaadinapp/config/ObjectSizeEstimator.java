@@ -0,0 +1,204 @@
+package com.inas.vaadinapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Estimation de la taille retenue d'un graphe d'objets, par parcours réflexif.
+ *
+ * Modèle d'une JVM 64 bits à références compressées : en-tête de 12 octets, références
+ * de 4 octets, alignement sur 8. Les objets partagés (beans, service Vaadin, classes...)
+ * sont exclus par le prédicat "shared" et ne sont pas parcourus. Les classes du JDK,
+ * fermées à la réflexion, sont estimées : chaînes et tableaux exactement, collections
+ * et maps par un coût forfaitaire par élément, dont le contenu est parcouru.
+ *
+ * Le parcours est borné en nombre d'objets et, si une durée est donnée, en temps : il
+ * s'exécute sous le verrou de la session, qui bloque les requêtes de l'utilisateur.
+ *
+ * Instance à usage unique, non thread-safe ; le graphe ne doit pas changer pendant le
+ * parcours (session Vaadin verrouillée).
+ */
+public class ObjectSizeEstimator {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectSizeEstimator.class);
+
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+    // Coût par élément des conteneurs du JDK, hors contenu (tableau interne, nœuds, entrées)
+    private static final int COLLECTION_ELEMENT = 8;
+    private static final int MAP_ENTRY = 40;
+    private static final int JDK_OBJECT = 24;
+    // Lecture de l'horloge tous les N objets visités
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return Layout.of(type);
+        }
+    };
+
+    private final Predicate<Object> shared;
+    private final long maxObjects;
+    private final long maxNanos;
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Deque<Object> pending = new ArrayDeque<>();
+    private long bytes;
+    private boolean truncated;
+
+    public ObjectSizeEstimator(Predicate<Object> shared, long maxObjects) {
+        this(shared, maxObjects, null);
+    }
+
+    // maxTime null : parcours borné par le seul nombre d'objets
+    public ObjectSizeEstimator(Predicate<Object> shared, long maxObjects, Duration maxTime) {
+        this.shared = shared;
+        this.maxObjects = maxObjects;
+        this.maxNanos = maxTime == null ? Long.MAX_VALUE : maxTime.toNanos();
+    }
+
+    // Taille cumulée des racines, en octets ; un objet atteint par plusieurs racines compte une fois
+    public long measure(Object... roots) {
+        long start = System.nanoTime();
+        long visits = 0;
+        for (Object root : roots) {
+            push(root);
+        }
+        while (!pending.isEmpty()) {
+            if (visited.size() > maxObjects
+                    || (++visits % CLOCK_INTERVAL == 0 && System.nanoTime() - start > maxNanos)) {
+                truncated = true;
+                break;
+            }
+            try {
+                visit(pending.pop());
+            } catch (RuntimeException ex) {
+                // Collection modifiée ou paresseuse (proxy Hibernate détaché) : contenu ignoré
+                log.debug("Objet ignoré par l'estimation : {}", ex.toString());
+            }
+        }
+        return bytes;
+    }
+
+    // Parcours arrêté à maxObjects ou à maxTime : la taille est un minorant
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public long getVisitedObjects() {
+        return visited.size();
+    }
+
+    private void push(Object value) {
+        if (value != null && !shared.test(value) && visited.add(value)) {
+            pending.push(value);
+        }
+    }
+
+    private void visit(Object value) {
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            visitArray(value, type.getComponentType());
+        } else if (value instanceof String text) {
+            // Chaîne compacte (Latin-1) : un octet par caractère
+            bytes += align(HEADER + 12) + align(ARRAY_HEADER + text.length());
+        } else if (isJdk(type)) {
+            visitJdk(value);
+        } else {
+            Layout layout = LAYOUTS.get(type);
+            bytes += layout.shallowSize;
+            for (Field field : layout.references) {
+                try {
+                    push(field.get(value));
+                } catch (IllegalAccessException ex) {
+                    // Champ fermé à la réflexion : compté dans la taille de l'objet, pas son contenu
+                }
+            }
+        }
+    }
+
+    private void visitArray(Object array, Class<?> componentType) {
+        int length = Array.getLength(array);
+        bytes += align(ARRAY_HEADER + (long) length * fieldSize(componentType));
+        if (!componentType.isPrimitive()) {
+            Object[] elements = (Object[]) array;
+            for (Object element : elements) {
+                push(element);
+            }
+        }
+    }
+
+    private void visitJdk(Object value) {
+        if (value instanceof Collection<?> collection) {
+            bytes += align(HEADER + 36) + (long) collection.size() * COLLECTION_ELEMENT;
+            for (Object element : collection) {
+                push(element);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            bytes += align(HEADER + 36) + (long) map.size() * MAP_ENTRY;
+            map.forEach((key, element) -> {
+                push(key);
+                push(element);
+            });
+        } else {
+            // Nombres, dates, atomiques... : taille courante d'un petit objet du JDK
+            bytes += JDK_OBJECT;
+        }
+    }
+
+    private static boolean isJdk(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+                || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        if (type == byte.class || type == boolean.class) return 1;
+        return REFERENCE;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /* ================== DISPOSITION DES CLASSES ================== */
+
+    private record Layout(long shallowSize, List<Field> references) {
+
+        static Layout of(Class<?> type) {
+            long size = HEADER;
+            List<Field> references = new ArrayList<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    size += fieldSize(field.getType());
+                    if (!field.getType().isPrimitive() && field.trySetAccessible()) {
+                        references.add(field);
+                    }
+                }
+            }
+            return new Layout(align(size), List.copyOf(references));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inas.vaadinapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Encodeur de mots de passe partagé (inscription, connexion, DataInit).
+ *
+ * Le coût BCrypt est calibré au démarrage pour qu'un hachage prenne au plus
+ * app.password.hash-budget sur cette machine, borné par app.password.min-cost
+ * et app.password.max-cost.
+ */
+@Configuration
+public class PasswordConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordConfig.class);
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.password.hash-budget:PT0.15S}") Duration budget,
+                                           @Value("${app.password.min-cost:10}") int minCost,
+                                           @Value("${app.password.max-cost:14}") int maxCost) {
+        int cost = AdaptivePasswordEncoder.calibrate(budget, minCost, maxCost);
+        log.info("Coût BCrypt calibré : {} (budget {} ms, bornes {}-{})", cost, budget.toMillis(), minCost, maxCost);
+        return new AdaptivePasswordEncoder(cost);
+    }
+}
@@ -0,0 +1,90 @@
+package com.inas.vaadinapp.config;
+
+import com.inas.vaadinapp.entity.Reservation;
+import com.inas.vaadinapp.service.ReservationRecording;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Événements JFR (ReservationRecording) autour de la création, la confirmation et
+ * l'annulation des réservations, et du contrôle des places disponibles.
+ *
+ * Les identifiants viennent des arguments et du résultat ; l'issue suit le découpage du
+ * timer app.service (ServiceMetricsAspect.outcome). Placé juste sous ServiceMetricsAspect,
+ * l'aspect enveloppe lui aussi la transaction. Comme pour le timer, les appels internes
+ * à un service ne sont pas enregistrés.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ReservationRecordingAspect {
+
+    @Around("execution(public * com.inas.vaadinapp.service.ReservationService.createReservation(..))"
+            + " && args(eventId, userId, nbPlaces, ..)")
+    public Object create(ProceedingJoinPoint joinPoint, Long eventId, Long userId, int nbPlaces) throws Throwable {
+        ReservationRecording.Create recording = new ReservationRecording.Create();
+        recording.eventId = ReservationRecording.id(eventId);
+        recording.clientId = ReservationRecording.id(userId);
+        recording.seats = nbPlaces;
+        ReservationRecording.creating(recording);
+        try {
+            return record(recording, joinPoint, (Reservation saved) -> recording.reservationId = saved.getId());
+        } finally {
+            ReservationRecording.creating(null);
+        }
+    }
+
+    @Around("execution(public * com.inas.vaadinapp.service.ReservationService.confirmReservation(..))"
+            + " && args(reservationId, ..)")
+    public Object confirm(ProceedingJoinPoint joinPoint, Long reservationId) throws Throwable {
+        ReservationRecording.Confirm recording = new ReservationRecording.Confirm();
+        recording.reservationId = ReservationRecording.id(reservationId);
+        return record(recording, joinPoint, (Reservation saved) -> {
+            recording.eventId = saved.getEvent().getId();
+            recording.seats = saved.getNbPlaces();
+        });
+    }
+
+    @Around("execution(public * com.inas.vaadinapp.service.ReservationService.cancelReservation(..))"
+            + " && args(reservationId, ..)")
+    public Object cancel(ProceedingJoinPoint joinPoint, Long reservationId) throws Throwable {
+        ReservationRecording.Cancel recording = new ReservationRecording.Cancel();
+        recording.reservationId = ReservationRecording.id(reservationId);
+        return record(recording, joinPoint, (Reservation saved) -> {
+            recording.eventId = saved.getEvent().getId();
+            recording.seats = saved.getNbPlaces();
+        });
+    }
+
+    @Around("execution(public int com.inas.vaadinapp.service.EventService.getAvailablePlaces(..))"
+            + " && args(eventId)")
+    public Object availability(ProceedingJoinPoint joinPoint, Long eventId) throws Throwable {
+        ReservationRecording.AvailabilityCheck recording = new ReservationRecording.AvailabilityCheck();
+        recording.eventId = ReservationRecording.id(eventId);
+        return record(recording, joinPoint, (Integer available) -> recording.available = available);
+    }
+
+    // L'événement couvre l'appel ; "completed" complète ses champs à partir du résultat
+    @SuppressWarnings("unchecked")
+    private static <T> Object record(ReservationRecording.ServiceCall recording, ProceedingJoinPoint joinPoint,
+                                     Consumer<T> completed) throws Throwable {
+        recording.begin();
+        try {
+            Object result = joinPoint.proceed();
+            completed.accept((T) result);
+            recording.outcome = ServiceMetricsAspect.SUCCESS;
+            return result;
+        } catch (Throwable ex) {
+            recording.outcome = ServiceMetricsAspect.outcome(ex);
+            throw ex;
+        } finally {
+            recording.commit();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.inas.vaadinapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer "app.service" sur chaque méthode publique d'EventService, ReservationService et
+ * UserService, étiqueté par service, méthode et issue :
+ * - success  : retour normal ;
+ * - rejected : refus métier (IllegalArgumentException / IllegalStateException) ;
+ * - error    : toute autre exception (verrou, contrainte, base indisponible...).
+ *
+ * L'aspect enveloppe la transaction : le temps du commit est compris dans la mesure.
+ * Les appels internes à un service (this.xxx()) ne passent pas par le proxy et ne sont
+ * pas mesurés. Percentiles et histogramme sont réglés dans application.properties
+ * (management.metrics.distribution.*.app.service).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    public static final String TIMER = "app.service";
+    public static final String SUCCESS = "success";
+
+    private final MeterRegistry registry;
+
+    // Un timer par (méthode, issue, exception) : évite la recherche dans le registre à chaque appel
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.inas.vaadinapp.service.EventService.*(..))"
+            + " || execution(public * com.inas.vaadinapp.service.ReservationService.*(..))"
+            + " || execution(public * com.inas.vaadinapp.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        String outcome = SUCCESS;
+        Class<?> exception = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = outcome(ex);
+            exception = ex.getClass();
+            throw ex;
+        } finally {
+            timer(new TimerKey(method, outcome, exception)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Issue d'un appel terminé par une exception ; partagée avec les événements JFR
+    public static String outcome(Throwable ex) {
+        return ex instanceof IllegalArgumentException || ex instanceof IllegalStateException ? "rejected" : "error";
+    }
+
+    private Timer timer(TimerKey key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder(TIMER)
+                .description("Durée des appels aux services métier")
+                .tag("service", k.method().getDeclaringClass().getSimpleName())
+                .tag("method", k.method().getName())
+                .tag("outcome", k.outcome())
+                .tag("exception", k.exception() == null ? "none" : k.exception().getSimpleName())
+                .register(registry));
+    }
+
+    private record TimerKey(Method method, String outcome, Class<?> exception) {
+    }
+}
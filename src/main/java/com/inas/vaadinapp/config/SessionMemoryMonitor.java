@@ -0,0 +1,228 @@
+package com.inas.vaadinapp.config;
+
+import com.inas.vaadinapp.dto.CatalogEvent;
+import com.inas.vaadinapp.view.ReleasableView;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Mémoire retenue par chaque session Vaadin, et budget par session.
+ *
+ * Périodiquement (app.session.measure-interval), chaque session est verrouillée puis
+ * estimée par ObjectSizeEstimator : UIs, arbres de composants, vues et leurs listes
+ * d'entités, attributs de session. Les objets partagés entre sessions (beans Spring,
+ * service et routeur Vaadin, session HTTP, entrées du catalogue) ne sont pas comptés.
+ * Une session occupée par une requête est sautée jusqu'au relevé suivant.
+ *
+ * Le parcours bloque les requêtes de la session : il s'arrête à app.session.max-objects
+ * objets ou après app.session.max-walk-time. L'estimation n'est alors qu'un minorant, et
+ * une session trop grosse pour être parcourue à bas coût est traitée comme hors budget.
+ *
+ * Indicateurs :
+ * - app.session.size          : distribution des tailles estimées, une valeur par session et par relevé ;
+ * - app.session.count         : sessions Vaadin ouvertes ;
+ * - app.session.size.total    : somme des dernières estimations ;
+ * - app.session.size.max      : plus grosse session au dernier relevé ;
+ * - app.session.measure       : durée d'un relevé complet ;
+ * - app.session.releases      : vues dont les données ont été libérées ;
+ * - app.session.truncated     : parcours interrompus (taille sous-estimée).
+ *
+ * Au-delà de app.session.memory-budget (ou parcours interrompu), les vues ouvertes qui implémentent ReleasableView
+ * abandonnent leurs listes, rechargées à la prochaine lecture. La taille libérée n'est pas
+ * remesurée dans la foulée (second parcours sous verrou) : le relevé suivant la constate.
+ */
+@Component
+public class SessionMemoryMonitor implements VaadinServiceInitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionMemoryMonitor.class);
+
+    // Attente maximale du verrou : le relevé ne doit pas retarder les requêtes
+    private static final long LOCK_WAIT_MILLIS = 50;
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final long budget;
+    private final long maxObjects;
+    private final Duration maxWalkTime;
+    private final DistributionSummary sizes;
+    private final Timer duration;
+    private final Counter releases;
+    private final Counter truncations;
+
+    private final Set<VaadinSession> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<VaadinSession, Long> lastSizes = new ConcurrentHashMap<>();
+    // Singletons Spring, relevés au premier passage (contexte complet)
+    private volatile Set<Object> singletons;
+
+    public SessionMemoryMonitor(MeterRegistry registry, ConfigurableListableBeanFactory beanFactory,
+                                @Value("${app.session.memory-budget:16MB}") DataSize budget,
+                                @Value("${app.session.max-objects:200000}") long maxObjects,
+                                @Value("${app.session.max-walk-time:PT0.05S}") Duration maxWalkTime) {
+        if (budget.toBytes() <= 0) {
+            throw new IllegalArgumentException("app.session.memory-budget doit être positif");
+        }
+        if (maxWalkTime.isNegative() || maxWalkTime.isZero()) {
+            throw new IllegalArgumentException("app.session.max-walk-time doit être positif");
+        }
+        this.beanFactory = beanFactory;
+        this.budget = budget.toBytes();
+        this.maxObjects = maxObjects;
+        this.maxWalkTime = maxWalkTime;
+        this.sizes = DistributionSummary.builder("app.session.size")
+                .description("Mémoire retenue estimée par session Vaadin")
+                .baseUnit("bytes")
+                .register(registry);
+        this.duration = Timer.builder("app.session.measure")
+                .description("Durée d'un relevé de la mémoire des sessions")
+                .register(registry);
+        this.releases = Counter.builder("app.session.releases")
+                .description("Vues dont les données ont été libérées (budget de session dépassé)")
+                .register(registry);
+        this.truncations = Counter.builder("app.session.truncated")
+                .description("Estimations de session interrompues (nombre d'objets ou durée)")
+                .register(registry);
+        Gauge.builder("app.session.count", sessions, Set::size)
+                .description("Sessions Vaadin ouvertes")
+                .register(registry);
+        Gauge.builder("app.session.size.total", lastSizes, m -> m.values().stream().mapToLong(Long::longValue).sum())
+                .description("Mémoire retenue estimée, toutes sessions")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("app.session.size.max", lastSizes, m -> m.values().stream().mapToLong(Long::longValue).max().orElse(0))
+                .description("Plus grosse session au dernier relevé")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(init -> sessions.add(init.getSession()));
+        event.getSource().addSessionDestroyListener(destroy -> {
+            sessions.remove(destroy.getSession());
+            lastSizes.remove(destroy.getSession());
+        });
+    }
+
+    /* ================== RELEVÉ ================== */
+
+    @Scheduled(fixedDelayString = "${app.session.measure-interval:PT1M}",
+               initialDelayString = "${app.session.measure-interval:PT1M}")
+    public void measureAll() {
+        long start = System.nanoTime();
+        for (VaadinSession session : sessions) {
+            try {
+                measure(session);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Estimation de session impossible : {}", ex.toString());
+            }
+        }
+        duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // Taille estimée de la session, ou -1 si elle était occupée
+    long measure(VaadinSession session) throws InterruptedException {
+        Lock lock = session.getLockInstance();
+        if (lock == null || !lock.tryLock(LOCK_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            return -1;
+        }
+        try {
+            ObjectSizeEstimator estimator = new ObjectSizeEstimator(this::isShared, maxObjects, maxWalkTime);
+            long size = estimator.measure(session);
+            if (estimator.isTruncated()) {
+                truncations.increment();
+                log.debug("Estimation de session arrêtée à {} objets (limites : {} objets, {} ms)",
+                        estimator.getVisitedObjects(), maxObjects, maxWalkTime.toMillis());
+            }
+            // Un parcours interrompu ne borne pas la taille : la session est libérée comme hors budget
+            if (size > budget || estimator.isTruncated()) {
+                int released = releaseViews(session);
+                releases.increment(released);
+                log.info("Session au-delà du budget mémoire ({} Ko{} > {} Ko) : {} vue(s) libérée(s)",
+                        size / 1024, estimator.isTruncated() ? " au moins" : "", budget / 1024, released);
+            }
+            sizes.record(size);
+            lastSizes.put(session, size);
+            return size;
+        } finally {
+            // unlock() de la session : exécute aussi les tâches UI.access mises en attente
+            session.unlock();
+        }
+    }
+
+    // Toutes les vues ouvertes : chaque UI (onglet) a sa chaîne de navigation active
+    private static int releaseViews(VaadinSession session) {
+        List<ReleasableView> views = new ArrayList<>();
+        for (UI ui : session.getUIs()) {
+            ui.getInternals().getActiveRouterTargetsChain().forEach(target -> {
+                if (target instanceof ReleasableView view) {
+                    views.add(view);
+                }
+            });
+        }
+        int released = 0;
+        for (ReleasableView view : views) {
+            if (view.releaseCachedData()) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /* ================== OBJETS PARTAGÉS ================== */
+
+    private boolean isShared(Object value) {
+        return value instanceof Class<?> || value instanceof ClassLoader || value instanceof Thread
+                || value instanceof VaadinService || value instanceof VaadinContext || value instanceof Router
+                || value instanceof WrappedSession || value instanceof BeanFactory || value instanceof MeterRegistry
+                || value instanceof Enum<?> || value instanceof CatalogEvent
+                || value.getClass().getName().startsWith("org.apache.catalina.")
+                || singletons().contains(value);
+    }
+
+    private Set<Object> singletons() {
+        Set<Object> current = singletons;
+        if (current == null) {
+            current = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String name : beanFactory.getSingletonNames()) {
+                Object bean = beanFactory.getSingleton(name);
+                if (bean != null) {
+                    current.add(bean);
+                }
+            }
+            singletons = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,249 @@
+package com.inas.vaadinapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal des requêtes SQL, à la place de spring.jpa.show-sql.
+ *
+ * Le DataSource est enveloppé d'un proxy JDBC : chaque exécution est chronométrée
+ * (timer app.sql, par opération). Les requêtes au-delà de app.sql.slow-threshold sont
+ * journalisées en WARN avec leurs paramètres et la méthode applicative appelante ; les
+ * autres sont échantillonnées en INFO (app.sql.sample-rate, 0 = aucune).
+ *
+ * Ce logger est écrit par un appender asynchrone non bloquant (logback-spring.xml) :
+ * le thread de la requête ne fait que déposer l'événement, et le perd plutôt que
+ * d'attendre si la file est pleine. La pile n'est parcourue que pour les lignes écrites.
+ */
+@Component
+public class SqlStatementLog implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementLog.class);
+
+    private static final String APP_PACKAGE = "com.inas.vaadinapp.";
+    private static final int MAX_VALUE_LENGTH = 64;
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final long slowNanos;
+    private final double sampleRate;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    // Résolu au premier enregistrement : pas de recherche dans le contexte à chaque requête
+    private volatile MeterRegistry meters;
+
+    public SqlStatementLog(ObjectProvider<MeterRegistry> registry,
+                           @Value("${app.sql.slow-threshold:PT0.2S}") Duration slowThreshold,
+                           @Value("${app.sql.sample-rate:0}") double sampleRate) {
+        this.registry = registry;
+        this.slowNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource ? proxy(bean, DataSource.class, new Forwarding(bean)) : bean;
+    }
+
+    /* ================== PROXY JDBC ================== */
+
+    private static Object proxy(Object target, Class<?> type, InvocationHandler handler) {
+        // Le pool reste fermable par le contexte (méthode close inférée)
+        Class<?>[] types = target instanceof AutoCloseable && type == DataSource.class
+                ? new Class<?>[]{type, AutoCloseable.class} : new Class<?>[]{type};
+        return Proxy.newProxyInstance(SqlStatementLog.class.getClassLoader(), types, handler);
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    // DataSource et Connection : enveloppe les connexions puis les requêtes créées
+    private final class Forwarding implements InvocationHandler {
+
+        private final Object target;
+
+        Forwarding(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            String name = method.getName();
+            if (result instanceof Connection connection && name.equals("getConnection")) {
+                return proxy(connection, Connection.class, new Forwarding(connection));
+            }
+            if (target instanceof Connection && result instanceof Statement statement) {
+                // Le texte SQL n'est connu qu'ici pour les requêtes préparées
+                Class<?> type = name.equals("prepareCall") ? CallableStatement.class
+                        : name.equals("prepareStatement") ? PreparedStatement.class : Statement.class;
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(statement, type, new Timing(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class Timing implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        // Paramètres liés, par position ; accédé par le seul thread qui utilise la requête
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private int batchSize;
+
+        Timing(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.startsWith("execute")) {
+                String text = args != null && args.length > 0 && args[0] instanceof String given ? given : sql;
+                long start = System.nanoTime();
+                try {
+                    return call(target, method, args);
+                } finally {
+                    record(text, System.nanoTime() - start, name.equals("executeBatch") ? batchSize : 0);
+                    if (name.equals("executeBatch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            return call(target, method, args);
+        }
+
+        private void record(String text, long elapsed, int batch) {
+            String operation = operation(text);
+            MeterRegistry meters = meters();
+            if (meters != null) {
+                timers.computeIfAbsent(operation, op -> Timer.builder("app.sql")
+                        .description("Durée des requêtes SQL")
+                        .tag("operation", op)
+                        .register(meters)).record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            boolean slow = elapsed >= slowNanos;
+            if (slow ? log.isWarnEnabled() : sampleRate > 0 && log.isInfoEnabled()
+                    && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                String line = String.format(Locale.ROOT, "%.1f ms%s [%s] %s | paramètres %s",
+                        elapsed / 1e6, batch > 0 ? " (lot de " + batch + ")" : "", caller(), text, format(parameters));
+                if (slow) {
+                    log.warn("Requête lente : {}", line);
+                } else {
+                    log.info("Requête échantillonnée : {}", line);
+                }
+            }
+        }
+    }
+
+    private MeterRegistry meters() {
+        MeterRegistry current = meters;
+        if (current == null) {
+            current = registry.getIfAvailable();
+            meters = current;
+        }
+        return current;
+    }
+
+    /* ================== FORMATAGE ================== */
+
+    static String operation(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    static String format(Map<Integer, Object> parameters) {
+        StringBuilder out = new StringBuilder("[");
+        parameters.forEach((index, value) -> {
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            out.append(index).append('=').append(formatValue(value));
+        });
+        return out.append(']').toString();
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        String text = value.toString();
+        // Empreintes BCrypt, préfixées ou non par l'algorithme ("{bcrypt}$2a$...") : jamais dans les journaux
+        if (isPasswordHash(text)) {
+            return "'***'";
+        }
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "…";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    private static boolean isPasswordHash(String text) {
+        String hash = text;
+        if (hash.startsWith("{")) {
+            int end = hash.indexOf('}');
+            hash = end > 0 ? hash.substring(end + 1) : hash;
+        }
+        return hash.startsWith("$2a$") || hash.startsWith("$2b$") || hash.startsWith("$2y$");
+    }
+
+    // Méthode applicative la plus proche de la requête (service, vue...)
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE) && !isOwnFrame(f.getClassName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1)
+                        + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("?"));
+    }
+
+    private static boolean isOwnFrame(String className) {
+        String own = SqlStatementLog.class.getName();
+        return className.equals(own) || className.startsWith(own + "$");
+    }
+}
@@ -0,0 +1,267 @@
+package com.inas.vaadinapp.config;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.server.HandlerHelper;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinRequestInterceptor;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mesures côté Vaadin, branchées au démarrage du service (VaadinServiceInitListener) :
+ * - app.vaadin.requests   : durée de chaque requête du client (init, uidl, heartbeat...),
+ *                           par type et par vue affichée au début de la requête ;
+ * - app.vaadin.navigation : navigation complète vers une vue, construction comprise
+ *                           (le détail des constructeurs est dans app.vaadin.view.construction) ;
+ * - app.vaadin.components : nombre de composants attachés à l'UI après chaque navigation ;
+ * - app.vaadin.slow       : requêtes au-delà de app.vaadin.slow-request, par vue et par
+ *                           gestionnaire en cause.
+ *
+ * Une requête UIDL ne dit pas quel écouteur elle déclenche : un thread de surveillance
+ * relève la pile des requêtes qui dépassent le seuil et retient la méthode la plus
+ * profonde du paquetage view (en pratique le listener ou le constructeur fautif).
+ *
+ * La vue courante de chaque UI est rangée dans la session HTTP, lisible sans le verrou
+ * de la session Vaadin dès le début de la requête. Pool privé (un thread démon).
+ */
+@Component
+public class VaadinMetrics implements VaadinServiceInitListener {
+
+    private static final Logger log = LoggerFactory.getLogger(VaadinMetrics.class);
+
+    private static final String ROUTE_ATTRIBUTE = "app.vaadin.route.";
+    private static final String NAVIGATION_START = "app.vaadin.navigation-start";
+    private static final String VIEW_PACKAGE = "com.inas.vaadinapp.view.";
+    private static final String APP_PACKAGE = "com.inas.vaadinapp.";
+    private static final String NONE = "none";
+    private static final Set<String> REQUEST_TYPES = Arrays.stream(HandlerHelper.RequestType.values())
+            .map(HandlerHelper.RequestType::getIdentifier)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final MeterRegistry registry;
+    private final long slowNanos;
+    private final ScheduledExecutorService watchdog;
+
+    // Requêtes en cours, par thread de traitement
+    private final Map<Thread, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public VaadinMetrics(MeterRegistry registry,
+                         @Value("${app.vaadin.slow-request:PT0.5S}") Duration slowRequest) {
+        this.registry = registry;
+        this.slowNanos = slowRequest.toNanos();
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vaadin-slow-watch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Deux relevés par seuil : la pile est prise au plus tard à 1,5 fois le seuil
+        long period = Math.max(1, slowRequest.toMillis() / 2);
+        watchdog.scheduleAtFixedRate(this::sampleSlowRequests, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.addVaadinRequestInterceptor(new RequestTiming());
+        event.getSource().addUIInitListener(init -> {
+            UI ui = init.getUI();
+            ui.addBeforeEnterListener(before -> ComponentUtil.setData(ui, NAVIGATION_START, System.nanoTime()));
+            ui.addAfterNavigationListener(this::afterNavigation);
+            ui.addDetachListener(detach -> forgetRoute(ui));
+        });
+    }
+
+    /* ================== NAVIGATION ================== */
+
+    private void afterNavigation(AfterNavigationEvent event) {
+        UI ui = event.getLocationChangeEvent().getUI();
+        List<HasElement> chain = event.getActiveChain();
+        String route = chain.isEmpty() ? NONE : chain.get(0).getClass().getSimpleName();
+
+        Object start = ComponentUtil.getData(ui, NAVIGATION_START);
+        if (start instanceof Long nanos) {
+            Timer.builder("app.vaadin.navigation")
+                    .description("Navigation vers une vue, construction comprise")
+                    .tag("route", route)
+                    .register(registry)
+                    .record(System.nanoTime() - nanos, TimeUnit.NANOSECONDS);
+            ComponentUtil.setData(ui, NAVIGATION_START, null);
+        }
+        DistributionSummary.builder("app.vaadin.components")
+                .description("Composants attachés à l'UI après navigation")
+                .tag("route", route)
+                .register(registry)
+                .record(countComponents(ui));
+
+        VaadinRequest request = VaadinRequest.getCurrent();
+        WrappedSession session = request != null ? request.getWrappedSession(false) : null;
+        if (session != null) {
+            session.setAttribute(ROUTE_ATTRIBUTE + ui.getUIId(), route);
+        }
+    }
+
+    private static long countComponents(com.vaadin.flow.component.Component component) {
+        return 1 + component.getChildren().mapToLong(VaadinMetrics::countComponents).sum();
+    }
+
+    private static void forgetRoute(UI ui) {
+        VaadinSession session = ui.getSession();
+        try {
+            if (session != null && session.getSession() != null) {
+                session.getSession().removeAttribute(ROUTE_ATTRIBUTE + ui.getUIId());
+            }
+        } catch (IllegalStateException ex) {
+            // Session HTTP déjà invalidée : l'attribut part avec elle
+        }
+    }
+
+    private static String currentRoute(VaadinRequest request) {
+        String uiId = request.getParameter(ApplicationConstants.UI_ID_PARAMETER);
+        WrappedSession session = request.getWrappedSession(false);
+        if (uiId == null || session == null) {
+            return NONE;
+        }
+        try {
+            Object route = session.getAttribute(ROUTE_ATTRIBUTE + uiId);
+            return route instanceof String name ? name : NONE;
+        } catch (IllegalStateException ex) {
+            return NONE;
+        }
+    }
+
+    /* ================== REQUÊTES ================== */
+
+    private final class RequestTiming implements VaadinRequestInterceptor {
+
+        @Override
+        public void requestStart(VaadinRequest request, VaadinResponse response) {
+            // Ressources statiques et fichiers : pas de paramètre v-r
+            String type = request.getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER);
+            if (type != null) {
+                // Valeur envoyée par le client : bornée aux types connus pour l'étiquette
+                String tag = REQUEST_TYPES.contains(type) ? type : "other";
+                inFlight.put(Thread.currentThread(), new InFlight(tag, currentRoute(request), System.nanoTime()));
+            }
+        }
+
+        @Override
+        public void handleException(VaadinRequest request, VaadinResponse response, VaadinSession session,
+                                    Exception exception) {
+            InFlight current = inFlight.get(Thread.currentThread());
+            if (current != null) {
+                current.failed = true;
+            }
+        }
+
+        @Override
+        public void requestEnd(VaadinRequest request, VaadinResponse response, VaadinSession session) {
+            InFlight current = inFlight.remove(Thread.currentThread());
+            if (current == null) {
+                return;
+            }
+            long elapsed = System.nanoTime() - current.start;
+            // Première requête d'une UI : la vue n'est connue qu'après la navigation
+            String route = NONE.equals(current.route) ? currentRoute(request) : current.route;
+            Timer.builder("app.vaadin.requests")
+                    .description("Requêtes du client Vaadin")
+                    .tag("type", current.type)
+                    .tag("route", route)
+                    .tag("outcome", current.failed ? "error" : "success")
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (elapsed >= slowNanos) {
+                StackTraceElement culprit = current.culprit;
+                String handler = culprit == null ? "unknown" : simpleName(culprit.getClassName()) + "." + culprit.getMethodName();
+                Counter.builder("app.vaadin.slow")
+                        .description("Requêtes Vaadin au-delà du seuil app.vaadin.slow-request")
+                        .tag("route", route)
+                        .tag("handler", handler)
+                        .register(registry)
+                        .increment();
+                log.warn("Requête {} lente : {} ms sur {} (gestionnaire : {})", current.type,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), route,
+                        culprit == null ? "inconnu" : culprit.toString());
+            }
+        }
+    }
+
+    /* ================== SURVEILLANCE DES REQUÊTES LENTES ================== */
+
+    private void sampleSlowRequests() {
+        long now = System.nanoTime();
+        inFlight.forEach((thread, request) -> {
+            if (request.culprit == null && now - request.start >= slowNanos) {
+                request.culprit = culprit(thread.getStackTrace());
+            }
+        });
+    }
+
+    // Frame la plus profonde du paquetage view, à défaut du code applicatif
+    static StackTraceElement culprit(StackTraceElement[] stack) {
+        StackTraceElement application = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.startsWith(VIEW_PACKAGE)) {
+                return frame;
+            }
+            if (application == null && className.startsWith(APP_PACKAGE)
+                    && !className.equals(VaadinMetrics.class.getName())
+                    && !className.startsWith(VaadinMetrics.class.getName() + "$")) {
+                application = frame;
+            }
+        }
+        return application;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    private static final class InFlight {
+        private final String type;
+        private final String route;
+        private final long start;
+        private volatile boolean failed;
+        private volatile StackTraceElement culprit;
+
+        InFlight(String type, String route, long start) {
+            this.type = type;
+            this.route = route;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.inas.vaadinapp.config;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.router.RouterLayout;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer app.vaadin.view.construction : durée de construction des vues (@Route) et des
+ * layouts, par classe, injection des dépendances et @PostConstruct compris.
+ *
+ * Vaadin crée les vues par le contexte Spring (SpringInstantiator) : la construction
+ * est encadrée par les deux rappels du BeanPostProcessor, dans le thread de la
+ * requête. Une vue peut en construire une autre (layout parent) : pile par thread.
+ *
+ * BeanPostProcessor créé avant les autres beans : le registre de métriques est obtenu
+ * à la demande (ObjectProvider) pour ne pas forcer sa création anticipée.
+ */
+@org.springframework.stereotype.Component
+public class ViewConstructionTimer implements InstantiationAwareBeanPostProcessor {
+
+    public static final String TIMER = "app.vaadin.view.construction";
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final ThreadLocal<Deque<Started>> started = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public ViewConstructionTimer(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        if (isView(beanClass)) {
+            started.get().push(new Started(beanClass, System.nanoTime()));
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!isView(bean.getClass())) {
+            return bean;
+        }
+        Deque<Started> stack = started.get();
+        // Les entrées laissées par un constructeur en échec sont écartées
+        while (!stack.isEmpty()) {
+            Started entry = stack.pop();
+            if (entry.type() == bean.getClass()) {
+                MeterRegistry meters = registry.getIfAvailable();
+                if (meters != null) {
+                    Timer.builder(TIMER)
+                            .description("Construction des vues Vaadin")
+                            .tag("view", entry.type().getSimpleName())
+                            .register(meters)
+                            .record(System.nanoTime() - entry.start(), TimeUnit.NANOSECONDS);
+                }
+                break;
+            }
+        }
+        if (stack.isEmpty()) {
+            started.remove();
+        }
+        return bean;
+    }
+
+    private static boolean isView(Class<?> type) {
+        return Component.class.isAssignableFrom(type)
+                && (type.isAnnotationPresent(Route.class) || RouterLayout.class.isAssignableFrom(type));
+    }
+
+    private record Started(Class<?> type, long start) {
+    }
+}
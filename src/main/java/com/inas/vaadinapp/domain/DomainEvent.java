@@ -0,0 +1,16 @@
+package com.inas.vaadinapp.domain;
+
+/**
+ * Événement métier émis par les services après une mutation.
+ *
+ * Les modèles de lecture (statistiques, caches...) s'y abonnent pour se mettre à jour
+ * de façon incrémentale au lieu de relire la base. Les services publient via
+ * DomainEventBus (outbox transactionnelle) ; les événements sont sérialisés en JSON.
+ */
+public interface DomainEvent {
+
+    // Type d'agrégat concerné ("user", "event", "reservation")
+    String aggregateType();
+
+    Long aggregateId();
+}
@@ -0,0 +1,12 @@
+package com.inas.vaadinapp.domain;
+
+import com.inas.vaadinapp.entity.EventStatus;
+
+public record EventDeleted(Long eventId, Long organizerId, EventStatus status) implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "event"; }
+
+    @Override
+    public Long aggregateId() { return eventId; }
+}
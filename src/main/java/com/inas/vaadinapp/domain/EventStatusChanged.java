@@ -0,0 +1,14 @@
+package com.inas.vaadinapp.domain;
+
+import com.inas.vaadinapp.entity.EventStatus;
+
+// Publication, annulation ou fin d'un événement
+public record EventStatusChanged(Long eventId, Long organizerId, EventStatus previousStatus, EventStatus newStatus)
+        implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "event"; }
+
+    @Override
+    public Long aggregateId() { return eventId; }
+}
@@ -0,0 +1,11 @@
+package com.inas.vaadinapp.domain;
+
+// Modification des informations d'un événement, sans changement de statut
+public record EventUpdated(Long eventId, Long organizerId) implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "event"; }
+
+    @Override
+    public Long aggregateId() { return eventId; }
+}
@@ -0,0 +1,16 @@
+package com.inas.vaadinapp.domain;
+
+import com.inas.vaadinapp.entity.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+public record ReservationCreated(Long reservationId, Long eventId, Long clientId, ReservationStatus status,
+                                 int nbPlaces, double montantTotal, LocalDateTime dateReservation)
+        implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "reservation"; }
+
+    @Override
+    public Long aggregateId() { return reservationId; }
+}
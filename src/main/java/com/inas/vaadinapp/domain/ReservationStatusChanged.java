@@ -0,0 +1,18 @@
+package com.inas.vaadinapp.domain;
+
+import com.inas.vaadinapp.entity.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+// Confirmation ou annulation d'une réservation
+public record ReservationStatusChanged(Long reservationId, Long eventId, Long clientId,
+                                       ReservationStatus previousStatus, ReservationStatus newStatus,
+                                       int nbPlaces, double montantTotal, LocalDateTime dateReservation)
+        implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "reservation"; }
+
+    @Override
+    public Long aggregateId() { return reservationId; }
+}
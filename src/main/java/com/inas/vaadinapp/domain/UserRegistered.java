@@ -0,0 +1,12 @@
+package com.inas.vaadinapp.domain;
+
+import com.inas.vaadinapp.entity.Role;
+
+public record UserRegistered(Long userId, Role role) implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "user"; }
+
+    @Override
+    public Long aggregateId() { return userId; }
+}
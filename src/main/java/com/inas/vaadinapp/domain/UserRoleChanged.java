@@ -0,0 +1,12 @@
+package com.inas.vaadinapp.domain;
+
+import com.inas.vaadinapp.entity.Role;
+
+public record UserRoleChanged(Long userId, Role previousRole, Role newRole) implements DomainEvent {
+
+    @Override
+    public String aggregateType() { return "user"; }
+
+    @Override
+    public Long aggregateId() { return userId; }
+}
@@ -0,0 +1,37 @@
+package com.inas.vaadinapp.dto;
+
+/**
+ * Audience approximative d'un ensemble d'événements (esquisses HyperLogLog).
+ */
+public class AudienceStats {
+
+    // Clients distincts sur l'ensemble des événements
+    private final long uniqueClients;
+    // Somme des clients distincts de chaque événement
+    private final long attendances;
+    // Erreur relative typique des estimations
+    private final double relativeError;
+
+    public AudienceStats(long uniqueClients, long attendances, double relativeError) {
+        this.uniqueClients = uniqueClients;
+        this.attendances = attendances;
+        this.relativeError = relativeError;
+    }
+
+    public long getUniqueClients() {
+        return uniqueClients;
+    }
+
+    public long getAttendances() {
+        return attendances;
+    }
+
+    // Participations de clients déjà venus à un autre événement de l'ensemble
+    public long getRepeatAttendances() {
+        return Math.max(0, attendances - uniqueClients);
+    }
+
+    public double getRelativeError() {
+        return relativeError;
+    }
+}
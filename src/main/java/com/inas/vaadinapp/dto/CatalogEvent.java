@@ -0,0 +1,97 @@
+package com.inas.vaadinapp.dto;
+
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.Event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié tel qu'exposé par le catalogue public : copie immuable des seuls
+ * champs affichés, sans lien vers l'entité ni ses réservations.
+ */
+public class CatalogEvent {
+
+    private final Long id;
+    private final String titre;
+    private final String description;
+    private final Category categorie;
+    private final String ville;
+    private final String lieu;
+    private final LocalDateTime dateDebut;
+    private final LocalDateTime dateFin;
+    private final double prixUnitaire;
+    private final int capaciteMax;
+    private final int reservationCount;
+
+    public CatalogEvent(Long id, String titre, String description, Category categorie, String ville, String lieu,
+                        LocalDateTime dateDebut, LocalDateTime dateFin, double prixUnitaire, int capaciteMax,
+                        int reservationCount) {
+        this.id = id;
+        this.titre = titre;
+        this.description = description;
+        this.categorie = categorie;
+        this.ville = ville;
+        this.lieu = lieu;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.prixUnitaire = prixUnitaire;
+        this.capaciteMax = capaciteMax;
+        this.reservationCount = reservationCount;
+    }
+
+    public static CatalogEvent of(Event event, int reservationCount) {
+        return new CatalogEvent(event.getId(), event.getTitre(), event.getDescription(), event.getCategorie(),
+                event.getVille(), event.getLieu(), event.getDateDebut(), event.getDateFin(),
+                event.getPrixUnitaire() != null ? event.getPrixUnitaire() : 0.0, event.getCapaciteMax(),
+                reservationCount);
+    }
+
+    public CatalogEvent withReservationCount(int count) {
+        return new CatalogEvent(id, titre, description, categorie, ville, lieu, dateDebut, dateFin,
+                prixUnitaire, capaciteMax, count);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitre() {
+        return titre;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Category getCategorie() {
+        return categorie;
+    }
+
+    public String getVille() {
+        return ville;
+    }
+
+    public String getLieu() {
+        return lieu;
+    }
+
+    public LocalDateTime getDateDebut() {
+        return dateDebut;
+    }
+
+    public LocalDateTime getDateFin() {
+        return dateFin;
+    }
+
+    public double getPrixUnitaire() {
+        return prixUnitaire;
+    }
+
+    public int getCapaciteMax() {
+        return capaciteMax;
+    }
+
+    public int getReservationCount() {
+        return reservationCount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.inas.vaadinapp.dto;
+
+import com.inas.vaadinapp.entity.ReservationStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Totaux des réservations d'un client, par statut.
+ */
+public class ClientReservationTotals {
+
+    private final Map<ReservationStatus, Long> countByStatus;
+    private final Map<ReservationStatus, Double> amountByStatus;
+
+    public ClientReservationTotals(Map<ReservationStatus, Long> countByStatus,
+                                   Map<ReservationStatus, Double> amountByStatus) {
+        this.countByStatus = Collections.unmodifiableMap(new EnumMap<>(countByStatus));
+        this.amountByStatus = Collections.unmodifiableMap(new EnumMap<>(amountByStatus));
+    }
+
+    public long getCount(ReservationStatus status) {
+        return countByStatus.getOrDefault(status, 0L);
+    }
+
+    public long getTotal() {
+        return countByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getPending() {
+        return getCount(ReservationStatus.EN_ATTENTE);
+    }
+
+    public long getConfirmed() {
+        return getCount(ReservationStatus.CONFIRMEE);
+    }
+
+    public long getCancelled() {
+        return getCount(ReservationStatus.ANNULEE);
+    }
+
+    // Montant des réservations non annulées
+    public double getActiveAmount() {
+        return amountByStatus.getOrDefault(ReservationStatus.EN_ATTENTE, 0.0)
+                + amountByStatus.getOrDefault(ReservationStatus.CONFIRMEE, 0.0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.inas.vaadinapp.dto;
+
+import com.inas.vaadinapp.entity.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de réservation à plat (réservation + client + événement), construite
+ * directement par la requête JPQL : aucune association paresseuse à charger.
+ */
+public class ReservationRow {
+
+    private final Long id;
+    private final String codeReservation;
+    private final Long clientId;
+    private final String clientNom;
+    private final String clientPrenom;
+    private final String clientEmail;
+    private final Long eventId;
+    private final String eventTitre;
+    private final LocalDateTime eventDateDebut;
+    private final String eventVille;
+    private final Integer nbPlaces;
+    private final Double prixUnitaire;
+    private final Double montantTotal;
+    private final LocalDateTime dateReservation;
+    private final ReservationStatus status;
+    private final String commentaire;
+
+    public ReservationRow(Long id, String codeReservation,
+                          Long clientId, String clientNom, String clientPrenom, String clientEmail,
+                          Long eventId, String eventTitre, LocalDateTime eventDateDebut, String eventVille,
+                          Integer nbPlaces, Double prixUnitaire, Double montantTotal,
+                          LocalDateTime dateReservation, ReservationStatus status, String commentaire) {
+        this.id = id;
+        this.codeReservation = codeReservation;
+        this.clientId = clientId;
+        this.clientNom = clientNom;
+        this.clientPrenom = clientPrenom;
+        this.clientEmail = clientEmail;
+        this.eventId = eventId;
+        this.eventTitre = eventTitre;
+        this.eventDateDebut = eventDateDebut;
+        this.eventVille = eventVille;
+        this.nbPlaces = nbPlaces;
+        this.prixUnitaire = prixUnitaire;
+        this.montantTotal = montantTotal;
+        this.dateReservation = dateReservation;
+        this.status = status;
+        this.commentaire = commentaire;
+    }
+
+    public String getClientFullName() {
+        return clientPrenom + " " + clientNom;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCodeReservation() {
+        return codeReservation;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public String getClientNom() {
+        return clientNom;
+    }
+
+    public String getClientPrenom() {
+        return clientPrenom;
+    }
+
+    public String getClientEmail() {
+        return clientEmail;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public String getEventTitre() {
+        return eventTitre;
+    }
+
+    public LocalDateTime getEventDateDebut() {
+        return eventDateDebut;
+    }
+
+    public String getEventVille() {
+        return eventVille;
+    }
+
+    public Integer getNbPlaces() {
+        return nbPlaces;
+    }
+
+    public Double getPrixUnitaire() {
+        return prixUnitaire;
+    }
+
+    public Double getMontantTotal() {
+        return montantTotal;
+    }
+
+    public LocalDateTime getDateReservation() {
+        return dateReservation;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public String getCommentaire() {
+        return commentaire;
+    }
+}
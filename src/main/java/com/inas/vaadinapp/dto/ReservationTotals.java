@@ -0,0 +1,31 @@
+package com.inas.vaadinapp.dto;
+
+/**
+ * Totaux agrégés d'un ensemble de réservations (un événement, un organisateur...).
+ */
+public class ReservationTotals {
+
+    private final long nbReservations;
+    // Places des réservations non annulées
+    private final long placesReservees;
+    // Montant des réservations confirmées
+    private final double revenuConfirme;
+
+    public ReservationTotals(long nbReservations, long placesReservees, double revenuConfirme) {
+        this.nbReservations = nbReservations;
+        this.placesReservees = placesReservees;
+        this.revenuConfirme = revenuConfirme;
+    }
+
+    public long getNbReservations() {
+        return nbReservations;
+    }
+
+    public long getPlacesReservees() {
+        return placesReservees;
+    }
+
+    public double getRevenuConfirme() {
+        return revenuConfirme;
+    }
+}
@@ -0,0 +1,37 @@
+package com.inas.vaadinapp.dto;
+
+import java.time.YearMonth;
+
+/**
+ * Un point d'une série temporelle de réservations (un mois).
+ */
+public class RollupPoint {
+
+    private final YearMonth month;
+    private final long bookings;
+    private final long places;
+    private final double revenue;
+
+    public RollupPoint(YearMonth month, long bookings, long places, double revenue) {
+        this.month = month;
+        this.bookings = bookings;
+        this.places = places;
+        this.revenue = revenue;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public long getPlaces() {
+        return places;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+}
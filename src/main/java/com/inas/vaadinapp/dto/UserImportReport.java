@@ -0,0 +1,63 @@
+package com.inas.vaadinapp.dto;
+
+import java.util.List;
+
+/**
+ * Avancement (puis bilan) d'un import d'utilisateurs.
+ * Seules les premières erreurs sont conservées, avec leur numéro de ligne.
+ */
+public class UserImportReport {
+
+    private final long lines;
+    private final long imported;
+    // Email présent plusieurs fois dans le fichier
+    private final long duplicates;
+    // Email déjà inscrit en base
+    private final long existing;
+    private final long invalid;
+    private final List<String> errors;
+    private final boolean finished;
+
+    public UserImportReport(long lines, long imported, long duplicates, long existing, long invalid,
+                            List<String> errors, boolean finished) {
+        this.lines = lines;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.existing = existing;
+        this.invalid = invalid;
+        this.errors = List.copyOf(errors);
+        this.finished = finished;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getExisting() {
+        return existing;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getSkipped() {
+        return duplicates + existing + invalid;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
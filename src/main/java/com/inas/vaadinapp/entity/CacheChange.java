@@ -0,0 +1,64 @@
+package com.inas.vaadinapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne du journal des changements partagé entre les nœuds : une clé de cache rendue
+ * obsolète par une mutation validée. Les nœuds suivent le journal par identifiant croissant.
+ */
+@Entity
+@Table(name = "cache_change_log",
+       indexes = @Index(name = "idx_cache_change_created", columnList = "created_at"))
+public class CacheChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Nœud à l'origine de la mutation : il a déjà invalidé ses propres caches
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private CacheRegion region;
+
+    @Column(name = "cache_key")
+    private Long cacheKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public CacheChange() {}
+
+    public CacheChange(String nodeId, CacheRegion region, Long cacheKey) {
+        this.nodeId = nodeId;
+        this.region = region;
+        this.cacheKey = cacheKey;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public CacheRegion getRegion() {
+        return region;
+    }
+
+    public Long getCacheKey() {
+        return cacheKey;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.inas.vaadinapp.entity;
+
+// Caches en mémoire invalidés entre les nœuds via le journal des changements
+public enum CacheRegion {
+    // Entrée du catalogue public (clé : identifiant d'événement)
+    EVENT_CATALOG,
+    // Statistiques d'un utilisateur (clé : identifiant d'utilisateur, null = toutes)
+    USER_STATS,
+    // Indicateurs globaux de la plateforme (sans clé)
+    PLATFORM_METRICS
+}
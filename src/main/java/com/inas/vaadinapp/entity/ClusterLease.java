@@ -0,0 +1,47 @@
+package com.inas.vaadinapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bail à durée limitée partagé entre les nœuds : verrou d'une tâche planifiée
+ * ("job:..."), ou présence d'un nœud vivant ("node:..."). Un bail expiré peut être
+ * repris par n'importe quel nœud.
+ */
+@Entity
+@Table(name = "cluster_lease")
+public class ClusterLease {
+
+    @Id
+    @Column(length = 128)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public ClusterLease() {}
+
+    public ClusterLease(String name, String owner, LocalDateTime expiresAt) {
+        this.name = name;
+        this.owner = owner;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+
+    public String getName() {
+        return name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
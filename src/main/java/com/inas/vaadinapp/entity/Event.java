@@ -60,7 +60,8 @@ public class Event {
     private User organisateur;
 
     // Relation : liste des réservations (on fera Reservation plus tard)
-    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Chargée à la demande : les compteurs passent par ReservationRepository
+    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Reservation> reservations = new ArrayList<>();
 
 
@@ -0,0 +1,77 @@
+package com.inas.vaadinapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Esquisse HyperLogLog des clients ayant réservé un événement (registres bruts).
+ * Organisateur et catégorie sont dénormalisés pour fusionner sans jointure.
+ */
+@Entity
+@Table(name = "event_audience_sketches",
+       indexes = {
+           @Index(name = "idx_sketch_organizer", columnList = "organizer_id"),
+           @Index(name = "idx_sketch_categorie", columnList = "categorie")
+       })
+public class EventAudienceSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true)
+    private Long eventId;
+
+    @Column(name = "organizer_id")
+    private Long organizerId;
+
+    @Enumerated(EnumType.STRING)
+    private Category categorie;
+
+    @Column(nullable = false, length = 2048)
+    private byte[] registers;
+
+    private LocalDateTime updatedAt;
+
+    public EventAudienceSketch() {}
+
+    public EventAudienceSketch(Long eventId, Long organizerId, Category categorie, byte[] registers) {
+        this.eventId = eventId;
+        this.organizerId = organizerId;
+        this.categorie = categorie;
+        this.registers = registers;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters / Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getOrganizerId() {
+        return organizerId;
+    }
+
+    public Category getCategorie() {
+        return categorie;
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
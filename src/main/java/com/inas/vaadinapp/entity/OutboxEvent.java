@@ -0,0 +1,104 @@
+package com.inas.vaadinapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement métier enregistré dans la transaction qui l'a produit (outbox), en attente
+ * de distribution aux modèles de lecture. L'identifiant donne l'ordre de distribution.
+ */
+@Entity
+@Table(name = "domain_event_outbox",
+       indexes = {
+           @Index(name = "idx_outbox_status", columnList = "status, id"),
+           @Index(name = "idx_outbox_node", columnList = "node_id, status, id")
+       })
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    // Nom qualifié de la classe de l'événement
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    // Nœud chargé de la distribution (celui qui a validé la mutation)
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.EN_ATTENTE;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime dispatchedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload, String nodeId) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.nodeId = nodeId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
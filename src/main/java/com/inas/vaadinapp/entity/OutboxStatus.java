@@ -0,0 +1,7 @@
+package com.inas.vaadinapp.entity;
+
+public enum OutboxStatus {
+    EN_ATTENTE,
+    DISTRIBUE,
+    ECHEC
+}
@@ -6,7 +6,8 @@ import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations",
+       indexes = @Index(name = "idx_reservation_client_date", columnList = "user_id, dateReservation, id"))
 public class Reservation {
 
     @Id
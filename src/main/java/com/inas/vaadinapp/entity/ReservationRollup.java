@@ -0,0 +1,101 @@
+package com.inas.vaadinapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat des réservations actives (EN_ATTENTE + CONFIRMEE) d'un événement sur un
+ * intervalle de temps (heure ou jour), daté par la date de réservation.
+ * Les identifiants sont dénormalisés : pas de jointure pour les requêtes de tendance.
+ */
+@Entity
+@Table(name = "reservation_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"granularity", "bucket_start", "event_id"}),
+       indexes = {
+           @Index(name = "idx_rollup_bucket", columnList = "bucket_start"),
+           @Index(name = "idx_rollup_organizer_bucket", columnList = "organizer_id, bucket_start")
+       })
+public class ReservationRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "organizer_id")
+    private Long organizerId;
+
+    @Enumerated(EnumType.STRING)
+    private Category categorie;
+
+    private long bookings;
+
+    private long places;
+
+    private double revenue;
+
+    public ReservationRollup() {}
+
+    public ReservationRollup(RollupGranularity granularity, LocalDateTime bucketStart,
+                             Long eventId, Long organizerId, Category categorie) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.eventId = eventId;
+        this.organizerId = organizerId;
+        this.categorie = categorie;
+    }
+
+    public void add(long bookings, long places, double revenue) {
+        this.bookings += bookings;
+        this.places += places;
+        this.revenue += revenue;
+    }
+
+    // Getters / Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getOrganizerId() {
+        return organizerId;
+    }
+
+    public Category getCategorie() {
+        return categorie;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public long getPlaces() {
+        return places;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+}
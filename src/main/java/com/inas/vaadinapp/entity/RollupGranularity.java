@@ -0,0 +1,14 @@
+package com.inas.vaadinapp.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Taille des intervalles de temps des agrégats de réservations
+public enum RollupGranularity {
+    HOUR,
+    DAY;
+
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(this == HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+}
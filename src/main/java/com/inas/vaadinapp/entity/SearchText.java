@@ -0,0 +1,72 @@
+package com.inas.vaadinapp.entity;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation et découpage en n-grammes du texte de recherche des utilisateurs.
+ *
+ * Le texte indexé est "nom prénom email" en minuscules, sans accents ni espaces
+ * multiples. Il est découpé en trigrammes (recherche par sous-chaîne) et en préfixes
+ * de mots de 1 et 2 caractères marqués par '^' (recherche sur un terme court).
+ */
+public final class SearchText {
+
+    public static final int GRAM_LENGTH = 3;
+    public static final char PREFIX_MARK = '^';
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchText() {}
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public static String ofUser(String nom, String prenom, String email) {
+        return normalize(nom + " " + prenom + " " + email);
+    }
+
+    // N-grammes indexés d'un texte déjà normalisé
+    public static Set<String> indexGrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>(trigrams(normalized));
+        for (String word : WORD_SEPARATORS.split(normalized)) {
+            if (!word.isEmpty()) {
+                grams.add(PREFIX_MARK + word.substring(0, 1));
+            }
+            if (word.length() >= 2) {
+                grams.add(PREFIX_MARK + word.substring(0, 2));
+            }
+        }
+        return grams;
+    }
+
+    // N-grammes qu'un utilisateur doit tous posséder pour correspondre au terme (normalisé).
+    // Vide si le terme est trop court et contient un séparateur : pas de filtrage par index.
+    public static Set<String> queryGrams(String term) {
+        if (term.length() >= GRAM_LENGTH) {
+            return trigrams(term);
+        }
+        if (term.isEmpty() || WORD_SEPARATORS.matcher(term).find()) {
+            return Set.of();
+        }
+        return Set.of(PREFIX_MARK + term);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
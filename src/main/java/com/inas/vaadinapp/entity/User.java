@@ -2,8 +2,9 @@ package com.inas.vaadinapp.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
+import java.util.Locale;
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_user_role_actif", columnList = "role, actif"))
 
 public class User {
 
@@ -38,12 +39,22 @@ public class User {
     // optionnel → pas de @NotBlank
     private String telephone;
 
+    // "nom prénom email" normalisé : vérification finale de la recherche par n-grammes
+    @Column(name = "search_text", length = 768)
+    private String searchText;
+
     public User() {
         // on peut initialiser la date d'inscription automatiquement
         this.dateInscription = LocalDateTime.now();
         this.actif = true;
     }
 
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchText() {
+        this.searchText = SearchText.ofUser(nom, prenom, email);
+    }
+
     // === Getters & Setters ===
 
     public Long getId() {
@@ -75,7 +86,12 @@ public class User {
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        this.email = normalizeEmail(email);
+    }
+
+    // Emails comparés sans casse : stockés et recherchés en minuscules, sans espaces autour
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 
     public String getPassword() {
@@ -117,5 +133,8 @@ public class User {
     public void setTelephone(String telephone) {
         this.telephone = telephone;
     }
-}
 
+    public String getSearchText() {
+        return searchText;
+    }
+}
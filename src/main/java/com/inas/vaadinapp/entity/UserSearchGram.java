@@ -0,0 +1,47 @@
+package com.inas.vaadinapp.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entrée de l'index n-grammes des utilisateurs : un n-gramme de "nom prénom email".
+ * L'index (gram, user_id) sert la recherche, l'index user_id la réindexation.
+ */
+@Entity
+@Table(name = "user_search_grams",
+       indexes = {
+           @Index(name = "idx_user_gram", columnList = "gram, user_id"),
+           @Index(name = "idx_user_gram_user", columnList = "user_id")
+       })
+public class UserSearchGram {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 3)
+    private String gram;
+
+    public UserSearchGram() {}
+
+    public UserSearchGram(Long userId, String gram) {
+        this.userId = userId;
+        this.gram = gram;
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getGram() {
+        return gram;
+    }
+}
@@ -0,0 +1,25 @@
+package com.inas.vaadinapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.inas.vaadinapp.entity.CacheChange;
+
+public interface CacheChangeRepository extends JpaRepository<CacheChange, Long> {
+
+    // Parcours de la clé primaire : seules les lignes postérieures au curseur sont lues
+    List<CacheChange> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheChange c")
+    Long findLastId();
+
+    @Modifying
+    @Query("DELETE FROM CacheChange c WHERE c.createdAt < :before")
+    int deleteByCreatedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,28 @@
+package com.inas.vaadinapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.inas.vaadinapp.entity.ClusterLease;
+
+public interface ClusterLeaseRepository extends JpaRepository<ClusterLease, String> {
+
+    // Prise ou prolongation atomique : 1 si le bail est à nous, 0 s'il est tenu par un autre nœud
+    @Modifying
+    @Query("UPDATE ClusterLease l SET l.owner = :owner, l.expiresAt = :until "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("DELETE FROM ClusterLease l WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    @Query("SELECT l.owner FROM ClusterLease l WHERE l.name LIKE :prefix AND l.expiresAt > :now ORDER BY l.owner")
+    List<String> findLiveOwners(@Param("prefix") String prefix, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,33 @@
+package com.inas.vaadinapp.repository;
+
+import jakarta.persistence.LockModeType;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.EventAudienceSketch;
+
+public interface EventAudienceSketchRepository extends JpaRepository<EventAudienceSketch, Long> {
+
+    Optional<EventAudienceSketch> findByEventId(Long eventId);
+
+    // Verrou de ligne : deux nœuds qui ajoutent un client au même événement s'attendent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM EventAudienceSketch s WHERE s.eventId = :eventId")
+    Optional<EventAudienceSketch> findByEventIdForUpdate(@Param("eventId") Long eventId);
+
+    List<EventAudienceSketch> findByOrganizerId(Long organizerId);
+
+    List<EventAudienceSketch> findByCategorie(Category categorie);
+
+    @Modifying
+    @Query("DELETE FROM EventAudienceSketch s WHERE s.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
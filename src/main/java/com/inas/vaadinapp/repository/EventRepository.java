@@ -3,17 +3,28 @@ package com.inas.vaadinapp.repository;
 import com.inas.vaadinapp.entity.Event;
 import com.inas.vaadinapp.entity.EventStatus;
 import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
 
     List<Event> findByStatus(EventStatus status);
 
+    // Verrou exclusif sur la ligne : sérialise les réservations concurrentes d'un même événement
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :eventId")
+    Optional<Event> findByIdForUpdate(@Param("eventId") Long eventId);
+
     List<Event> findByCategorie(Category categorie);
 
     List<Event> findByVilleIgnoreCase(String ville);
@@ -32,6 +43,16 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE e.status = :status AND e.dateFin > :currentDate")
     List<Event> findAvailableEvents(@Param("status") EventStatus status, @Param("currentDate") LocalDateTime currentDate);
 
+    // Places restantes (capacité moins places des statuts donnés), en une requête
+    @Query("SELECT e.capaciteMax - COALESCE((SELECT SUM(r.nbPlaces) FROM Reservation r "
+            + "WHERE r.event.id = e.id AND r.status IN :statuses), 0) FROM Event e WHERE e.id = :eventId")
+    Optional<Long> findAvailablePlaces(@Param("eventId") Long eventId,
+                                       @Param("statuses") List<ReservationStatus> statuses);
+
+    // Événements triés par nombre de réservations décroissant
+    @Query("SELECT e FROM Event e LEFT JOIN e.reservations r GROUP BY e ORDER BY COUNT(r) DESC")
+    List<Event> findMostReserved(Pageable pageable);
+
     // Compter le nombre d'événements par catégorie
     long countByCategorie(Category categorie);
 
@@ -46,4 +67,29 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     // Trouver les événements par plage de prix
     List<Event> findByPrixUnitaireBetween(double prixMin, double prixMax);
+
+    // Nombre d'événements par statut : [status, count]
+    @Query("SELECT e.status, COUNT(e) FROM Event e GROUP BY e.status")
+    List<Object[]> countGroupByStatus();
+
+    // Clés d'agrégation d'un événement : [organisateur.id, categorie]
+    @Query("SELECT o.id, e.categorie FROM Event e LEFT JOIN e.organisateur o WHERE e.id = :eventId")
+    List<Object[]> findRollupKey(@Param("eventId") Long eventId);
+
+    // Bornes des identifiants : [min, max] (répartition des tâches planifiées entre nœuds)
+    @Query("SELECT MIN(e.id), MAX(e.id) FROM Event e")
+    List<Object[]> findIdRange();
+
+    // Événements d'une tranche d'identifiants terminés avant "now" : [id, organisateur.id]
+    @Query("SELECT e.id, o.id FROM Event e LEFT JOIN e.organisateur o "
+            + "WHERE e.status = :status AND e.dateFin < :now AND e.id BETWEEN :fromId AND :toId")
+    List<Object[]> findEndedInRange(@Param("status") EventStatus status, @Param("now") LocalDateTime now,
+                                    @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Changement de statut conditionnel : 0 si un autre traitement l'a déjà fait
+    @Modifying
+    @Query("UPDATE Event e SET e.status = :newStatus, e.dateModification = :now "
+            + "WHERE e.id = :eventId AND e.status = :expectedStatus")
+    int updateStatusIf(@Param("eventId") Long eventId, @Param("expectedStatus") EventStatus expectedStatus,
+                       @Param("newStatus") EventStatus newStatus, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,44 @@
+package com.inas.vaadinapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.inas.vaadinapp.entity.OutboxEvent;
+import com.inas.vaadinapp.entity.OutboxStatus;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByStatusOrderByIdAsc(OutboxStatus status, Pageable pageable);
+
+    List<OutboxEvent> findByStatusAndNodeIdOrderByIdAsc(OutboxStatus status, String nodeId, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT o.id FROM OutboxEvent o WHERE o.status = :status")
+    List<Long> findIdsByStatus(@Param("status") OutboxStatus status);
+
+    // Reprise des événements en attente d'un nœud disparu
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.nodeId = :nodeId WHERE o.status = :status "
+            + "AND (o.nodeId IS NULL OR o.nodeId NOT IN :liveNodes)")
+    int adoptOrphans(@Param("nodeId") String nodeId, @Param("status") OutboxStatus status,
+                     @Param("liveNodes") Collection<String> liveNodes);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = :status, o.dispatchedAt = :dispatchedAt, o.error = :error "
+            + "WHERE o.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("status") OutboxStatus status,
+                       @Param("dispatchedAt") LocalDateTime dispatchedAt, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.status = :status AND o.dispatchedAt < :before")
+    int deleteByStatusAndDispatchedAtBefore(@Param("status") OutboxStatus status,
+                                            @Param("before") LocalDateTime before);
+}
@@ -4,16 +4,45 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.inas.vaadinapp.dto.ReservationRow;
+import com.inas.vaadinapp.dto.ReservationTotals;
 import com.inas.vaadinapp.entity.Reservation;
 import com.inas.vaadinapp.entity.ReservationStatus;
 
+import jakarta.persistence.LockModeType;
+
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    // Toutes les réservations avec client, événement et organisateur, en une requête
+    @EntityGraph(attributePaths = {"client", "event", "event.organisateur"})
+    @Query("SELECT r FROM Reservation r")
+    List<Reservation> findAllWithClientAndEvent();
+
+    // Verrou exclusif sur la ligne : confirmation et annulation d'une même réservation
+    // s'exécutent l'une après l'autre, la seconde voit le statut laissé par la première
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :reservationId")
+    Optional<Reservation> findByIdForUpdate(@Param("reservationId") Long reservationId);
+
+    boolean existsByEventId(Long eventId);
+
+    long countByEventId(Long eventId);
+
+    // Nombre de réservations (tous statuts) par événement : [event.id, count]
+    @Query("SELECT r.event.id, COUNT(r) FROM Reservation r GROUP BY r.event.id")
+    List<Object[]> countGroupByEventId();
+
+    @Query("SELECT DISTINCT r.event.id FROM Reservation r")
+    List<Long> findReservedEventIds();
+
     boolean existsByCodeReservation(String codeReservation);
 
     Optional<Reservation> findByCodeReservation(String codeReservation);
@@ -21,6 +50,8 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @EntityGraph(attributePaths = "event")
     List<Reservation> findByClientId(Long userId);
 
+    long countByClientId(Long userId);
+
     List<Reservation> findByEventId(Long eventId);
 
     List<Reservation> findByStatus(ReservationStatus status);
@@ -51,4 +82,90 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     // Vérifier si un utilisateur a déjà réservé un événement spécifique
     boolean existsByClientIdAndEventId(Long clientId, Long eventId);
+
+    // Agrégats globaux par statut : [status, count, sum(nbPlaces), sum(montantTotal)]
+    @Query("SELECT r.status, COUNT(r), COALESCE(SUM(r.nbPlaces), 0), COALESCE(SUM(r.montantTotal), 0.0) FROM Reservation r GROUP BY r.status")
+    List<Object[]> aggregateGroupByStatus();
+
+    // Source de reconstruction des agrégats : [event.id, organisateur.id, categorie, dateReservation, nbPlaces, montantTotal]
+    @Query("SELECT e.id, o.id, e.categorie, r.dateReservation, r.nbPlaces, r.montantTotal "
+            + "FROM Reservation r JOIN r.event e LEFT JOIN e.organisateur o WHERE r.status IN :statuses")
+    List<Object[]> findRollupSource(@Param("statuses") List<ReservationStatus> statuses);
+
+    // Couples distincts pour reconstruire les esquisses d'audience : [event.id, organisateur.id, categorie, client.id]
+    @Query("SELECT DISTINCT e.id, o.id, e.categorie, r.client.id FROM Reservation r JOIN r.event e LEFT JOIN e.organisateur o")
+    List<Object[]> findAudienceSource();
+
+    String ROW_SELECT = "SELECT new com.inas.vaadinapp.dto.ReservationRow(r.id, r.codeReservation, c.id, c.nom, c.prenom, c.email, "
+            + "e.id, e.titre, e.dateDebut, e.ville, r.nbPlaces, r.prixUnitaire, r.montantTotal, r.dateReservation, r.status, r.commentaire) ";
+
+    // Filtres communs aux requêtes paginées ; chaque filtre est ignoré lorsqu'il vaut null
+    // et "search" est un motif LIKE déjà en minuscules
+    String ROW_FILTER = "FROM Reservation r JOIN r.client c JOIN r.event e "
+            + "WHERE (:eventId IS NULL OR e.id = :eventId) "
+            + "AND (:organizerId IS NULL OR e.organisateur.id = :organizerId) "
+            + "AND (:status IS NULL OR r.status = :status) "
+            + "AND (:search IS NULL OR LOWER(CONCAT(c.prenom, ' ', c.nom)) LIKE :search "
+            + "OR LOWER(c.email) LIKE :search OR LOWER(r.codeReservation) LIKE :search)";
+
+    // Recherche paginée et triable, client et événement projetés dans la même requête.
+    // Tranche sans comptage : le total, quand il sert, vient de countRows.
+    @Query(ROW_SELECT + ROW_FILTER)
+    Slice<ReservationRow> searchRows(@Param("eventId") Long eventId,
+                                    @Param("organizerId") Long organizerId,
+                                    @Param("status") ReservationStatus status,
+                                    @Param("search") String search,
+                                    Pageable pageable);
+
+    @Query("SELECT COUNT(r) " + ROW_FILTER)
+    long countRows(@Param("eventId") Long eventId,
+                   @Param("organizerId") Long organizerId,
+                   @Param("status") ReservationStatus status,
+                   @Param("search") String search);
+
+    // Historique d'un client, parcouru par la méthode "seek" sur (dateReservation DESC, id DESC) :
+    // la page suivante commence strictement après la dernière ligne lue (afterDate, afterId),
+    // sans OFFSET. Avec afterDate null, la pagination classique du Pageable s'applique.
+    @Query(ROW_SELECT + "FROM Reservation r JOIN r.client c JOIN r.event e "
+            + "WHERE c.id = :clientId "
+            + "AND (:status IS NULL OR r.status = :status) "
+            + "AND (:code IS NULL OR UPPER(r.codeReservation) LIKE :code) "
+            + "AND (:afterDate IS NULL OR r.dateReservation < :afterDate "
+            + "OR (r.dateReservation = :afterDate AND r.id < :afterId)) "
+            + "ORDER BY r.dateReservation DESC, r.id DESC")
+    List<ReservationRow> findClientHistory(@Param("clientId") Long clientId,
+                                           @Param("status") ReservationStatus status,
+                                           @Param("code") String code,
+                                           @Param("afterDate") LocalDateTime afterDate,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM Reservation r WHERE r.client.id = :clientId "
+            + "AND (:status IS NULL OR r.status = :status) "
+            + "AND (:code IS NULL OR UPPER(r.codeReservation) LIKE :code)")
+    long countClientHistory(@Param("clientId") Long clientId,
+                            @Param("status") ReservationStatus status,
+                            @Param("code") String code);
+
+    // Totaux d'un client par statut : [status, count, sum(montantTotal)]
+    @Query("SELECT r.status, COUNT(r), COALESCE(SUM(r.montantTotal), 0.0) FROM Reservation r "
+            + "WHERE r.client.id = :clientId GROUP BY r.status")
+    List<Object[]> aggregateByClientGroupByStatus(@Param("clientId") Long clientId);
+
+    // Totaux d'un événement : nombre, places non annulées, revenu confirmé
+    @Query("SELECT new com.inas.vaadinapp.dto.ReservationTotals(COUNT(r), "
+            + "COALESCE(SUM(CASE WHEN r.status <> :cancelled THEN r.nbPlaces ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN r.status = :confirmed THEN r.montantTotal ELSE 0.0 END), 0.0)) "
+            + "FROM Reservation r WHERE r.event.id = :eventId")
+    ReservationTotals totalsByEventId(@Param("eventId") Long eventId,
+                                      @Param("cancelled") ReservationStatus cancelled,
+                                      @Param("confirmed") ReservationStatus confirmed);
+
+    // Totaux des événements d'un organisateur : [nombre, nombre actif, places actives]
+    @Query("SELECT COUNT(r), "
+            + "COALESCE(SUM(CASE WHEN r.status IN :active THEN 1 ELSE 0 END), 0), "
+            + "COALESCE(SUM(CASE WHEN r.status IN :active THEN r.nbPlaces ELSE 0 END), 0) "
+            + "FROM Reservation r WHERE r.event.organisateur.id = :organizerId")
+    List<Object[]> totalsByOrganizerId(@Param("organizerId") Long organizerId,
+                                       @Param("active") List<ReservationStatus> active);
 }
@@ -0,0 +1,62 @@
+package com.inas.vaadinapp.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.ReservationRollup;
+import com.inas.vaadinapp.entity.RollupGranularity;
+
+public interface ReservationRollupRepository extends JpaRepository<ReservationRollup, Long> {
+
+    Optional<ReservationRollup> findByGranularityAndBucketStartAndEventId(RollupGranularity granularity,
+                                                                          LocalDateTime bucketStart,
+                                                                          Long eventId);
+
+    // Incrément atomique d'un intervalle existant ; 0 ligne modifiée = intervalle à créer
+    @Modifying
+    @Query("UPDATE ReservationRollup r SET r.bookings = r.bookings + :bookings, r.places = r.places + :places, "
+            + "r.revenue = r.revenue + :revenue "
+            + "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.eventId = :eventId")
+    int increment(@Param("granularity") RollupGranularity granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("eventId") Long eventId,
+                  @Param("bookings") long bookings,
+                  @Param("places") long places,
+                  @Param("revenue") double revenue);
+
+    List<ReservationRollup> findByGranularityAndBucketStartBefore(RollupGranularity granularity, LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM ReservationRollup r WHERE r.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    // Tendance mensuelle : [année, mois, réservations, places, revenus], toutes granularités confondues
+    @Query("SELECT YEAR(r.bucketStart), MONTH(r.bucketStart), SUM(r.bookings), SUM(r.places), SUM(r.revenue) "
+            + "FROM ReservationRollup r "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to "
+            + "AND (:organizerId IS NULL OR r.organizerId = :organizerId) "
+            + "AND (:categorie IS NULL OR r.categorie = :categorie) "
+            + "GROUP BY YEAR(r.bucketStart), MONTH(r.bucketStart)")
+    List<Object[]> sumByMonth(@Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              @Param("organizerId") Long organizerId,
+                              @Param("categorie") Category categorie);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0.0) FROM ReservationRollup r "
+            + "WHERE r.bucketStart >= :from AND r.bucketStart < :to "
+            + "AND (:organizerId IS NULL OR r.organizerId = :organizerId)")
+    double sumRevenue(@Param("from") LocalDateTime from,
+                      @Param("to") LocalDateTime to,
+                      @Param("organizerId") Long organizerId);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0.0) FROM ReservationRollup r "
+            + "WHERE (:organizerId IS NULL OR r.organizerId = :organizerId)")
+    double sumRevenueByOrganizer(@Param("organizerId") Long organizerId);
+}
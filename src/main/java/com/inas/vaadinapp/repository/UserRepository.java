@@ -1,7 +1,16 @@
 package com.inas.vaadinapp.repository;
 import com.inas.vaadinapp.entity.User;
 import com.inas.vaadinapp.entity.Role;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.inas.vaadinapp.entity.ReservationStatus;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,9 +19,74 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    // Comptes antérieurs à la normalisation des emails
+    @Query("SELECT u FROM User u WHERE u.email <> LOWER(u.email)")
+    List<User> findWithUppercaseEmail();
+
     List<User> findByActifTrueAndRole(Role role);
 
     List<User> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String nom, String prenom);
 
     long countByRole(Role role);
+
+    // Emails déjà inscrits parmi ceux donnés (import par lots)
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Identifiants des comptes donnés : [id, email]
+    @Query("SELECT u.id, u.email FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmails(@Param("emails") Collection<String> emails);
+
+    // Remplace le hash seulement s'il n'a pas changé depuis sa lecture (réencodage à la connexion)
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :encoded WHERE u.id = :userId AND u.password = :previous")
+    int updatePassword(@Param("userId") Long userId, @Param("previous") String previous,
+                       @Param("encoded") String encoded);
+
+    // Nombre d'utilisateurs par rôle : [role, count]
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupByRole();
+
+    // Statistiques d'un utilisateur en une requête :
+    // [événements créés, réservations (tous statuts), montant des réservations aux statuts donnés]
+    @Query("SELECT (SELECT COUNT(e) FROM Event e WHERE e.organisateur.id = u.id), "
+            + "(SELECT COUNT(r) FROM Reservation r WHERE r.client.id = u.id), "
+            + "(SELECT COALESCE(SUM(r2.montantTotal), 0.0) FROM Reservation r2 WHERE r2.client.id = u.id AND r2.status IN :spentStatuses) "
+            + "FROM User u WHERE u.id = :userId")
+    List<Object[]> aggregateStatistics(@Param("userId") Long userId,
+                                       @Param("spentStatuses") List<ReservationStatus> spentStatuses);
+
+    /* ================== RECHERCHE ================== */
+
+    String SEARCH_FILTER = "(:role IS NULL OR u.role = :role) AND (:actif IS NULL OR u.actif = :actif) "
+            + "AND (:pattern IS NULL OR u.searchText LIKE :pattern ESCAPE '\\')";
+
+    // Candidats possédant tous les n-grammes du terme (index gram, user_id), puis
+    // vérification de la sous-chaîne sur ces seuls candidats
+    String GRAM_FILTER = "u.id IN (SELECT g.userId FROM UserSearchGram g WHERE g.gram IN :grams "
+            + "GROUP BY g.userId HAVING COUNT(DISTINCT g.gram) = :gramCount) AND " + SEARCH_FILTER;
+
+    // Tranches sans comptage (une ligne de plus lue pour hasNext) : le total a sa propre requête
+    @Query("SELECT u FROM User u WHERE " + SEARCH_FILTER)
+    Slice<User> search(@Param("pattern") String pattern, @Param("role") Role role,
+                      @Param("actif") Boolean actif, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE " + SEARCH_FILTER)
+    long countSearch(@Param("pattern") String pattern, @Param("role") Role role, @Param("actif") Boolean actif);
+
+    @Query("SELECT u FROM User u WHERE " + GRAM_FILTER)
+    Slice<User> searchByGrams(@Param("grams") Collection<String> grams, @Param("gramCount") long gramCount,
+                             @Param("pattern") String pattern, @Param("role") Role role,
+                             @Param("actif") Boolean actif, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE " + GRAM_FILTER)
+    long countSearchByGrams(@Param("grams") Collection<String> grams, @Param("gramCount") long gramCount,
+                            @Param("pattern") String pattern, @Param("role") Role role,
+                            @Param("actif") Boolean actif);
+
+    // Utilisateurs absents de l'index n-grammes (écritures directes en base, DataInit...)
+    @Query("SELECT u FROM User u WHERE u.searchText IS NULL "
+            + "OR NOT EXISTS (SELECT g FROM UserSearchGram g WHERE g.userId = u.id) ORDER BY u.id")
+    List<User> findUnindexed(Pageable pageable);
 }
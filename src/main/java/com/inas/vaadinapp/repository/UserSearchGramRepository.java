@@ -0,0 +1,15 @@
+package com.inas.vaadinapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.inas.vaadinapp.entity.UserSearchGram;
+
+public interface UserSearchGramRepository extends JpaRepository<UserSearchGram, Long> {
+
+    @Modifying
+    @Query("DELETE FROM UserSearchGram g WHERE g.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
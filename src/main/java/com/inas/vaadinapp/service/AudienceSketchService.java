@@ -0,0 +1,187 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.dto.AudienceStats;
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.EventAudienceSketch;
+import com.inas.vaadinapp.repository.EventAudienceSketchRepository;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clients distincts et clients récurrents par événement, organisateur ou catégorie.
+ *
+ * Chaque événement possède une esquisse HyperLogLog de ses clients, mise à jour à la
+ * création d'une réservation. Les esquisses d'un organisateur ou d'une catégorie sont
+ * fusionnées à la lecture : le coût ne dépend que du nombre d'événements, jamais du
+ * nombre de réservations. Une annulation ne retire pas le client (l'esquisse ne sait
+ * qu'ajouter) : on compte les clients ayant réservé au moins une fois.
+ *
+ * Chaque nœud distribue ses propres événements : l'esquisse est lue sous verrou de ligne,
+ * et la création concurrente d'une même esquisse (contrainte unique sur event_id) est
+ * rejouée. Ajouter un client deux fois est sans effet : la reprise est sûre.
+ */
+@Service
+public class AudienceSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(AudienceSketchService.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EventAudienceSketchRepository sketchRepository;
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final TransactionTemplate writeTransaction;
+    // Ordonne, sur ce nœud, les mises à jour avec la reconstruction.
+    // Verrou explicite : sous synchronized, un thread virtuel en attente JDBC épinglerait son porteur
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AudienceSketchService(EventAudienceSketchRepository sketchRepository,
+                                 ReservationRepository reservationRepository,
+                                 EventRepository eventRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        // Les listeners s'exécutent après commit : il faut une transaction neuve pour écrire
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /* ================== LECTURE ================== */
+
+    @Transactional(readOnly = true)
+    public AudienceStats getEventAudience(Long eventId) {
+        return sketchRepository.findByEventId(eventId)
+                .map(sketch -> summarize(List.of(sketch)))
+                .orElseGet(() -> summarize(List.of()));
+    }
+
+    @Transactional(readOnly = true)
+    public AudienceStats getOrganizerAudience(Long organizerId) {
+        return summarize(sketchRepository.findByOrganizerId(organizerId));
+    }
+
+    @Transactional(readOnly = true)
+    public AudienceStats getCategoryAudience(Category categorie) {
+        return summarize(sketchRepository.findByCategorie(categorie));
+    }
+
+    private AudienceStats summarize(List<EventAudienceSketch> sketches) {
+        HyperLogLog union = new HyperLogLog();
+        long attendances = 0;
+        for (EventAudienceSketch sketch : sketches) {
+            HyperLogLog eventSketch = HyperLogLog.fromBytes(sketch.getRegisters());
+            attendances += eventSketch.estimate();
+            union.merge(eventSketch);
+        }
+        return new AudienceStats(union.estimate(), attendances, HyperLogLog.relativeError());
+    }
+
+    /* ================== MISES À JOUR INCRÉMENTALES ================== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationCreated event) {
+        lock.lock();
+        try {
+            record(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(ReservationCreated event) {
+        List<Object[]> keys = eventRepository.findRollupKey(event.eventId());
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeTransaction.executeWithoutResult(status -> addClient(event, keys.get(0)));
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                log.debug("Esquisse créée en parallèle, nouvelle tentative ({}/{})", attempt + 1, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    private void addClient(ReservationCreated event, Object[] key) {
+        EventAudienceSketch sketch = sketchRepository.findByEventIdForUpdate(event.eventId())
+                .orElseGet(() -> new EventAudienceSketch(event.eventId(), (Long) key[0],
+                        (Category) key[1], new HyperLogLog().toBytes()));
+
+        HyperLogLog hll = HyperLogLog.fromBytes(sketch.getRegisters());
+        // Client déjà compté (registre inchangé) : aucune écriture
+        if (hll.add(event.clientId()) || sketch.getId() == null) {
+            sketch.setRegisters(hll.toBytes());
+            // Flush immédiat : un doublon créé par un autre nœud est détecté dans cette tentative
+            sketchRepository.saveAndFlush(sketch);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventDeleted event) {
+        lock.lock();
+        try {
+            writeTransaction.executeWithoutResult(status -> sketchRepository.deleteByEventId(event.eventId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ================== RECONSTRUCTION ================== */
+
+    // Au démarrage, une table vide est reconstruite depuis les réservations (ex. base en mémoire)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (sketchRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            writeTransaction.executeWithoutResult(this::rebuildAll);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuildAll(TransactionStatus status) {
+        sketchRepository.deleteAllInBatch();
+
+        Map<Long, Object[]> keys = new HashMap<>();
+        Map<Long, HyperLogLog> sketches = new HashMap<>();
+        for (Object[] row : reservationRepository.findAudienceSource()) {
+            Long eventId = (Long) row[0];
+            keys.putIfAbsent(eventId, row);
+            sketches.computeIfAbsent(eventId, id -> new HyperLogLog()).add((Long) row[3]);
+        }
+
+        sketches.forEach((eventId, hll) -> sketchRepository.save(new EventAudienceSketch(eventId,
+                (Long) keys.get(eventId)[1], (Category) keys.get(eventId)[2], hll.toBytes())));
+        log.info("Esquisses d'audience reconstruites : {} événements", sketches.size());
+    }
+}
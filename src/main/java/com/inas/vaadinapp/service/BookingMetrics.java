@@ -0,0 +1,71 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.domain.ReservationStatusChanged;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compteurs métier des réservations, exposés par Actuator (/actuator/prometheus) :
+ * - app.bookings            : réservations, par statut final (créée, confirmée, annulée) ;
+ * - app.bookings.seats      : places, mêmes étiquettes ;
+ * - app.bookings.revenue    : montant, mêmes étiquettes ;
+ * - app.bookings.failed     : créations refusées, par motif (reason).
+ *
+ * Les succès sont comptés à la livraison des événements métier par l'outbox, donc
+ * uniquement pour des mutations validées. Les refus sont signalés par ReservationService
+ * avant l'exception ; les erreurs techniques apparaissent dans le timer app.service
+ * (outcome=error).
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String BOOKINGS = "app.bookings";
+    public static final String FAILED = "app.bookings.failed";
+
+    private final MeterRegistry registry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /* ================== ÉVÉNEMENTS MÉTIER ================== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationCreated event) {
+        record("created", event.nbPlaces(), event.montantTotal());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationStatusChanged event) {
+        switch (event.newStatus()) {
+            case CONFIRMEE -> record("confirmed", event.nbPlaces(), event.montantTotal());
+            case ANNULEE -> record("cancelled", event.nbPlaces(), event.montantTotal());
+            default -> { }
+        }
+    }
+
+    // Motif court et stable (cardinalité bornée), pas le message affiché à l'utilisateur
+    public void rejected(String reason) {
+        counter(FAILED, "reason", reason, "Réservations refusées").increment();
+    }
+
+    private void record(String status, int places, double amount) {
+        counter(BOOKINGS, "status", status, "Réservations").increment();
+        counter(BOOKINGS + ".seats", "status", status, "Places réservées").increment(places);
+        counter(BOOKINGS + ".revenue", "status", status, "Montant des réservations").increment(amount);
+    }
+
+    private Counter counter(String name, String tag, String value, String description) {
+        return counters.computeIfAbsent(name + '|' + value, k -> Counter.builder(name)
+                .description(description)
+                .tag(tag, value)
+                .register(registry));
+    }
+}
@@ -0,0 +1,9 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.CacheRegion;
+
+/**
+ * Clé de cache modifiée par un autre nœud, publiée localement par le journal des
+ * changements. Clé null : toute la région est obsolète.
+ */
+public record CacheInvalidation(CacheRegion region, Long key) {}
@@ -0,0 +1,206 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.DomainEvent;
+import com.inas.vaadinapp.domain.EventCreated;
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.EventStatusChanged;
+import com.inas.vaadinapp.domain.EventUpdated;
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.domain.ReservationStatusChanged;
+import com.inas.vaadinapp.domain.UserRegistered;
+import com.inas.vaadinapp.domain.UserRoleChanged;
+import com.inas.vaadinapp.entity.CacheChange;
+import com.inas.vaadinapp.entity.CacheRegion;
+import com.inas.vaadinapp.repository.CacheChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Invalidation des caches en mémoire entre plusieurs nœuds partageant la base, sans
+ * courtier de messages.
+ *
+ * Chaque événement métier ajoute, dans la transaction de la mutation, les clés de
+ * cache qu'il rend obsolètes à la table cache_change_log. Chaque nœud suit ce journal
+ * par une requête sur la clé primaire (id > curseur) et republie localement les clés
+ * modifiées par les autres nœuds ; le nœud d'origine a déjà invalidé ses caches via
+ * les abonnés de l'outbox.
+ *
+ * Les identifiants sont attribués avant le commit : une ligne peut devenir visible
+ * après une ligne d'identifiant supérieur. Le curseur ne franchit donc un trou que
+ * lorsque la ligne suivante est plus ancienne que app.cluster.commit-grace ; les
+ * lignes déjà traitées au-delà du trou ne sont pas republiées.
+ *
+ * Désactivé par défaut (nœud unique) : rien n'est écrit ni lu.
+ */
+@Service
+public class ClusterChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterChangeLog.class);
+
+    private final CacheChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterCoordinator coordinator;
+    private final TransactionTemplate purgeTransaction;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int batchSize;
+    private final Duration commitGrace;
+    private final Duration retention;
+
+    // Curseur de lecture et lignes déjà traitées au-delà d'un trou, protégés par "lock".
+    // Verrou explicite : sous synchronized, un thread virtuel en attente JDBC épinglerait son porteur
+    private final ReentrantLock lock = new ReentrantLock();
+    private long cursor;
+    private final Set<Long> processedAhead = new HashSet<>();
+
+    public ClusterChangeLog(CacheChangeRepository changeRepository, ApplicationEventPublisher eventPublisher,
+                            ClusterCoordinator coordinator, PlatformTransactionManager transactionManager,
+                            @Value("${app.cluster.batch-size:500}") int batchSize,
+                            @Value("${app.cluster.commit-grace:PT10S}") Duration commitGrace,
+                            @Value("${app.cluster.retention:PT1H}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.coordinator = coordinator;
+        this.purgeTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = coordinator.isEnabled();
+        this.nodeId = coordinator.getNodeId();
+        this.batchSize = batchSize;
+        this.commitGrace = commitGrace;
+        this.retention = retention;
+    }
+
+    /* ================== ÉCRITURE ================== */
+
+    // Appelé dans la transaction de la mutation, avec l'écriture dans l'outbox
+    public void record(DomainEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<CacheChange> changes = new ArrayList<>();
+        if (event instanceof EventCreated e) {
+            changes.add(change(CacheRegion.USER_STATS, e.organizerId()));
+            changes.add(change(CacheRegion.PLATFORM_METRICS, null));
+        } else if (event instanceof EventUpdated e) {
+            changes.add(change(CacheRegion.EVENT_CATALOG, e.eventId()));
+        } else if (event instanceof EventStatusChanged e) {
+            changes.add(change(CacheRegion.EVENT_CATALOG, e.eventId()));
+            changes.add(change(CacheRegion.PLATFORM_METRICS, null));
+        } else if (event instanceof EventDeleted e) {
+            // Les réservations supprimées avec l'événement touchent tous leurs clients
+            changes.add(change(CacheRegion.EVENT_CATALOG, e.eventId()));
+            changes.add(change(CacheRegion.USER_STATS, null));
+            changes.add(change(CacheRegion.PLATFORM_METRICS, null));
+        } else if (event instanceof ReservationCreated e) {
+            changes.add(change(CacheRegion.EVENT_CATALOG, e.eventId()));
+            changes.add(change(CacheRegion.USER_STATS, e.clientId()));
+            changes.add(change(CacheRegion.PLATFORM_METRICS, null));
+        } else if (event instanceof ReservationStatusChanged e) {
+            changes.add(change(CacheRegion.USER_STATS, e.clientId()));
+            changes.add(change(CacheRegion.PLATFORM_METRICS, null));
+        } else if (event instanceof UserRegistered || event instanceof UserRoleChanged) {
+            changes.add(change(CacheRegion.PLATFORM_METRICS, null));
+        }
+        changeRepository.saveAll(changes);
+    }
+
+    private CacheChange change(CacheRegion region, Long key) {
+        return new CacheChange(nodeId, region, key);
+    }
+
+    /* ================== SUIVI DU JOURNAL ================== */
+
+    // Les caches sont reconstruits depuis la base au démarrage : l'historique est ignoré
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            cursor = changeRepository.findLastId();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Journal des changements : nœud {} à partir de l'identifiant {}", nodeId, cursor);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.poll-interval:PT2S}",
+               initialDelayString = "${app.cluster.poll-interval:PT2S}")
+    public int poll() {
+        if (!enabled) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            return pollBatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pollBatch() {
+        List<CacheChange> rows = changeRepository.findByIdGreaterThanOrderByIdAsc(cursor,
+                PageRequest.of(0, batchSize));
+        LocalDateTime graceLimit = LocalDateTime.now().minus(commitGrace);
+
+        // Une même clé modifiée plusieurs fois dans le lot n'est invalidée qu'une fois
+        Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+        boolean blocked = false;
+        for (CacheChange row : rows) {
+            long id = row.getId();
+            if (!processedAhead.contains(id) && !nodeId.equals(row.getNodeId())) {
+                invalidations.add(new CacheInvalidation(row.getRegion(), row.getCacheKey()));
+            }
+            if (!blocked && (id == cursor + 1 || row.getCreatedAt().isBefore(graceLimit))) {
+                cursor = id;
+                processedAhead.remove(id);
+            } else {
+                blocked = true;
+                processedAhead.add(id);
+            }
+        }
+
+        for (CacheInvalidation invalidation : invalidations) {
+            try {
+                eventPublisher.publishEvent(invalidation);
+            } catch (RuntimeException ex) {
+                log.warn("Invalidation {} impossible : {}", invalidation, ex.getMessage());
+            }
+        }
+        return invalidations.size();
+    }
+
+    // Un seul nœud purge à chaque tick
+    @Scheduled(cron = "${app.cluster.purge-cron:0 45 * * * *}")
+    public void purge() {
+        if (enabled) {
+            coordinator.runOnce("change-log-purge", this::purgeExpired);
+        }
+    }
+
+    private void purgeExpired() {
+        Integer deleted = purgeTransaction.execute(status ->
+                changeRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Journal des changements : {} lignes purgées", deleted);
+        }
+    }
+}
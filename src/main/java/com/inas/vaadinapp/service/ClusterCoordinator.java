@@ -0,0 +1,173 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.repository.ClusterLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Coordination des nœuds partageant la base, par baux à durée limitée (table cluster_lease).
+ *
+ * Chaque nœud entretient un bail de présence ("node:<id>") ; la liste des baux valides
+ * donne les nœuds vivants. Une tâche planifiée à exécuter une seule fois par tick prend
+ * le bail "job:<nom>" pour app.cluster.job-lease, sans le rendre : les nœuds dont le
+ * tick tombe un peu plus tard le trouvent tenu et passent leur tour. Une tâche répartie
+ * découpe une plage d'identifiants en autant de tranches contiguës que de nœuds vivants ;
+ * chaque nœud traite la sienne. Pendant un changement de composition deux nœuds peuvent
+ * se chevaucher : les tâches réparties doivent rester idempotentes.
+ *
+ * Désactivé (nœud unique) : tout s'exécute localement, sans accès à la table.
+ */
+@Service
+public class ClusterCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCoordinator.class);
+    private static final String NODE_PREFIX = "node:";
+    private static final String JOB_PREFIX = "job:";
+
+    private final ClusterLeaseRepository leaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration nodeTtl;
+    private final Duration jobLease;
+
+    public ClusterCoordinator(ClusterLeaseRepository leaseRepository, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.cluster.enabled:false}") boolean enabled,
+                              @Value("${app.cluster.node-id:}") String nodeId,
+                              @Value("${app.cluster.node-ttl:PT30S}") Duration nodeTtl,
+                              @Value("${app.cluster.job-lease:PT1M}") Duration jobLease) {
+        this.leaseRepository = leaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Un bail est pris et validé indépendamment de la transaction de l'appelant
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.nodeTtl = nodeTtl;
+        this.jobLease = jobLease;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /* ================== PRÉSENCE DES NŒUDS ================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (enabled) {
+            heartbeat();
+            log.info("Nœud {} : {} nœud(s) vivant(s)", nodeId, getLiveNodes().size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval:PT10S}",
+               initialDelayString = "${app.cluster.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        if (enabled && !acquire(NODE_PREFIX + nodeId, nodeTtl)) {
+            log.warn("Bail de présence du nœud {} tenu par un autre nœud : identifiant en double ?", nodeId);
+        }
+    }
+
+    // Nœuds dont le bail de présence est valide, triés par identifiant
+    public List<String> getLiveNodes() {
+        if (!enabled) {
+            return List.of(nodeId);
+        }
+        return leaseRepository.findLiveOwners(NODE_PREFIX + "%", LocalDateTime.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            try {
+                leaseTransaction.executeWithoutResult(status -> leaseRepository.release(NODE_PREFIX + nodeId, nodeId));
+            } catch (RuntimeException ex) {
+                // Base déjà fermée : le bail expirera de lui-même
+                log.debug("Bail de présence non libéré : {}", ex.getMessage());
+            }
+        }
+    }
+
+    /* ================== TÂCHES PLANIFIÉES ================== */
+
+    // Exécute la tâche si ce nœud obtient le bail du tick ; false si un autre nœud l'a déjà
+    public boolean runOnce(String job, Runnable task) {
+        if (enabled && !acquire(JOB_PREFIX + job, jobLease)) {
+            return false;
+        }
+        task.run();
+        return true;
+    }
+
+    // Exécute la tâche sur la tranche [from, to] de [minId, maxId] revenant à ce nœud
+    public boolean runSharded(String job, long minId, long maxId, RangeTask task) {
+        if (!enabled) {
+            task.run(minId, maxId);
+            return true;
+        }
+        List<String> liveNodes = getLiveNodes();
+        int index = liveNodes.indexOf(nodeId);
+        if (index < 0 || minId > maxId) {
+            return false;
+        }
+        int count = liveNodes.size();
+        long shardSize = (maxId - minId) / count + 1;
+        long from = minId + index * shardSize;
+        long to = Math.min(maxId, from + shardSize - 1);
+        if (from > maxId) {
+            return false;
+        }
+        // Bail par tranche : deux nœuds ne traitent pas la même tranche dans le même tick
+        return runOnce(job + "#" + index + "/" + count, () -> task.run(from, to));
+    }
+
+    private boolean acquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        Boolean acquired = leaseTransaction.execute(status ->
+                leaseRepository.tryAcquire(name, nodeId, now, until) == 1);
+        if (Boolean.TRUE.equals(acquired)) {
+            return true;
+        }
+        // Premier bail de ce nom : insertion, un seul nœud l'emporte sur la clé primaire
+        try {
+            leaseTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "INSERT INTO cluster_lease (name, owner, expires_at) VALUES (?, ?, ?)",
+                    name, nodeId, Timestamp.valueOf(until)));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    @FunctionalInterface
+    public interface RangeTask {
+        void run(long fromId, long toId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.inas.vaadinapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inas.vaadinapp.domain.DomainEvent;
+import com.inas.vaadinapp.entity.OutboxEvent;
+import com.inas.vaadinapp.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Point d'entrée des événements métier émis par les services.
+ *
+ * L'événement est écrit dans la table outbox dans la transaction de la mutation : il
+ * existe si et seulement si la mutation est validée. Au commit, le distributeur est
+ * réveillé et livre l'événement aux abonnés hors du thread de l'appelant. Les autres
+ * nœuds en sont informés par le journal des changements (ClusterChangeLog).
+ */
+@Service
+public class DomainEventBus {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ClusterChangeLog changeLog;
+    private final ClusterCoordinator coordinator;
+    private final ObjectMapper objectMapper;
+
+    public DomainEventBus(OutboxEventRepository outboxRepository, OutboxDispatcher dispatcher,
+                          ClusterChangeLog changeLog, ClusterCoordinator coordinator, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.changeLog = changeLog;
+        this.coordinator = coordinator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public void publish(DomainEvent event) {
+        ReservationRecording.Publish recording = new ReservationRecording.Publish();
+        recording.begin();
+        outboxRepository.save(new OutboxEvent(event.aggregateType(), event.aggregateId(),
+                event.getClass().getName(), toJson(event), coordinator.getNodeId()));
+        // Clés de cache à invalider sur les autres nœuds
+        changeLog.record(event);
+
+        // Rien n'est distribué si la transaction est annulée
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+
+        // Écriture dans l'outbox et le journal des changements, dans la transaction de l'appelant
+        recording.end();
+        if (recording.shouldCommit()) {
+            recording.type = event.getClass().getSimpleName();
+            recording.aggregateType = event.aggregateType();
+            recording.aggregateId = ReservationRecording.id(event.aggregateId());
+            recording.commit();
+        }
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Événement non sérialisable : " + event, ex);
+        }
+    }
+}
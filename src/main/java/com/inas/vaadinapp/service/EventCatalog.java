@@ -0,0 +1,379 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.EventStatusChanged;
+import com.inas.vaadinapp.domain.EventUpdated;
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.dto.CatalogEvent;
+import com.inas.vaadinapp.entity.CacheRegion;
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.entity.SearchText;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catalogue public des événements publiés et non terminés, servi depuis la mémoire.
+ *
+ * Le catalogue est un snapshot immuable : tableau trié par date de début, plus des
+ * index secondaires (positions dans ce tableau) par catégorie et par ville. Les
+ * lecteurs ne prennent aucun verrou ; chaque modification d'un événement construit
+ * un nouveau snapshot et le publie d'un seul coup (copie sur écriture). Les écritures
+ * sont rares face aux consultations anonymes, d'où ce compromis.
+ *
+ * Une reconstruction périodique retire les événements terminés et corrige toute
+ * dérive (écritures hors services, DataInit...). Elle lit la base hors verrou : chaque
+ * mise à jour incrémentale incrémente une génération, et une reconstruction dont la
+ * lecture a croisé une mise à jour recommence au lieu d'écraser celle-ci.
+ *
+ * Verrou explicite plutôt que synchronized : la dernière tentative lit la base sous le
+ * verrou, et un thread virtuel bloqué dans un bloc synchronized épingle son porteur.
+ */
+@Service
+public class EventCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCatalog.class);
+    private static final int[] NONE = new int[0];
+    // Au-delà, la dernière lecture se fait sous le verrou des mises à jour
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+    // Sérialise la publication des snapshots
+    private final ReentrantLock lock = new ReentrantLock();
+    // Mises à jour incrémentales publiées ; protégé par "lock"
+    private long generation;
+
+    public EventCatalog(EventRepository eventRepository, ReservationRepository reservationRepository) {
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+    }
+
+    /* ================== LECTURE ================== */
+
+    public List<CatalogEvent> findAll() {
+        return search(null, null, null, null, null, null, null);
+    }
+
+    // Critères optionnels (null = ignoré) ; résultat trié par date de début
+    public List<CatalogEvent> search(Category categorie, String ville, LocalDateTime start, LocalDateTime end,
+                                     Double prixMin, Double prixMax, String keyword) {
+        Snapshot current = snapshot;
+        String city = ville == null || ville.isBlank() ? null : SearchText.normalize(ville);
+        String term = keyword == null || keyword.isBlank() ? null : SearchText.normalize(keyword);
+        long now = key(LocalDateTime.now());
+
+        // La plage de dates se résout par dichotomie sur le tableau trié
+        int from = start == null ? 0 : current.lowerBound(key(start));
+        int to = end == null ? current.events.length : current.upperBound(key(end));
+
+        // On parcourt l'index le plus sélectif ; les autres critères sont vérifiés entrée par entrée
+        int[] positions = null;
+        if (categorie != null) {
+            positions = current.byCategory.getOrDefault(categorie, NONE);
+        }
+        if (city != null) {
+            int[] byCity = current.byCity.getOrDefault(city, NONE);
+            if (positions == null || byCity.length < positions.length) {
+                positions = byCity;
+            }
+        }
+
+        List<CatalogEvent> result = new ArrayList<>();
+        if (positions == null) {
+            for (int i = from; i < to; i++) {
+                collect(current, i, categorie, city, prixMin, prixMax, term, now, result);
+            }
+        } else {
+            for (int i = insertionPoint(positions, from); i < positions.length && positions[i] < to; i++) {
+                collect(current, positions[i], categorie, city, prixMin, prixMax, term, now, result);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return snapshot.events.length;
+    }
+
+    private static void collect(Snapshot current, int position, Category categorie, String city,
+                                Double prixMin, Double prixMax, String term, long now, List<CatalogEvent> result) {
+        CatalogEvent event = current.events[position];
+        if (current.endKeys[position] <= now
+                || (categorie != null && event.getCategorie() != categorie)
+                || (city != null && !city.equals(current.cityKeys[position]))
+                || (prixMin != null && event.getPrixUnitaire() < prixMin)
+                || (prixMax != null && event.getPrixUnitaire() > prixMax)
+                || (term != null && !current.searchTexts[position].contains(term))) {
+            return;
+        }
+        result.add(event);
+    }
+
+    /* ================== RECONSTRUCTION ================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+        log.info("Catalogue public : {} événements publiés", size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval:PT5M}",
+               initialDelayString = "${app.catalog.refresh-interval:PT5M}")
+    public void rebuild() {
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            long start;
+            lock.lock();
+            try {
+                start = generation;
+            } finally {
+                lock.unlock();
+            }
+            List<CatalogEvent> events = load();
+            lock.lock();
+            try {
+                if (generation == start) {
+                    snapshot = Snapshot.build(events);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            log.debug("Reconstruction du catalogue croisée par une mise à jour, nouvelle tentative");
+        }
+        lock.lock();
+        try {
+            snapshot = Snapshot.build(load());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<CatalogEvent> load() {
+        // Compteurs en une requête groupée plutôt qu'une collection chargée par événement
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : reservationRepository.countGroupByEventId()) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return eventRepository.findAvailableEvents(EventStatus.PUBLIE, LocalDateTime.now())
+                .stream().map(e -> CatalogEvent.of(e, counts.getOrDefault(e.getId(), 0))).toList();
+    }
+
+    /* ================== MISES À JOUR ================== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventUpdated event) {
+        refresh(event.eventId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventStatusChanged event) {
+        if (event.previousStatus() == EventStatus.PUBLIE || event.newStatus() == EventStatus.PUBLIE) {
+            refresh(event.eventId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventDeleted event) {
+        lock.lock();
+        try {
+            replace(event.eventId(), null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Seul le compteur change : les positions, donc les index, restent valides
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationCreated event) {
+        lock.lock();
+        try {
+            Integer position = snapshot.positionById.get(event.eventId());
+            if (position != null) {
+                CatalogEvent[] events = snapshot.events.clone();
+                events[position] = events[position].withReservationCount(events[position].getReservationCount() + 1);
+                snapshot = snapshot.withEvents(events);
+            }
+            generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Événement modifié par un autre nœud
+    @EventListener
+    public void on(CacheInvalidation invalidation) {
+        if (invalidation.region() != CacheRegion.EVENT_CATALOG) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            rebuild();
+        } else {
+            refresh(invalidation.key());
+        }
+    }
+
+    private void refresh(Long eventId) {
+        // Lecture hors verrou ; seule la publication du snapshot est sérialisée
+        CatalogEvent entry = eventRepository.findById(eventId)
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE)
+                .filter(e -> e.getDateFin() != null && e.getDateFin().isAfter(LocalDateTime.now()))
+                .map(e -> CatalogEvent.of(e, (int) reservationRepository.countByEventId(eventId)))
+                .orElse(null);
+        lock.lock();
+        try {
+            replace(eventId, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replace(Long eventId, CatalogEvent entry) {
+        generation++;
+        Snapshot current = snapshot;
+        if (entry == null && !current.positionById.containsKey(eventId)) {
+            return;
+        }
+        List<CatalogEvent> events = new ArrayList<>(current.events.length + 1);
+        for (CatalogEvent existing : current.events) {
+            if (!existing.getId().equals(eventId)) {
+                events.add(existing);
+            }
+        }
+        if (entry != null) {
+            events.add(entry);
+        }
+        snapshot = Snapshot.build(events);
+    }
+
+    private static long key(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    // Premier indice i tel que positions[i] >= position
+    private static int insertionPoint(int[] positions, int position) {
+        int found = Arrays.binarySearch(positions, position);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    private static final class Snapshot {
+
+        private static final Comparator<CatalogEvent> ORDER = Comparator
+                .comparing(CatalogEvent::getDateDebut, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(CatalogEvent::getId);
+
+        private final CatalogEvent[] events;
+        // Colonnes parallèles à "events" pour éviter de recalculer à chaque recherche
+        private final long[] startKeys;
+        private final long[] endKeys;
+        private final String[] cityKeys;
+        private final String[] searchTexts;
+        private final Map<Category, int[]> byCategory;
+        private final Map<String, int[]> byCity;
+        private final Map<Long, Integer> positionById;
+
+        private Snapshot(CatalogEvent[] events, long[] startKeys, long[] endKeys, String[] cityKeys,
+                         String[] searchTexts, Map<Category, int[]> byCategory, Map<String, int[]> byCity,
+                         Map<Long, Integer> positionById) {
+            this.events = events;
+            this.startKeys = startKeys;
+            this.endKeys = endKeys;
+            this.cityKeys = cityKeys;
+            this.searchTexts = searchTexts;
+            this.byCategory = byCategory;
+            this.byCity = byCity;
+            this.positionById = positionById;
+        }
+
+        static Snapshot build(List<CatalogEvent> source) {
+            CatalogEvent[] events = source.toArray(new CatalogEvent[0]);
+            Arrays.sort(events, ORDER);
+
+            int n = events.length;
+            long[] startKeys = new long[n];
+            long[] endKeys = new long[n];
+            String[] cityKeys = new String[n];
+            String[] searchTexts = new String[n];
+            Map<Category, List<Integer>> categoryLists = new EnumMap<>(Category.class);
+            Map<String, List<Integer>> cityLists = new HashMap<>();
+            Map<Long, Integer> positionById = new HashMap<>(n * 2);
+
+            for (int i = 0; i < n; i++) {
+                CatalogEvent event = events[i];
+                startKeys[i] = event.getDateDebut() != null ? key(event.getDateDebut()) : Long.MAX_VALUE;
+                endKeys[i] = event.getDateFin() != null ? key(event.getDateFin()) : Long.MAX_VALUE;
+                cityKeys[i] = SearchText.normalize(event.getVille());
+                searchTexts[i] = SearchText.normalize(event.getTitre() + " " + nullToEmpty(event.getDescription())
+                        + " " + nullToEmpty(event.getLieu()) + " " + nullToEmpty(event.getVille()));
+                if (event.getCategorie() != null) {
+                    categoryLists.computeIfAbsent(event.getCategorie(), c -> new ArrayList<>()).add(i);
+                }
+                cityLists.computeIfAbsent(cityKeys[i], c -> new ArrayList<>()).add(i);
+                positionById.put(event.getId(), i);
+            }
+
+            Map<Category, int[]> byCategory = new EnumMap<>(Category.class);
+            categoryLists.forEach((category, positions) -> byCategory.put(category, toArray(positions)));
+            Map<String, int[]> byCity = new HashMap<>();
+            cityLists.forEach((city, positions) -> byCity.put(city, toArray(positions)));
+
+            return new Snapshot(events, startKeys, endKeys, cityKeys, searchTexts,
+                    byCategory, byCity, Map.copyOf(positionById));
+        }
+
+        // Mêmes événements aux mêmes positions, seuls des champs non indexés ont changé
+        Snapshot withEvents(CatalogEvent[] replaced) {
+            return new Snapshot(replaced, startKeys, endKeys, cityKeys, searchTexts, byCategory, byCity, positionById);
+        }
+
+        // Premier indice dont la date de début est >= key
+        int lowerBound(long key) {
+            int low = 0;
+            int high = startKeys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (startKeys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Premier indice dont la date de début est > key
+        int upperBound(long key) {
+            return key == Long.MAX_VALUE ? startKeys.length : lowerBound(key + 1);
+        }
+
+        private static int[] toArray(List<Integer> positions) {
+            return positions.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+    }
+}
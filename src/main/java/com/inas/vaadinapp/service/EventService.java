@@ -2,12 +2,23 @@ package com.inas.vaadinapp.service;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.inas.vaadinapp.domain.EventCreated;
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.EventStatusChanged;
+import com.inas.vaadinapp.domain.EventUpdated;
 import com.inas.vaadinapp.entity.Category;
 import com.inas.vaadinapp.entity.Event;
 import com.inas.vaadinapp.entity.EventStatus;
@@ -24,16 +35,25 @@ public class EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final ReservationRepository reservationRepository;
+    private final DomainEventBus domainEvents;
+    private final ClusterCoordinator coordinator;
+    private final TransactionTemplate writeTransaction;
 
-    public EventService(EventRepository eventRepository, UserRepository userRepository, ReservationRepository reservationRepository) {
+    public EventService(EventRepository eventRepository, UserRepository userRepository, ReservationRepository reservationRepository,
+                        DomainEventBus domainEvents, ClusterCoordinator coordinator,
+                        PlatformTransactionManager transactionManager) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.reservationRepository = reservationRepository;
+        this.domainEvents = domainEvents;
+        this.coordinator = coordinator;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
     /* --------------------- CREATION ------------------------ */
 
     // Création d'un événement (ADMIN ou ORGANIZER uniquement)
+    @Transactional
     public Event createEvent(Event event, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur introuvable"));
@@ -45,12 +65,15 @@ public class EventService {
         event.setOrganisateur(user);
         event.setStatus(EventStatus.BROUILLON);
 
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        domainEvents.publish(new EventCreated(saved.getId(), userId, saved.getStatus()));
+        return saved;
     }
 
     /* --------------------- MODIFICATION ------------------------ */
 
     // Modification (par créateur ou ADMIN)
+    @Transactional
     public Event updateEvent(Long eventId, Event updatedEvent, Long userId) {
 
         Event event = eventRepository.findById(eventId)
@@ -77,11 +100,14 @@ public class EventService {
         event.setPrixUnitaire(updatedEvent.getPrixUnitaire());
         event.setCapaciteMax(updatedEvent.getCapaciteMax());
 
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        domainEvents.publish(new EventUpdated(saved.getId(), saved.getOrganisateur().getId()));
+        return saved;
     }
 
     /* --------------------- PUBLICATION ------------------------ */
 
+    @Transactional
     public void publishEvent(Long eventId, Long userId) {
 
         Event event = eventRepository.findById(eventId)
@@ -105,12 +131,15 @@ public class EventService {
             throw new IllegalArgumentException("Impossible de publier : informations manquantes");
         }
 
+        EventStatus previousStatus = event.getStatus();
         event.setStatus(EventStatus.PUBLIE);
         eventRepository.save(event);
+        publishStatusChange(event, previousStatus);
     }
 
     /* --------------------- ANNULATION ------------------------ */
 
+    @Transactional
     public void cancelEvent(Long eventId, Long userId) {
 
         Event event = eventRepository.findById(eventId)
@@ -124,21 +153,25 @@ public class EventService {
         }
 
         // TODO : gestion des remboursements / notifications quand les réservations seront complètes
+        EventStatus previousStatus = event.getStatus();
         event.setStatus(EventStatus.ANNULE);
         eventRepository.save(event);
+        publishStatusChange(event, previousStatus);
     }
 
     /* --------------------- SUPPRESSION ------------------------ */
 
+    @Transactional
     public void deleteEvent(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Événement introuvable"));
 
-        if (!event.getReservations().isEmpty()) {
+        if (reservationRepository.existsByEventId(eventId)) {
             throw new IllegalArgumentException("Impossible de supprimer : des réservations existent");
         }
 
         eventRepository.delete(event);
+        domainEvents.publish(new EventDeleted(event.getId(), event.getOrganisateur().getId(), event.getStatus()));
     }
 
     /* --------------------- RECHERCHE AVEC FILTRES ------------------------ */
@@ -170,29 +203,28 @@ public class EventService {
     /* --------------------- PLACES DISPONIBLES ------------------------ */
 
     public int getAvailablePlaces(Long eventId) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Événement introuvable"));
-
-        // Calculer les places réservées avec statuts actifs (EN_ATTENTE, CONFIRMEE)
+        // Capacité moins les places des statuts actifs (EN_ATTENTE, CONFIRMEE), en une requête
         List<ReservationStatus> activeStatuses = Arrays.asList(ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
-        int reserved = reservationRepository.sumPlacesByEventIdAndStatusIn(eventId, activeStatuses);
-
-        return event.getCapaciteMax() - reserved;
+        return eventRepository.findAvailablePlaces(eventId, activeStatuses)
+                .orElseThrow(() -> new IllegalArgumentException("Événement introuvable"))
+                .intValue();
     }
 
     /* --------------------- ÉVÉNEMENTS POPULAIRES ------------------------ */
 
     public List<Event> getPopularEvents(int limit) {
-        return eventRepository.findAll().stream()
-                .sorted((e1, e2) -> e2.getReservations().size() - e1.getReservations().size())
-                .limit(limit)
-                .collect(Collectors.toList());
+        return eventRepository.findMostReserved(PageRequest.of(0, limit));
+    }
+
+    // Événements ayant au moins une réservation (non supprimables)
+    public Set<Long> findReservedEventIds() {
+        return new HashSet<>(reservationRepository.findReservedEventIds());
     }
 
     /* --------------------- STATISTIQUES ORGANISATEUR ------------------------ */
 
     public long countEventsByOrganizer(Long userId) {
-        return eventRepository.findByOrganisateurId(userId).size();
+        return eventRepository.countByOrganisateurId(userId);
     }
 
     public long countEventsByOrganizerAndStatus(Long userId, EventStatus status) {
@@ -244,16 +276,46 @@ public class EventService {
 
     /* --------------------- MARQUER LES ÉVÉNEMENTS TERMINÉS ------------------------ */
 
-    public void updateFinishedEvents() {
-        LocalDateTime now = LocalDateTime.now();
+    // Chaque nœud vivant traite sa tranche d'identifiants d'événements
+    @Scheduled(fixedDelayString = "${app.events.finish-interval:PT5M}",
+               initialDelayString = "${app.events.finish-interval:PT5M}")
+    public void finishEndedEventsOnSchedule() {
+        List<Object[]> range = eventRepository.findIdRange();
+        if (range.isEmpty() || range.get(0)[0] == null) {
+            return;
+        }
+        coordinator.runSharded("event-finish", ((Number) range.get(0)[0]).longValue(),
+                ((Number) range.get(0)[1]).longValue(), this::updateFinishedEvents);
+    }
 
-        List<Event> events = eventRepository.findAll().stream()
-                .filter(e -> e.getDateFin().isBefore(now))
-                .filter(e -> e.getStatus() == EventStatus.PUBLIE)
-                .collect(Collectors.toList());
+    public int updateFinishedEvents() {
+        return updateFinishedEvents(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
 
-        events.forEach(e -> e.setStatus(EventStatus.TERMINE));
-        eventRepository.saveAll(events);
+    // Mise à jour conditionnelle : un événement n'est terminé (et annoncé) qu'une fois,
+    // même si deux nœuds traitent la même tranche pendant un changement de composition
+    public int updateFinishedEvents(long fromId, long toId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer finished = writeTransaction.execute(status -> {
+            int count = 0;
+            for (Object[] row : eventRepository.findEndedInRange(EventStatus.PUBLIE, now, fromId, toId)) {
+                Long eventId = (Long) row[0];
+                if (eventRepository.updateStatusIf(eventId, EventStatus.PUBLIE, EventStatus.TERMINE, now) == 1) {
+                    domainEvents.publish(new EventStatusChanged(eventId, (Long) row[1],
+                            EventStatus.PUBLIE, EventStatus.TERMINE));
+                    count++;
+                }
+            }
+            return count;
+        });
+        return finished != null ? finished : 0;
+    }
+
+    private void publishStatusChange(Event event, EventStatus previousStatus) {
+        if (previousStatus != event.getStatus()) {
+            domainEvents.publish(new EventStatusChanged(event.getId(), event.getOrganisateur().getId(),
+                    previousStatus, event.getStatus()));
+        }
     }
 
     /* --------------------- UTILITAIRES ------------------------ */
@@ -0,0 +1,257 @@
+package com.inas.vaadinapp.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Protection du chemin de connexion.
+ *
+ * La vérification BCrypt (coûteuse en CPU par construction) s'exécute sur un pool
+ * dédié de taille fixe dont la file est bornée et FIFO : une rafale de tentatives ne
+ * mobilise jamais plus que app.login.hash-threads cœurs, et au-delà de la file on
+ * refuse immédiatement au lieu d'empiler. Les échecs sont comptés par email et par
+ * adresse IP sur une fenêtre glissante ; une source abusive est refusée avant tout hachage.
+ * Chaque tentative réserve sa place dans les fenêtres avant le hachage, rendue en cas
+ * de succès : des tentatives simultanées ne dépassent pas la limite en attendant BCrypt.
+ *
+ * Pool privé volontairement : déclarer un bean Executor remplacerait l'exécuteur
+ * "applicationTaskExecutor" auto-configuré par Spring Boot.
+ *
+ * Indicateurs exposés par Actuator :
+ * - app.login.attempts / successes / failures : tentatives et leur issue ;
+ * - app.login.refused       : refus, par motif (throttled = limite d'échecs, rejected = pool saturé) ;
+ * - app.login.hash          : durée des hachages ;
+ * - app.login.hash.queue    : hachages en attente ;
+ * - app.login.hash.active   : hachages en cours ;
+ * - app.login.tracked       : clés suivies par la limitation (key = email ou address).
+ */
+@Service
+public class LoginGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginGuard.class);
+
+    private final SlidingWindowCounter failuresByEmail;
+    private final SlidingWindowCounter failuresByAddress;
+    private final ThreadPoolExecutor hashExecutor;
+    private final Duration hashTimeout;
+    private final Duration window;
+    private final Timer hashTimer;
+
+    // Indicateurs cumulés depuis le démarrage
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private long lastReportedRefusals;
+
+    public LoginGuard(MeterRegistry registry,
+                      @Value("${app.login.hash-threads:2}") int hashThreads,
+                      @Value("${app.login.hash-queue-capacity:64}") int queueCapacity,
+                      @Value("${app.login.hash-timeout:PT5S}") Duration hashTimeout,
+                      @Value("${app.login.window:PT15M}") Duration window,
+                      @Value("${app.login.max-failures-per-email:5}") int maxFailuresPerEmail,
+                      @Value("${app.login.max-failures-per-address:30}") int maxFailuresPerAddress,
+                      @Value("${app.login.tracked-keys:100000}") int trackedKeys) {
+        this.hashTimeout = hashTimeout;
+        this.window = window;
+        this.failuresByEmail = new SlidingWindowCounter(maxFailuresPerEmail, window, trackedKeys);
+        this.failuresByAddress = new SlidingWindowCounter(maxFailuresPerAddress, window, trackedKeys);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity, true),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("app.login.hash")
+                .description("Durée des hachages de mot de passe")
+                .register(registry);
+        registerMeters(registry);
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        FunctionCounter.builder("app.login.attempts", attempts, LongAdder::sum)
+                .description("Tentatives de connexion")
+                .register(registry);
+        FunctionCounter.builder("app.login.successes", successes, LongAdder::sum)
+                .description("Connexions réussies")
+                .register(registry);
+        FunctionCounter.builder("app.login.failures", failures, LongAdder::sum)
+                .description("Connexions échouées (identifiants invalides)")
+                .register(registry);
+        FunctionCounter.builder("app.login.refused", throttled, LongAdder::sum)
+                .description("Connexions refusées")
+                .tag("reason", "throttled")
+                .register(registry);
+        FunctionCounter.builder("app.login.refused", rejected, LongAdder::sum)
+                .description("Connexions refusées")
+                .tag("reason", "rejected")
+                .register(registry);
+        Gauge.builder("app.login.hash.queue", hashExecutor, executor -> executor.getQueue().size())
+                .description("Hachages en attente")
+                .register(registry);
+        Gauge.builder("app.login.hash.active", hashExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Hachages en cours")
+                .register(registry);
+        Gauge.builder("app.login.tracked", failuresByEmail, SlidingWindowCounter::size)
+                .description("Clés suivies par la limitation des échecs")
+                .tag("key", "email")
+                .register(registry);
+        Gauge.builder("app.login.tracked", failuresByAddress, SlidingWindowCounter::size)
+                .description("Clés suivies par la limitation des échecs")
+                .tag("key", "address")
+                .register(registry);
+    }
+
+    /* ================== LIMITATION DES TENTATIVES ================== */
+
+    // Réserve la tentative dans les fenêtres de l'email et de l'adresse, ou la refuse si
+    // l'une d'elles a épuisé ses échecs ; la réservation compte comme un échec tant
+    // qu'elle n'est pas rendue par recordSuccess ou release
+    public Attempt checkAllowed(String email, String address) {
+        attempts.increment();
+        Attempt attempt = new Attempt(emailKey(email), address, System.currentTimeMillis());
+        if (failuresByEmail.tryAcquire(attempt.emailKey(), attempt.timestamp())) {
+            if (address == null || failuresByAddress.tryAcquire(address, attempt.timestamp())) {
+                return attempt;
+            }
+            failuresByEmail.release(attempt.emailKey(), attempt.timestamp());
+        }
+        throttled.increment();
+        throw new IllegalStateException("Trop de tentatives de connexion. Réessayez dans "
+                + window.toMinutes() + " minutes.");
+    }
+
+    // La réservation reste dans les fenêtres
+    public void recordFailure(Attempt attempt) {
+        failures.increment();
+    }
+
+    public void recordSuccess(Attempt attempt) {
+        successes.increment();
+        failuresByEmail.reset(attempt.emailKey());
+        releaseAddress(attempt);
+    }
+
+    // Tentative interrompue sans verdict (pool saturé, erreur) : ni échec ni succès
+    public void release(Attempt attempt) {
+        failuresByEmail.release(attempt.emailKey(), attempt.timestamp());
+        releaseAddress(attempt);
+    }
+
+    private void releaseAddress(Attempt attempt) {
+        if (attempt.address() != null) {
+            failuresByAddress.release(attempt.address(), attempt.timestamp());
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /* ================== HACHAGE ================== */
+
+    // Exécute un hachage (vérification ou réencodage) sur le pool dédié ;
+    // file pleine ou attente trop longue = refus
+    public <T> T hash(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = hashExecutor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    hashNanos.add(elapsed);
+                    hashCount.increment();
+                    hashTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new IllegalStateException("Service de connexion saturé, veuillez réessayer dans un instant.");
+        }
+
+        try {
+            return result.get(hashTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            result.cancel(true);
+            rejected.increment();
+            throw new IllegalStateException("Service de connexion saturé, veuillez réessayer dans un instant.");
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Connexion interrompue");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Erreur lors du hachage du mot de passe", ex.getCause());
+        }
+    }
+
+    /* ================== MAINTENANCE ET INDICATEURS ================== */
+
+    @Scheduled(fixedDelayString = "${app.login.purge-interval:PT1M}",
+               initialDelayString = "${app.login.purge-interval:PT1M}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        failuresByEmail.purge(now);
+        failuresByAddress.purge(now);
+
+        LoginMetrics metrics = getMetrics();
+        long refusals = metrics.throttled() + metrics.rejected();
+        if (refusals > lastReportedRefusals) {
+            log.warn("Connexions refusées : {} limitées, {} rejetées (pool saturé) ; {} tentatives au total",
+                    metrics.throttled(), metrics.rejected(), metrics.attempts());
+            lastReportedRefusals = refusals;
+        }
+    }
+
+    public LoginMetrics getMetrics() {
+        long hashes = hashCount.sum();
+        return new LoginMetrics(attempts.sum(), successes.sum(), failures.sum(), throttled.sum(),
+                rejected.sum(), hashExecutor.getQueue().size(), hashExecutor.getActiveCount(),
+                hashes == 0 ? 0.0 : hashNanos.sum() / 1_000_000.0 / hashes,
+                failuresByEmail.size(), failuresByAddress.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    // Tentative réservée par checkAllowed
+    public record Attempt(String emailKey, String address, long timestamp) {}
+
+    public record LoginMetrics(long attempts, long successes, long failures, long throttled, long rejected,
+                               int queueDepth, int activeHashes, double averageHashMillis,
+                               int trackedEmails, int trackedAddresses) {}
+}
@@ -0,0 +1,224 @@
+package com.inas.vaadinapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inas.vaadinapp.domain.DomainEvent;
+import com.inas.vaadinapp.entity.OutboxEvent;
+import com.inas.vaadinapp.entity.OutboxStatus;
+import com.inas.vaadinapp.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Distribution des événements de l'outbox aux abonnés (modèles de lecture).
+ *
+ * Un unique thread lit les événements en attente par lots, dans l'ordre des
+ * identifiants, et les publie dans le contexte Spring ; les abonnés s'exécutent donc
+ * hors du chemin d'écriture, et les événements d'un même agrégat arrivent dans leur
+ * ordre de validation (une mutation verrouille sa ligne avant d'écrire son événement).
+ * Un lot est marqué distribué en une requête. Un événement dont un abonné échoue est
+ * marqué en échec sans bloquer les suivants. Après un arrêt brutal, les événements non
+ * marqués sont relivrés au démarrage : les abonnés doivent tolérer un doublon rare.
+ *
+ * Avec plusieurs nœuds, chaque nœud ne distribue que les événements qu'il a écrits ;
+ * ceux d'un nœud arrêté sont repris par un nœud vivant (bail "outbox-recovery").
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final ClusterCoordinator coordinator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate writeTransaction;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Une passe au plus en file : les réveils pendant une passe sont fusionnés
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    // Identifiant de l'événement en cours de livraison, sur le thread du distributeur
+    private final ThreadLocal<Long> delivering = new ThreadLocal<>();
+
+    public OutboxDispatcher(OutboxEventRepository outboxRepository, ClusterCoordinator coordinator,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.retention:P1D}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.coordinator = coordinator;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException ex) {
+            // Arrêt en cours : les événements restent en attente jusqu'au prochain démarrage
+            wakeUpPending.set(false);
+        }
+    }
+
+    // Distribue tout ce qui est en attente et attend la fin (tests, outils d'administration)
+    public int dispatchPending() {
+        try {
+            return executor.submit(this::drain).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Distribution interrompue");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Erreur de distribution des événements", ex.getCause());
+        }
+    }
+
+    public long countPending() {
+        return outboxRepository.countByStatus(OutboxStatus.EN_ATTENTE);
+    }
+
+    // Identifiant outbox de l'événement que l'abonné appelant est en train de recevoir,
+    // null hors d'une livraison
+    public Long currentEventId() {
+        return delivering.get();
+    }
+
+    /* ================== DISTRIBUTION ================== */
+
+    // Toujours exécuté sur le thread du distributeur
+    private int drain() {
+        int dispatched = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = pendingBatch();
+            List<Long> delivered = new ArrayList<>(batch.size());
+            for (OutboxEvent row : batch) {
+                delivering.set(row.getId());
+                try {
+                    eventPublisher.publishEvent(toEvent(row));
+                    delivered.add(row.getId());
+                } catch (RuntimeException ex) {
+                    log.error("Distribution de l'événement {} ({} {}) en échec",
+                            row.getId(), row.getEventType(), row.getAggregateId(), ex);
+                    mark(List.of(row.getId()), OutboxStatus.ECHEC, truncate(String.valueOf(ex.getMessage())));
+                } finally {
+                    delivering.remove();
+                }
+            }
+            if (!delivered.isEmpty()) {
+                mark(delivered, OutboxStatus.DISTRIBUE, null);
+            }
+            dispatched += batch.size();
+        } while (batch.size() == batchSize);
+        return dispatched;
+    }
+
+    // Plusieurs nœuds : chacun distribue les événements qu'il a validés
+    private List<OutboxEvent> pendingBatch() {
+        PageRequest page = PageRequest.of(0, batchSize);
+        if (coordinator.isEnabled()) {
+            return outboxRepository.findByStatusAndNodeIdOrderByIdAsc(OutboxStatus.EN_ATTENTE,
+                    coordinator.getNodeId(), page);
+        }
+        return outboxRepository.findByStatusOrderByIdAsc(OutboxStatus.EN_ATTENTE, page);
+    }
+
+    private DomainEvent toEvent(OutboxEvent row) {
+        try {
+            Class<?> type = Class.forName(row.getEventType());
+            return (DomainEvent) objectMapper.readValue(row.getPayload(), type);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Événement illisible : " + row.getEventType(), ex);
+        }
+    }
+
+    private void mark(List<Long> ids, OutboxStatus status, String error) {
+        writeTransaction.executeWithoutResult(tx ->
+                outboxRepository.markDispatched(ids, status, LocalDateTime.now(), error));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    /* ================== REPRISE ET PURGE ================== */
+
+    // Événements validés avant un arrêt, ou réveil manqué
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT10S}",
+               initialDelayString = "${app.outbox.poll-interval:PT10S}")
+    public void poll() {
+        if (coordinator.isEnabled()) {
+            coordinator.runOnce("outbox-recovery", this::adoptOrphans);
+        }
+        wakeUp();
+    }
+
+    // Les événements en attente d'un nœud arrêté sont repris par un nœud vivant
+    private void adoptOrphans() {
+        List<String> liveNodes = coordinator.getLiveNodes();
+        Integer adopted = writeTransaction.execute(tx -> outboxRepository.adoptOrphans(coordinator.getNodeId(),
+                OutboxStatus.EN_ATTENTE, liveNodes.isEmpty() ? List.of(coordinator.getNodeId()) : liveNodes));
+        if (adopted != null && adopted > 0) {
+            log.info("Outbox : {} événements d'un nœud arrêté repris par {}", adopted, coordinator.getNodeId());
+        }
+    }
+
+    // Un seul nœud purge à chaque tick
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 * * * *}")
+    public void purge() {
+        coordinator.runOnce("outbox-purge", this::purgeDispatched);
+    }
+
+    private void purgeDispatched() {
+        Integer purged = writeTransaction.execute(tx -> outboxRepository.deleteByStatusAndDispatchedAtBefore(
+                OutboxStatus.DISTRIBUE, LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Outbox : {} événements distribués purgés", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,327 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.EventCreated;
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.EventStatusChanged;
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.domain.ReservationStatusChanged;
+import com.inas.vaadinapp.domain.UserRegistered;
+import com.inas.vaadinapp.domain.UserRoleChanged;
+import com.inas.vaadinapp.entity.CacheRegion;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.entity.OutboxStatus;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import com.inas.vaadinapp.entity.Role;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.OutboxEventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import com.inas.vaadinapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Indicateurs globaux de la plateforme (tableau de bord admin) tenus en mémoire.
+ *
+ * Le snapshot est reconstruit depuis la base au démarrage puis mis à jour de façon
+ * incrémentale par les événements métier (après commit). Une re-vérification
+ * périodique contre la base corrige toute dérive (écritures hors services, DataInit...).
+ * La lecture du snapshot ne coûte aucune requête.
+ *
+ * Un rechargement lit, dans un même instantané de la base, les compteurs et les
+ * événements outbox validés mais pas encore livrés : leur effet est déjà compté, leur
+ * livraison ultérieure est ignorée. Le rechargement se fait sous le verrou des mises à
+ * jour, pour qu'aucune livraison ne s'intercale entre la lecture et le remplacement.
+ * Verrou explicite plutôt que synchronized : un thread virtuel qui attend la base dans
+ * un bloc synchronized épingle son thread porteur (JDK 21).
+ */
+@Service
+public class PlatformMetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformMetricsService.class);
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final ReservationRepository reservationRepository;
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxDispatcher dispatcher;
+    private final TransactionTemplate snapshotTransaction;
+
+    // État mutable protégé par "lock" ; le snapshot publié est immuable
+    private final ReentrantLock lock = new ReentrantLock();
+    private Counters counters = new Counters();
+    // Événements déjà comptés par le dernier rechargement, à ignorer à leur livraison
+    private Set<Long> countedPending = new HashSet<>();
+    private volatile PlatformMetrics snapshot = counters.toSnapshot();
+
+    public PlatformMetricsService(UserRepository userRepository, EventRepository eventRepository,
+                                  ReservationRepository reservationRepository, OutboxEventRepository outboxRepository,
+                                  OutboxDispatcher dispatcher, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.reservationRepository = reservationRepository;
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        // Compteurs et outbox lus dans le même instantané
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+    }
+
+    public PlatformMetrics getSnapshot() {
+        return snapshot;
+    }
+
+    /* ================== RECONSTRUCTION ================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        lock.lock();
+        try {
+            reload();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.verify-interval:PT5M}",
+               initialDelayString = "${app.metrics.verify-interval:PT5M}")
+    public void verify() {
+        lock.lock();
+        try {
+            Counters previous = counters;
+            reload();
+            if (!counters.equals(previous)) {
+                log.warn("Dérive des indicateurs plateforme détectée, snapshot resynchronisé depuis la base");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Appelé sous le verrou : aucune livraison entre la lecture et le remplacement
+    private void reload() {
+        snapshotTransaction.executeWithoutResult(status -> {
+            counters = loadFromDatabase();
+            countedPending = new HashSet<>(outboxRepository.findIdsByStatus(OutboxStatus.EN_ATTENTE));
+        });
+        publish();
+    }
+
+    private Counters loadFromDatabase() {
+        Counters fresh = new Counters();
+        for (Object[] row : userRepository.countGroupByRole()) {
+            fresh.usersByRole.put((Role) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : eventRepository.countGroupByStatus()) {
+            fresh.eventsByStatus.put((EventStatus) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : reservationRepository.aggregateGroupByStatus()) {
+            ReservationStatus status = (ReservationStatus) row[0];
+            fresh.reservationsByStatus.put(status, ((Number) row[1]).longValue());
+            fresh.placesByStatus.put(status, ((Number) row[2]).longValue());
+            fresh.revenueByStatus.put(status, ((Number) row[3]).doubleValue());
+        }
+        return fresh;
+    }
+
+    /* ================== MISES À JOUR INCRÉMENTALES ================== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UserRegistered event) {
+        update(() -> counters.usersByRole.merge(event.role(), 1L, Long::sum));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UserRoleChanged event) {
+        update(() -> {
+            counters.usersByRole.merge(event.previousRole(), -1L, Long::sum);
+            counters.usersByRole.merge(event.newRole(), 1L, Long::sum);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventCreated event) {
+        update(() -> counters.eventsByStatus.merge(event.status(), 1L, Long::sum));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventStatusChanged event) {
+        update(() -> {
+            counters.eventsByStatus.merge(event.previousStatus(), -1L, Long::sum);
+            counters.eventsByStatus.merge(event.newStatus(), 1L, Long::sum);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventDeleted event) {
+        update(() -> counters.eventsByStatus.merge(event.status(), -1L, Long::sum));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationCreated event) {
+        update(() -> counters.add(event.status(), 1, event.nbPlaces(), event.montantTotal()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationStatusChanged event) {
+        update(() -> {
+            counters.add(event.previousStatus(), -1, -event.nbPlaces(), -event.montantTotal());
+            counters.add(event.newStatus(), 1, event.nbPlaces(), event.montantTotal());
+        });
+    }
+
+    // Les compteurs incrémentaux ne voient que les mutations locales : un autre nœud
+    // a écrit, on recompte depuis la base
+    @EventListener
+    public void on(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheRegion.PLATFORM_METRICS) {
+            initialize();
+        }
+    }
+
+    // Applique la variation d'un événement livré, sauf s'il est déjà compté
+    private void update(Runnable change) {
+        lock.lock();
+        try {
+            if (alreadyCounted()) {
+                return;
+            }
+            change.run();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Verrou des mises à jour (tests : retarder une livraison)
+    ReentrantLock updateLock() {
+        return lock;
+    }
+
+    // Événement validé avant le dernier rechargement : déjà dans les compteurs
+    private boolean alreadyCounted() {
+        Long eventId = dispatcher.currentEventId();
+        return eventId != null && countedPending.remove(eventId);
+    }
+
+    private void publish() {
+        snapshot = counters.toSnapshot();
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    private static class Counters {
+        private final Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+        private final Map<EventStatus, Long> eventsByStatus = new EnumMap<>(EventStatus.class);
+        private final Map<ReservationStatus, Long> reservationsByStatus = new EnumMap<>(ReservationStatus.class);
+        private final Map<ReservationStatus, Long> placesByStatus = new EnumMap<>(ReservationStatus.class);
+        private final Map<ReservationStatus, Double> revenueByStatus = new EnumMap<>(ReservationStatus.class);
+
+        void add(ReservationStatus status, long count, long places, double revenue) {
+            reservationsByStatus.merge(status, count, Long::sum);
+            placesByStatus.merge(status, places, Long::sum);
+            revenueByStatus.merge(status, revenue, Double::sum);
+        }
+
+        PlatformMetrics toSnapshot() {
+            return new PlatformMetrics(usersByRole, eventsByStatus, reservationsByStatus,
+                    placesByStatus, revenueByStatus, LocalDateTime.now());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Counters other)) return false;
+            // Comparaison clé par clé : une entrée absente vaut 0
+            return sameCounts(usersByRole, other.usersByRole, Role.values())
+                    && sameCounts(eventsByStatus, other.eventsByStatus, EventStatus.values())
+                    && sameCounts(reservationsByStatus, other.reservationsByStatus, ReservationStatus.values())
+                    && sameCounts(placesByStatus, other.placesByStatus, ReservationStatus.values())
+                    && revenueEquals(other);
+        }
+
+        private static <K> boolean sameCounts(Map<K, Long> a, Map<K, Long> b, K[] keys) {
+            for (K key : keys) {
+                if (a.getOrDefault(key, 0L).longValue() != b.getOrDefault(key, 0L).longValue()) return false;
+            }
+            return true;
+        }
+
+        private boolean revenueEquals(Counters other) {
+            for (ReservationStatus status : ReservationStatus.values()) {
+                double a = revenueByStatus.getOrDefault(status, 0.0);
+                double b = other.revenueByStatus.getOrDefault(status, 0.0);
+                if (Math.abs(a - b) > 0.005) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(reservationsByStatus.values().stream().mapToLong(Long::longValue).sum());
+        }
+    }
+
+    public static class PlatformMetrics {
+        private final Map<Role, Long> usersByRole;
+        private final Map<EventStatus, Long> eventsByStatus;
+        private final Map<ReservationStatus, Long> reservationsByStatus;
+        private final Map<ReservationStatus, Long> placesByStatus;
+        private final Map<ReservationStatus, Double> revenueByStatus;
+        private final LocalDateTime computedAt;
+
+        PlatformMetrics(Map<Role, Long> usersByRole, Map<EventStatus, Long> eventsByStatus,
+                        Map<ReservationStatus, Long> reservationsByStatus,
+                        Map<ReservationStatus, Long> placesByStatus,
+                        Map<ReservationStatus, Double> revenueByStatus,
+                        LocalDateTime computedAt) {
+            this.usersByRole = Collections.unmodifiableMap(copyOf(usersByRole, Role.class));
+            this.eventsByStatus = Collections.unmodifiableMap(copyOf(eventsByStatus, EventStatus.class));
+            this.reservationsByStatus = Collections.unmodifiableMap(copyOf(reservationsByStatus, ReservationStatus.class));
+            this.placesByStatus = Collections.unmodifiableMap(copyOf(placesByStatus, ReservationStatus.class));
+            this.revenueByStatus = Collections.unmodifiableMap(copyOf(revenueByStatus, ReservationStatus.class));
+            this.computedAt = computedAt;
+        }
+
+        private static <K extends Enum<K>, V> EnumMap<K, V> copyOf(Map<K, V> source, Class<K> type) {
+            EnumMap<K, V> copy = new EnumMap<>(type);
+            copy.putAll(source);
+            return copy;
+        }
+
+        // Getters
+        public long getTotalUsers() { return usersByRole.values().stream().mapToLong(Long::longValue).sum(); }
+        public long getUsers(Role role) { return usersByRole.getOrDefault(role, 0L); }
+        public long getTotalEvents() { return eventsByStatus.values().stream().mapToLong(Long::longValue).sum(); }
+        public long getEvents(EventStatus status) { return eventsByStatus.getOrDefault(status, 0L); }
+        public long getTotalReservations() { return reservationsByStatus.values().stream().mapToLong(Long::longValue).sum(); }
+        public long getReservations(ReservationStatus status) { return reservationsByStatus.getOrDefault(status, 0L); }
+        public LocalDateTime getComputedAt() { return computedAt; }
+
+        // Places et revenus des réservations actives (EN_ATTENTE + CONFIRMEE)
+        public long getActivePlaces() {
+            return placesByStatus.getOrDefault(ReservationStatus.EN_ATTENTE, 0L)
+                    + placesByStatus.getOrDefault(ReservationStatus.CONFIRMEE, 0L);
+        }
+
+        public double getActiveRevenue() {
+            return revenueByStatus.getOrDefault(ReservationStatus.EN_ATTENTE, 0.0)
+                    + revenueByStatus.getOrDefault(ReservationStatus.CONFIRMEE, 0.0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.inas.vaadinapp.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Événements JDK Flight Recorder du parcours de réservation : création, confirmation,
+ * annulation, contrôle des places, génération du code et publication des événements
+ * métier. Dans un enregistrement, ils se placent sur la même ligne de temps que le GC,
+ * la contention des verrous et les attentes JDBC du thread concerné.
+ *
+ * Désactivés, begin()/commit() ne coûtent presque rien. Le profil
+ * src/main/resources/jfr/reservations.jfc les active sans pile d'appels, avec un seuil
+ * sur le contrôle des places (appelé par les grilles).
+ *
+ * Création, confirmation, annulation et contrôle des places sont émis par
+ * ReservationRecordingAspect autour des appels aux services : les durées comprennent le
+ * commit de la transaction, comme le timer app.service. Seule l'attente du verrou est
+ * mesurée dans ReservationService (lockWait).
+ */
+public final class ReservationRecording {
+
+    private static final String CATEGORY = "Vaadinapp";
+    private static final String RESERVATIONS = "Réservations";
+
+    // Création en cours sur ce thread, renseignée par l'aspect
+    private static final ThreadLocal<Create> CREATING = new ThreadLocal<>();
+
+    private ReservationRecording() {
+    }
+
+    public static long id(Long value) {
+        return value != null ? value : 0;
+    }
+
+    public static void creating(Create recording) {
+        if (recording == null) {
+            CREATING.remove();
+        } else {
+            CREATING.set(recording);
+        }
+    }
+
+    // Attente du verrou pessimiste, rattachée à la création en cours
+    public static void lockWait(long nanos) {
+        Create recording = CREATING.get();
+        if (recording != null) {
+            recording.lockWait = nanos;
+        }
+    }
+
+    /* ================== CYCLE DE VIE ================== */
+
+    // Appel d'un service, terminé par une issue (success, rejected, error)
+    public abstract static class ServiceCall extends Event {
+        @Label("Issue")
+        public String outcome;
+    }
+
+    @Name("com.inas.vaadinapp.ReservationCreate")
+    @Label("Création de réservation")
+    @Category({CATEGORY, RESERVATIONS})
+    @StackTrace(false)
+    public static final class Create extends ServiceCall {
+        @Label("Événement")
+        public long eventId;
+        @Label("Client")
+        public long clientId;
+        @Label("Réservation")
+        public long reservationId;
+        @Label("Places")
+        public int seats;
+        @Label("Attente du verrou")
+        @Description("Attente du verrou pessimiste sur l'événement")
+        @Timespan
+        public long lockWait;
+    }
+
+    @Name("com.inas.vaadinapp.ReservationConfirm")
+    @Label("Confirmation de réservation")
+    @Category({CATEGORY, RESERVATIONS})
+    @StackTrace(false)
+    public static final class Confirm extends ServiceCall {
+        @Label("Événement")
+        public long eventId;
+        @Label("Réservation")
+        public long reservationId;
+        @Label("Places")
+        public int seats;
+    }
+
+    @Name("com.inas.vaadinapp.ReservationCancel")
+    @Label("Annulation de réservation")
+    @Category({CATEGORY, RESERVATIONS})
+    @StackTrace(false)
+    public static final class Cancel extends ServiceCall {
+        @Label("Événement")
+        public long eventId;
+        @Label("Réservation")
+        public long reservationId;
+        @Label("Places")
+        public int seats;
+    }
+
+    /* ================== ÉTAPES ================== */
+
+    @Name("com.inas.vaadinapp.AvailabilityCheck")
+    @Label("Contrôle des places")
+    @Category({CATEGORY, RESERVATIONS})
+    @StackTrace(false)
+    public static final class AvailabilityCheck extends ServiceCall {
+        @Label("Événement")
+        public long eventId;
+        @Label("Places disponibles")
+        public int available;
+    }
+
+    @Name("com.inas.vaadinapp.CodeGeneration")
+    @Label("Génération du code de réservation")
+    @Category({CATEGORY, RESERVATIONS})
+    @StackTrace(false)
+    public static final class CodeGeneration extends Event {
+        @Label("Tirages")
+        @Description("Codes tirés, collisions comprises")
+        public int attempts;
+    }
+
+    @Name("com.inas.vaadinapp.DomainEventPublish")
+    @Label("Publication d'un événement métier")
+    @Category({CATEGORY, "Événements métier"})
+    @StackTrace(false)
+    public static final class Publish extends Event {
+        @Label("Type")
+        public String type;
+        @Label("Agrégat")
+        public String aggregateType;
+        @Label("Identifiant")
+        public long aggregateId;
+    }
+}
@@ -0,0 +1,303 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.domain.ReservationStatusChanged;
+import com.inas.vaadinapp.dto.RollupPoint;
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.ReservationRollup;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import com.inas.vaadinapp.entity.RollupGranularity;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import com.inas.vaadinapp.repository.ReservationRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Séries temporelles des réservations actives (réservations, places, revenus) par
+ * événement, organisateur et catégorie.
+ *
+ * Les agrégats horaires sont mis à jour après chaque commit de réservation, puis
+ * compactés en agrégats journaliers au-delà de la rétention horaire. Les tableaux de
+ * bord lisent une tendance de plusieurs mois en une seule requête sur des intervalles.
+ *
+ * Chaque nœud distribue ses propres événements : un intervalle est incrémenté par un
+ * UPDATE atomique en base, et créé au premier incrément. Si deux nœuds le créent en
+ * même temps, la contrainte unique refuse le second, dont la transaction est rejouée.
+ */
+@Service
+public class ReservationRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationRollupService.class);
+
+    private static final List<ReservationStatus> ACTIVE_STATUSES =
+            List.of(ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ReservationRollupRepository rollupRepository;
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final ClusterCoordinator coordinator;
+    private final TransactionTemplate writeTransaction;
+    private final Duration hourlyRetention;
+    // Ordonne, sur ce nœud, les incréments avec le compactage et la reconstruction.
+    // Verrou explicite : sous synchronized, un thread virtuel en attente JDBC épinglerait son porteur
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ReservationRollupService(ReservationRollupRepository rollupRepository,
+                                    ReservationRepository reservationRepository,
+                                    EventRepository eventRepository,
+                                    ClusterCoordinator coordinator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.rollups.hourly-retention:P2D}") Duration hourlyRetention) {
+        this.rollupRepository = rollupRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.coordinator = coordinator;
+        this.hourlyRetention = hourlyRetention;
+        // Les listeners s'exécutent après commit : il faut une transaction neuve pour écrire
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /* ================== LECTURE ================== */
+
+    // Tendance des "months" derniers mois (mois courant inclus), mois sans réservation à zéro.
+    // organizerId et categorie sont optionnels (null = toute la plateforme).
+    @Transactional(readOnly = true)
+    public List<RollupPoint> getMonthlyTrend(Long organizerId, Category categorie, int months) {
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(months - 1L);
+
+        Map<YearMonth, Object[]> rows = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByMonth(first.atDay(1).atStartOfDay(),
+                current.plusMonths(1).atDay(1).atStartOfDay(), organizerId, categorie)) {
+            rows.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+        }
+
+        List<RollupPoint> trend = new ArrayList<>(months);
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            Object[] row = rows.get(month);
+            trend.add(row == null
+                    ? new RollupPoint(month, 0, 0, 0.0)
+                    : new RollupPoint(month, ((Number) row[2]).longValue(), ((Number) row[3]).longValue(),
+                            ((Number) row[4]).doubleValue()));
+        }
+        return trend;
+    }
+
+    // Revenus actifs du mois en cours (organizerId null = toute la plateforme)
+    @Transactional(readOnly = true)
+    public double getCurrentMonthRevenue(Long organizerId) {
+        LocalDateTime startOfMonth = YearMonth.now().atDay(1).atStartOfDay();
+        return rollupRepository.sumRevenue(startOfMonth, startOfMonth.plusMonths(1), organizerId);
+    }
+
+    // Revenus actifs cumulés depuis l'origine
+    @Transactional(readOnly = true)
+    public double getTotalRevenue(Long organizerId) {
+        return rollupRepository.sumRevenueByOrganizer(organizerId);
+    }
+
+    /* ================== MISES À JOUR INCRÉMENTALES ================== */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationCreated event) {
+        if (ACTIVE_STATUSES.contains(event.status())) {
+            apply(event.eventId(), event.dateReservation(), 1, event.nbPlaces(), event.montantTotal());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationStatusChanged event) {
+        boolean wasActive = ACTIVE_STATUSES.contains(event.previousStatus());
+        boolean isActive = ACTIVE_STATUSES.contains(event.newStatus());
+        if (wasActive == isActive) {
+            return; // EN_ATTENTE -> CONFIRMEE : rien ne change
+        }
+        int sign = isActive ? 1 : -1;
+        apply(event.eventId(), event.dateReservation(), sign, sign * event.nbPlaces(), sign * event.montantTotal());
+    }
+
+    // La suppression d'un événement supprime ses réservations (cascade) : ses agrégats aussi
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventDeleted event) {
+        locked(() -> writeTransaction.execute(status -> rollupRepository.deleteByEventId(event.eventId())));
+    }
+
+    // Le verrou local ordonne l'écriture avec le compactage et la reconstruction de ce nœud ;
+    // entre nœuds, l'incrément en base suffit
+    private void apply(Long eventId, LocalDateTime dateReservation, long bookings, long places, double revenue) {
+        locked(() -> {
+            applyDelta(eventId, dateReservation, bookings, places, revenue);
+            return null;
+        });
+    }
+
+    private void applyDelta(Long eventId, LocalDateTime dateReservation,
+                            long bookings, long places, double revenue) {
+        List<Object[]> keys = eventRepository.findRollupKey(eventId);
+        if (keys.isEmpty()) {
+            return;
+        }
+        Long organizerId = (Long) keys.get(0)[0];
+        Category categorie = (Category) keys.get(0)[1];
+
+        // Une réservation antérieure à la rétention horaire tombe directement dans l'agrégat journalier
+        RollupGranularity granularity = dateReservation.isBefore(compactionCutoff())
+                ? RollupGranularity.DAY : RollupGranularity.HOUR;
+
+        ReservationRollup delta = new ReservationRollup(granularity, granularity.truncate(dateReservation),
+                eventId, organizerId, categorie);
+        delta.add(bookings, places, revenue);
+        write(status -> {
+            upsert(delta);
+            return null;
+        });
+    }
+
+    // Ajoute les valeurs de "delta" à son intervalle, créé s'il n'existe pas encore
+    private void upsert(ReservationRollup delta) {
+        int updated = rollupRepository.increment(delta.getGranularity(), delta.getBucketStart(), delta.getEventId(),
+                delta.getBookings(), delta.getPlaces(), delta.getRevenue());
+        if (updated == 0) {
+            // Flush immédiat : un doublon créé par un autre nœud est détecté dans cette tentative
+            rollupRepository.saveAndFlush(delta);
+        }
+    }
+
+    // Transaction d'écriture, rejouée si un autre nœud a créé le même intervalle entre-temps
+    private <T> T write(TransactionCallback<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(work);
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                log.debug("Intervalle créé en parallèle, nouvelle tentative ({}/{})", attempt + 1, MAX_ATTEMPTS);
+            }
+        }
+    }
+
+    /* ================== COMPACTAGE ================== */
+
+    // Un seul nœud compacte à chaque tick
+    @Scheduled(cron = "${app.rollups.compaction-cron:0 5 * * * *}")
+    public void compactOnSchedule() {
+        coordinator.runOnce("rollup-compaction", this::compact);
+    }
+
+    // Regroupe les agrégats horaires plus anciens que la rétention en agrégats journaliers
+    public int compact() {
+        return locked(this::compactHourly);
+    }
+
+    private int compactHourly() {
+        LocalDateTime cutoff = compactionCutoff();
+        Integer compacted = write(status -> {
+            List<ReservationRollup> hourly =
+                    rollupRepository.findByGranularityAndBucketStartBefore(RollupGranularity.HOUR, cutoff);
+
+            Map<BucketKey, ReservationRollup> daily = new HashMap<>();
+            for (ReservationRollup hour : hourly) {
+                LocalDateTime day = RollupGranularity.DAY.truncate(hour.getBucketStart());
+                daily.computeIfAbsent(new BucketKey(day, hour.getEventId()),
+                                key -> new ReservationRollup(RollupGranularity.DAY, day, hour.getEventId(),
+                                        hour.getOrganizerId(), hour.getCategorie()))
+                        .add(hour.getBookings(), hour.getPlaces(), hour.getRevenue());
+            }
+
+            rollupRepository.deleteAll(hourly);
+            // Ajoutés aux agrégats journaliers existants, sans écraser une écriture concurrente
+            daily.values().forEach(this::upsert);
+            return hourly.size();
+        });
+
+        if (compacted != null && compacted > 0) {
+            log.info("{} agrégats horaires compactés en agrégats journaliers (avant {})", compacted, cutoff);
+        }
+        return compacted != null ? compacted : 0;
+    }
+
+    private LocalDateTime compactionCutoff() {
+        return RollupGranularity.DAY.truncate(LocalDateTime.now().minus(hourlyRetention));
+    }
+
+    /* ================== RECONSTRUCTION ================== */
+
+    // Au démarrage, une table vide est reconstruite depuis les réservations (ex. base en mémoire)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        locked(() -> {
+            rebuildAll();
+            return null;
+        });
+    }
+
+    private void rebuildAll() {
+        LocalDateTime cutoff = compactionCutoff();
+        writeTransaction.executeWithoutResult(status -> {
+            rollupRepository.deleteAllInBatch();
+
+            Map<BucketKey, ReservationRollup> rollups = new HashMap<>();
+            for (Object[] row : reservationRepository.findRollupSource(ACTIVE_STATUSES)) {
+                Long eventId = (Long) row[0];
+                LocalDateTime dateReservation = (LocalDateTime) row[3];
+                RollupGranularity granularity = dateReservation.isBefore(cutoff)
+                        ? RollupGranularity.DAY : RollupGranularity.HOUR;
+                LocalDateTime bucketStart = granularity.truncate(dateReservation);
+
+                rollups.computeIfAbsent(new BucketKey(bucketStart, eventId),
+                                key -> new ReservationRollup(granularity, bucketStart, eventId,
+                                        (Long) row[1], (Category) row[2]))
+                        .add(1, ((Number) row[4]).longValue(), ((Number) row[5]).doubleValue());
+            }
+
+            rollupRepository.saveAll(rollups.values());
+            log.info("Agrégats de réservations reconstruits : {} intervalles", rollups.size());
+        });
+    }
+
+    private <T> T locked(Supplier<T> work) {
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    private record BucketKey(LocalDateTime bucketStart, Long eventId) {}
+}
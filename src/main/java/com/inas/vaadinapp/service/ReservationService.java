@@ -1,5 +1,10 @@
 package com.inas.vaadinapp.service;
 
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.dto.ClientReservationTotals;
+import com.inas.vaadinapp.dto.ReservationRow;
+import com.inas.vaadinapp.dto.ReservationTotals;
+import com.inas.vaadinapp.domain.ReservationStatusChanged;
 import com.inas.vaadinapp.entity.Event;
 import com.inas.vaadinapp.entity.EventStatus;
 import com.inas.vaadinapp.entity.Reservation;
@@ -8,33 +13,52 @@ import com.inas.vaadinapp.entity.User;
 import com.inas.vaadinapp.repository.EventRepository;
 import com.inas.vaadinapp.repository.ReservationRepository;
 import com.inas.vaadinapp.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class ReservationService {
 
+    public static final long CODE_SPACE = 852_891_037_441L; // 31^8
+
+    // Sans 0/O ni 1/I/L, pour un code lisible au téléphone
+    private static final String CODE_ALPHABET = "23456789ABCDEFGHJKMNPQRSTUVWXYZ";
+    private static final int CODE_LENGTH = 8;
+
     private final ReservationRepository reservationRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final EventService eventService;
+    private final ReservationRollupService rollupService;
+    private final DomainEventBus domainEvents;
+    private final BookingMetrics bookingMetrics;
 
     public ReservationService(ReservationRepository reservationRepository,
                               EventRepository eventRepository,
                               UserRepository userRepository,
-                              EventService eventService) {
+                              EventService eventService,
+                              ReservationRollupService rollupService,
+                              DomainEventBus domainEvents,
+                              BookingMetrics bookingMetrics) {
         this.reservationRepository = reservationRepository;
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.eventService = eventService;
+        this.rollupService = rollupService;
+        this.domainEvents = domainEvents;
+        this.bookingMetrics = bookingMetrics;
     }
 
     /* ================== CREATION ================== */
@@ -46,28 +70,32 @@ public class ReservationService {
                                          String commentaire) {
 
         if (nbPlaces <= 0) {
-            throw new IllegalArgumentException("Le nombre de places doit être positif.");
+            throw rejected("invalid_seats", "Le nombre de places doit être positif.");
         }
         if (nbPlaces > 10) {
-            throw new IllegalArgumentException("Une réservation ne peut pas dépasser 10 places.");
+            throw rejected("invalid_seats", "Une réservation ne peut pas dépasser 10 places.");
         }
 
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Événement introuvable."));
+        // Le verrou sur l'événement rend atomiques le contrôle des places et l'insertion :
+        // sans lui, deux réservations concurrentes lisent le même reste et le dépassent
+        long lockStart = System.nanoTime();
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> rejected("event_not_found", "Événement introuvable."));
+        ReservationRecording.lockWait(System.nanoTime() - lockStart);
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Utilisateur introuvable."));
+                .orElseThrow(() -> rejected("user_not_found", "Utilisateur introuvable."));
 
         if (event.getStatus() != EventStatus.PUBLIE) {
-            throw new IllegalArgumentException("L'événement doit être publié pour être réservé.");
+            throw rejected("event_not_published", "L'événement doit être publié pour être réservé.");
         }
 
         if (event.getDateFin().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("L'événement est déjà terminé.");
+            throw rejected("event_ended", "L'événement est déjà terminé.");
         }
 
         int available = eventService.getAvailablePlaces(eventId);
         if (nbPlaces > available) {
-            throw new IllegalArgumentException("Pas assez de places disponibles. Il reste : " + available);
+            throw rejected("sold_out", "Pas assez de places disponibles. Il reste : " + available);
         }
 
         Reservation reservation = new Reservation();
@@ -83,19 +111,44 @@ public class ReservationService {
         String code = generateUniqueCode();
         reservation.setCodeReservation(code);
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        domainEvents.publish(new ReservationCreated(saved.getId(), eventId, userId, saved.getStatus(),
+                saved.getNbPlaces(), saved.getMontantTotal(), saved.getDateReservation()));
+        return saved;
+    }
+
+    // Refus de création compté par motif (app.bookings.failed)
+    private IllegalArgumentException rejected(String reason, String message) {
+        bookingMetrics.rejected(reason);
+        return new IllegalArgumentException(message);
     }
 
-    private String generateUniqueCode() {
-        Random random = new Random();
+    // Visibilité paquetage pour les benchmarks.
+    // 31^8 codes possibles (près de 10^12) : les collisions restent rares quel que soit le
+    // volume, là où l'ancien format à 5 chiffres saturait à 100 000 réservations
+    String generateUniqueCode() {
+        ReservationRecording.CodeGeneration recording = new ReservationRecording.CodeGeneration();
+        recording.begin();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         String code;
         do {
-            int n = random.nextInt(100000); // 0..99999
-            code = String.format("EVT-%05d", n);
+            code = formatCode(random.nextLong(CODE_SPACE));
+            recording.attempts++;
         } while (reservationRepository.existsByCodeReservation(code));
+        recording.commit();
         return code;
     }
 
+    // Code "EVT-" suivi de la valeur (0 <= value < CODE_SPACE) écrite en base 31
+    public static String formatCode(long value) {
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CODE_ALPHABET.charAt((int) (value % CODE_ALPHABET.length()));
+            value /= CODE_ALPHABET.length();
+        }
+        return "EVT-" + new String(chars);
+    }
+
     /* ================== LECTURE ================== */
 
     public List<Reservation> findByClient(Long userId) {
@@ -106,15 +159,94 @@ public class ReservationService {
         return reservationRepository.findByCodeReservation(code);
     }
 
+    // Client, événement et organisateur chargés avec : lisibles hors session, sans N+1
     public List<Reservation> findAllReservations() {
-        return reservationRepository.findAll();
+        return reservationRepository.findAllWithClientAndEvent();
+    }
+
+    /* ================== REQUÊTES PAGINÉES ================== */
+
+    // Réservations d'un événement, filtrables par statut et par texte (client, email, code)
+    @Transactional(readOnly = true)
+    public Slice<ReservationRow> findEventReservations(Long eventId, ReservationStatus status, String search, Pageable pageable) {
+        return reservationRepository.searchRows(eventId, null, status, toLikePattern(search), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public long countEventReservations(Long eventId, ReservationStatus status, String search) {
+        return reservationRepository.countRows(eventId, null, status, toLikePattern(search));
+    }
+
+    // Réservations de toute la plateforme ayant un statut donné
+    @Transactional(readOnly = true)
+    public Slice<ReservationRow> findReservationsByStatus(ReservationStatus status, Pageable pageable) {
+        return reservationRepository.searchRows(null, null, status, null, pageable);
+    }
+
+    // Réservations reçues sur l'ensemble des événements d'un organisateur
+    @Transactional(readOnly = true)
+    public Slice<ReservationRow> findOrganizerReservations(Long organizerId, ReservationStatus status, String search, Pageable pageable) {
+        return reservationRepository.searchRows(null, organizerId, status, toLikePattern(search), pageable);
+    }
+
+    // Historique d'un client, page suivant le curseur "after" (null = première page).
+    // Pagination par clé : coût constant quelle que soit la profondeur dans l'historique.
+    @Transactional(readOnly = true)
+    public List<ReservationRow> findClientHistory(Long clientId, ReservationStatus status, String code,
+                                                  HistoryCursor after, int limit) {
+        return reservationRepository.findClientHistory(clientId, status, toCodePattern(code),
+                after != null ? after.dateReservation() : null, after != null ? after.id() : null,
+                PageRequest.of(0, limit));
+    }
+
+    // Repli par OFFSET quand aucun curseur n'est connu pour la position demandée (saut dans la liste)
+    @Transactional(readOnly = true)
+    public List<ReservationRow> findClientHistoryAt(Long clientId, ReservationStatus status, String code,
+                                                    int offset, int limit) {
+        return reservationRepository.findClientHistory(clientId, status, toCodePattern(code), null, null,
+                PageRequest.of(offset / limit, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countClientHistory(Long clientId, ReservationStatus status, String code) {
+        return reservationRepository.countClientHistory(clientId, status, toCodePattern(code));
+    }
+
+    @Transactional(readOnly = true)
+    public ClientReservationTotals getClientReservationTotals(Long clientId) {
+        Map<ReservationStatus, Long> counts = new EnumMap<>(ReservationStatus.class);
+        Map<ReservationStatus, Double> amounts = new EnumMap<>(ReservationStatus.class);
+        for (Object[] row : reservationRepository.aggregateByClientGroupByStatus(clientId)) {
+            counts.put((ReservationStatus) row[0], ((Number) row[1]).longValue());
+            amounts.put((ReservationStatus) row[0], ((Number) row[2]).doubleValue());
+        }
+        return new ClientReservationTotals(counts, amounts);
+    }
+
+    private String toCodePattern(String code) {
+        if (code == null || code.trim().isEmpty()) {
+            return null;
+        }
+        return "%" + code.trim().toUpperCase() + "%";
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationTotals getEventReservationTotals(Long eventId) {
+        return reservationRepository.totalsByEventId(eventId, ReservationStatus.ANNULEE, ReservationStatus.CONFIRMEE);
+    }
+
+    private String toLikePattern(String search) {
+        if (search == null || search.trim().isEmpty()) {
+            return null;
+        }
+        return "%" + search.trim().toLowerCase() + "%";
     }
 
     /* ================== ANNULATION ================== */
 
     @Transactional
-    public void cancelReservation(Long reservationId, Long userId) {
-        Reservation r = reservationRepository.findById(reservationId)
+    public Reservation cancelReservation(Long reservationId, Long userId) {
+        Reservation r = reservationRepository.findByIdForUpdate(reservationId)
                 .orElseThrow(() -> new IllegalArgumentException("Réservation introuvable."));
 
         if (!r.getClient().getId().equals(userId)) {
@@ -128,30 +260,31 @@ public class ReservationService {
                     "Les réservations peuvent être annulées jusqu'à 48h avant l'événement.");
         }
 
+        ReservationStatus previousStatus = r.getStatus();
         r.setStatus(ReservationStatus.ANNULEE);
-        reservationRepository.save(r);
+        Reservation saved = reservationRepository.save(r);
+        publishStatusChange(r, previousStatus);
         // logique de remboursement éventuelle à ajouter plus tard
+        return saved;
     }
 
     /* ================== STATISTIQUES SIMPLES ================== */
 
     public long countReservationsByUser(Long userId) {
-        return reservationRepository.findByClientId(userId).size();
+        return reservationRepository.countByClientId(userId);
     }
 
     public double totalSpentByUser(Long userId) {
-        return reservationRepository.findByClientId(userId).stream()
-                .filter(r -> r.getStatus() == ReservationStatus.CONFIRMEE
-                        || r.getStatus() == ReservationStatus.EN_ATTENTE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
+        Double total = reservationRepository.sumMontantTotalByClientIdAndStatusIn(userId,
+                Arrays.asList(ReservationStatus.CONFIRMEE, ReservationStatus.EN_ATTENTE));
+        return total != null ? total : 0.0;
     }
 
     /* ================== CONFIRMATION ================== */
 
     @Transactional
     public Reservation confirmReservation(Long reservationId, Long userId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
+        Reservation reservation = reservationRepository.findByIdForUpdate(reservationId)
                 .orElseThrow(() -> new IllegalArgumentException("Réservation introuvable."));
 
         if (!reservation.getClient().getId().equals(userId)) {
@@ -164,14 +297,26 @@ public class ReservationService {
             throw new IllegalArgumentException("L'événement n'est plus valide pour confirmation.");
         }
 
-        // Re-vérifier la disponibilité des places au moment de la confirmation
-        int available = eventService.getAvailablePlaces(reservation.getEvent().getId());
+        // Re-vérifier la disponibilité des places au moment de la confirmation ; les places
+        // de la réservation, déjà décomptées en attente, restent à elle
+        int available = eventService.getAvailablePlaces(reservation.getEvent().getId()) + reservation.getNbPlaces();
         if (reservation.getNbPlaces() > available) {
             throw new IllegalArgumentException("Pas assez de places disponibles pour confirmer la réservation. Il reste : " + available);
         }
 
         reservation.setStatus(ReservationStatus.CONFIRMEE);
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        publishStatusChange(saved, ReservationStatus.EN_ATTENTE);
+        return saved;
+    }
+
+    private void publishStatusChange(Reservation reservation, ReservationStatus previousStatus) {
+        if (previousStatus != reservation.getStatus()) {
+            domainEvents.publish(new ReservationStatusChanged(reservation.getId(),
+                    reservation.getEvent().getId(), reservation.getClient().getId(),
+                    previousStatus, reservation.getStatus(),
+                    reservation.getNbPlaces(), reservation.getMontantTotal(), reservation.getDateReservation()));
+        }
     }
 
     /* ================== RECAPITULATIF ================== */
@@ -212,65 +357,28 @@ public class ReservationService {
 
     // Statistiques des réservations pour les événements d'un organisateur
     public OrganizerReservationStatistics getOrganizerReservationStatistics(Long organizerId) {
-        // Obtenir tous les événements de l'organisateur
-        List<Event> organizerEvents = eventRepository.findByOrganisateurId(organizerId);
-        List<Long> eventIds = organizerEvents.stream()
-                .map(Event::getId)
-                .collect(Collectors.toList());
-
-        if (eventIds.isEmpty()) {
-            return new OrganizerReservationStatistics(0, 0, 0.0, 0.0, 0);
-        }
-
-        // Calculer les statistiques globales pour les événements de l'organisateur
+        // Compteurs de réservations sur tous les événements de l'organisateur, en une requête
         List<ReservationStatus> activeStatuses = Arrays.asList(ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+        Object[] totals = reservationRepository.totalsByOrganizerId(organizerId, activeStatuses).get(0);
 
-        // Total des réservations pour tous les événements de l'organisateur
-        long totalReservations = eventIds.stream()
-                .mapToLong(eventId -> reservationRepository.findByEventId(eventId).size())
-                .sum();
-
-        // Réservations actives (EN_ATTENTE + CONFIRMEE)
-        long activeReservations = eventIds.stream()
-                .mapToLong(eventId -> reservationRepository.findByEventIdAndStatus(eventId, ReservationStatus.CONFIRMEE).size() +
-                                    reservationRepository.findByEventIdAndStatus(eventId, ReservationStatus.EN_ATTENTE).size())
-                .sum();
-
-        // Revenus totaux de toutes les réservations actives
-        double totalRevenue = eventIds.stream()
-                .mapToDouble(eventId -> {
-                    Double revenue = reservationRepository.sumMontantTotalByClientIdAndStatusIn(null, activeStatuses);
-                    return revenue != null ? revenue : 0.0;
-                })
-                .sum();
-
-        // Revenus du mois en cours
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime endOfMonth = startOfMonth.plusMonths(1).minusNanos(1);
+        // Revenus des réservations actives, lus dans les agrégats temporels
+        double totalRevenue = rollupService.getTotalRevenue(organizerId);
+        double currentMonthRevenue = rollupService.getCurrentMonthRevenue(organizerId);
 
-        double currentMonthRevenue = organizerEvents.stream()
-                .mapToDouble(event -> {
-                    List<Reservation> monthReservations = reservationRepository.findByEventId(event.getId()).stream()
-                            .filter(r -> r.getDateReservation().isAfter(startOfMonth) && r.getDateReservation().isBefore(endOfMonth))
-                            .filter(r -> activeStatuses.contains(r.getStatus()))
-                            .collect(Collectors.toList());
-                    return monthReservations.stream().mapToDouble(Reservation::getMontantTotal).sum();
-                })
-                .sum();
-
-        // Places réservées au total
-        int totalPlacesReserved = eventIds.stream()
-                .mapToInt(eventId -> {
-                    Integer places = reservationRepository.sumPlacesByEventIdAndStatusIn(eventId, activeStatuses);
-                    return places != null ? places : 0;
-                })
-                .sum();
-
-        return new OrganizerReservationStatistics((int)totalReservations, (int)activeReservations, totalRevenue, currentMonthRevenue, totalPlacesReserved);
+        return new OrganizerReservationStatistics(((Number) totals[0]).intValue(), ((Number) totals[1]).intValue(),
+                totalRevenue, currentMonthRevenue, ((Number) totals[2]).intValue());
     }
 
     /* ================== CLASSES INTERNES ================== */
 
+    // Position dans l'historique d'un client : dernière ligne lue
+    public record HistoryCursor(LocalDateTime dateReservation, Long id) {
+
+        public static HistoryCursor of(ReservationRow row) {
+            return new HistoryCursor(row.getDateReservation(), row.getId());
+        }
+    }
+
     public static class ReservationSummary {
         private final Long reservationId;
         private final String eventTitle;
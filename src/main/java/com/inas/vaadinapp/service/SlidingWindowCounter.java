@@ -0,0 +1,84 @@
+package com.inas.vaadinapp.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compteur par clé sur fenêtre glissante (journal des horodatages).
+ *
+ * Seuls les "limit" derniers horodatages d'une clé sont conservés : la mémoire par
+ * clé est bornée, et le nombre de clés suivies aussi (les moins récemment touchées
+ * sont oubliées en premier). Thread-safe.
+ */
+final class SlidingWindowCounter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final Map<String, ArrayDeque<Long>> hits;
+
+    SlidingWindowCounter(int limit, Duration window, int maxKeys) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.hits = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ArrayDeque<Long>> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    // Réserve une place dans la fenêtre se terminant à "now" : false, sans rien
+    // enregistrer, si la clé a déjà atteint la limite. Vérification et ajout atomiques.
+    synchronized boolean tryAcquire(String key, long now) {
+        ArrayDeque<Long> timestamps = hits.computeIfAbsent(key, k -> new ArrayDeque<>(limit));
+        prune(timestamps, now);
+        if (timestamps.size() >= limit) {
+            return false;
+        }
+        timestamps.addLast(now);
+        return true;
+    }
+
+    // Rend la place réservée à "timestamp" (tentative finalement non comptée)
+    synchronized void release(String key, long timestamp) {
+        ArrayDeque<Long> timestamps = hits.get(key);
+        if (timestamps != null && timestamps.removeLastOccurrence(timestamp) && timestamps.isEmpty()) {
+            hits.remove(key);
+        }
+    }
+
+    synchronized void reset(String key) {
+        hits.remove(key);
+    }
+
+    // Oublie les clés dont tous les horodatages sont sortis de la fenêtre
+    synchronized int purge(long now) {
+        int removed = 0;
+        Iterator<ArrayDeque<Long>> it = hits.values().iterator();
+        while (it.hasNext()) {
+            ArrayDeque<Long> timestamps = it.next();
+            prune(timestamps, now);
+            if (timestamps.isEmpty()) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    synchronized int size() {
+        return hits.size();
+    }
+
+    private void prune(ArrayDeque<Long> timestamps, long now) {
+        while (!timestamps.isEmpty() && timestamps.peekFirst() <= now - windowMillis) {
+            timestamps.removeFirst();
+        }
+    }
+}
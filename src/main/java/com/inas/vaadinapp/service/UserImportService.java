@@ -0,0 +1,337 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.UserRegistered;
+import com.inas.vaadinapp.dto.UserImportReport;
+import com.inas.vaadinapp.entity.Role;
+import com.inas.vaadinapp.entity.SearchText;
+import com.inas.vaadinapp.entity.User;
+import com.inas.vaadinapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Import en masse de comptes depuis un CSV (en-tête : nom, prenom, email, password,
+ * puis role et telephone facultatifs ; séparateur ',' ou ';').
+ *
+ * Le fichier est lu en flux, par lots de app.import.chunk-size lignes. Pour chaque lot :
+ * dédoublonnage des emails en mémoire, une seule requête pour écarter les emails déjà
+ * inscrits, hachage des mots de passe en parallèle sur un pool dédié, puis insertion
+ * des comptes, de leur index de recherche et de leurs événements UserRegistered dans
+ * une transaction (lots JDBC).
+ * L'avancement est remonté après chaque lot.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("nom", "prenom", "email", "password");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_ERRORS = 100;
+
+    private static final String INSERT_USER = "INSERT INTO users "
+            + "(nom, prenom, email, password, role, date_inscription, actif, telephone, search_text) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final UserSearchIndexService searchIndex;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final DomainEventBus domainEvents;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final int hashThreads;
+
+    public UserImportService(UserRepository userRepository, UserSearchIndexService searchIndex,
+                             PasswordEncoder passwordEncoder, JdbcTemplate jdbcTemplate,
+                             DomainEventBus domainEvents, PlatformTransactionManager transactionManager,
+                             @Value("${app.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.import.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.domainEvents = domainEvents;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        // 0 = la moitié des cœurs : la connexion garde de quoi hacher pendant un import
+        this.hashThreads = hashThreads > 0 ? hashThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    public UserImportReport importCsv(Reader source, Consumer<UserImportReport> onProgress) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        Progress progress = new Progress();
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Fichier vide");
+        }
+        char separator = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        Map<String, Integer> columns = parseHeader(parseLine(stripBom(header), separator));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService hashPool = Executors.newFixedThreadPool(hashThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Set<String> seenEmails = new HashSet<>();
+
+        try {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Row(lineNumber, parseLine(line, separator)));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, columns, seenEmails, hashPool, progress);
+                    onProgress.accept(progress.toReport(false));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, columns, seenEmails, hashPool, progress);
+            }
+        } finally {
+            hashPool.shutdownNow();
+        }
+
+        UserImportReport report = progress.toReport(true);
+        onProgress.accept(report);
+        log.info("Import utilisateurs terminé : {} lignes, {} importés, {} ignorés",
+                report.getLines(), report.getImported(), report.getSkipped());
+        return report;
+    }
+
+    /* ================== TRAITEMENT D'UN LOT ================== */
+
+    private void processChunk(List<Row> rows, Map<String, Integer> columns, Set<String> seenEmails,
+                              ExecutorService hashPool, Progress progress) {
+        progress.lines += rows.size();
+
+        // 1. Validation et dédoublonnage dans le fichier
+        Map<String, Candidate> candidates = new HashMap<>();
+        for (Row row : rows) {
+            Candidate candidate;
+            try {
+                candidate = toCandidate(row, columns);
+            } catch (IllegalArgumentException ex) {
+                progress.invalid++;
+                progress.error(row.lineNumber(), ex.getMessage());
+                continue;
+            }
+            if (!seenEmails.add(candidate.email())) {
+                progress.duplicates++;
+                continue;
+            }
+            candidates.put(candidate.email(), candidate);
+        }
+
+        // 2. Une requête pour tout le lot
+        if (!candidates.isEmpty()) {
+            for (String email : userRepository.findExistingEmails(candidates.keySet())) {
+                candidates.remove(email);
+                progress.existing++;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 3. Hachage en parallèle
+        List<Candidate> toInsert = new ArrayList<>(candidates.values());
+        List<Future<String>> hashes = new ArrayList<>(toInsert.size());
+        for (Candidate candidate : toInsert) {
+            hashes.add(hashPool.submit(() -> passwordEncoder.encode(candidate.password())));
+        }
+        List<Object[]> batch = new ArrayList<>(toInsert.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < toInsert.size(); i++) {
+            Candidate c = toInsert.get(i);
+            batch.add(new Object[]{c.nom(), c.prenom(), c.email(), await(hashes.get(i)), c.role().name(),
+                    now, true, c.telephone(), SearchText.ofUser(c.nom(), c.prenom(), c.email())});
+        }
+
+        // 4. Insertion du lot et de son index de recherche
+        Map<Long, Role> created = new HashMap<>();
+        try {
+            chunkTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, batch);
+                Map<Long, String> searchTexts = new HashMap<>();
+                for (Object[] row : userRepository.findIdsByEmails(candidates.keySet())) {
+                    Candidate c = candidates.get((String) row[1]);
+                    searchTexts.put((Long) row[0], SearchText.ofUser(c.nom(), c.prenom(), c.email()));
+                    created.put((Long) row[0], c.role());
+                }
+                searchIndex.insertGrams(searchTexts);
+                created.forEach((id, role) -> domainEvents.publish(new UserRegistered(id, role)));
+            });
+        } catch (DataAccessException ex) {
+            // Inscription concurrente d'un des emails entre la vérification et l'insertion
+            progress.invalid += toInsert.size();
+            progress.error(rows.get(0).lineNumber(), "Lot jusqu'à la ligne " + rows.get(rows.size() - 1).lineNumber()
+                    + " rejeté : " + ex.getMostSpecificCause().getMessage());
+            return;
+        }
+
+        progress.imported += created.size();
+    }
+
+    private Candidate toCandidate(Row row, Map<String, Integer> columns) {
+        String nom = field(row, columns, "nom");
+        String prenom = field(row, columns, "prenom");
+        String email = User.normalizeEmail(field(row, columns, "email"));
+        String password = field(row, columns, "password");
+        String roleValue = field(row, columns, "role");
+        String telephone = field(row, columns, "telephone");
+
+        if (nom.isEmpty() || prenom.isEmpty()) {
+            throw new IllegalArgumentException("Nom et prénom obligatoires");
+        }
+        if (!EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("Email invalide : " + email);
+        }
+        if (password.length() < 8) {
+            throw new IllegalArgumentException("Mot de passe de moins de 8 caractères");
+        }
+
+        Role role = Role.CLIENT;
+        if (!roleValue.isEmpty()) {
+            try {
+                role = Role.valueOf(roleValue.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Rôle inconnu : " + roleValue);
+            }
+        }
+        // Les comptes administrateurs ne se créent pas en masse
+        if (role == Role.ADMIN) {
+            throw new IllegalArgumentException("Rôle ADMIN non autorisé à l'import");
+        }
+        return new Candidate(nom, prenom, email, password, role, telephone.isEmpty() ? null : telephone);
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrompu");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Erreur lors du hachage d'un mot de passe", ex.getCause());
+        }
+    }
+
+    /* ================== LECTURE CSV ================== */
+
+    private static Map<String, Integer> parseHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(SearchText.normalize(header.get(i)), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Colonne obligatoire absente : " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(Row row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.fields().size()) {
+            return "";
+        }
+        return row.fields().get(index).trim();
+    }
+
+    // Champs éventuellement entre guillemets, "" pour un guillemet littéral
+    static List<String> parseLine(String line, char separator) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    /* ================== CLASSES INTERNES ================== */
+
+    private record Row(int lineNumber, List<String> fields) {}
+
+    private record Candidate(String nom, String prenom, String email, String password, Role role, String telephone) {}
+
+    // Compteurs d'un import, manipulés par le seul thread de l'import
+    private static class Progress {
+        private long lines;
+        private long imported;
+        private long duplicates;
+        private long existing;
+        private long invalid;
+        private final List<String> errors = new ArrayList<>();
+
+        void error(int lineNumber, String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("Ligne " + lineNumber + " : " + message);
+            }
+        }
+
+        UserImportReport toReport(boolean finished) {
+            return new UserImportReport(lines, imported, duplicates, existing, invalid, errors, finished);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.SearchText;
+import com.inas.vaadinapp.entity.User;
+import com.inas.vaadinapp.repository.UserRepository;
+import com.inas.vaadinapp.repository.UserSearchGramRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index n-grammes de "nom prénom email" (table user_search_grams).
+ *
+ * Les services réindexent un utilisateur dans la transaction qui modifie son nom ou
+ * son email. Au démarrage, les utilisateurs encore absents de l'index (base existante,
+ * DataInit qui écrit directement via les repositories) sont indexés par lots.
+ * Les n-grammes sont insérés en lots JDBC (une cinquantaine par utilisateur).
+ */
+@Service
+public class UserSearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndexService.class);
+    private static final int REINDEX_BATCH = 500;
+
+    private final UserRepository userRepository;
+    private final UserSearchGramRepository gramRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+
+    public UserSearchIndexService(UserRepository userRepository, UserSearchGramRepository gramRepository,
+                                  JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.gramRepository = gramRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public void index(User user) {
+        gramRepository.deleteByUserId(user.getId());
+        insertGrams(Map.of(user.getId(), SearchText.ofUser(user.getNom(), user.getPrenom(), user.getEmail())));
+    }
+
+    // Indexe des utilisateurs nouvellement créés : identifiant -> texte de recherche normalisé
+    @Transactional
+    public void insertGrams(Map<Long, String> searchTextByUserId) {
+        List<Object[]> rows = new ArrayList<>();
+        searchTextByUserId.forEach((userId, text) ->
+                SearchText.indexGrams(text).forEach(gram -> rows.add(new Object[]{userId, gram})));
+        jdbcTemplate.batchUpdate("INSERT INTO user_search_grams (user_id, gram) VALUES (?, ?)", rows);
+    }
+
+    /* ================== RECONSTRUCTION ================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        int indexed = 0;
+        int batch;
+        do {
+            // Les utilisateurs indexés sortent du résultat : on relit toujours la première page
+            Integer count = batchTransaction.execute(status -> {
+                List<User> users = userRepository.findUnindexed(PageRequest.of(0, REINDEX_BATCH));
+                for (User user : users) {
+                    user.refreshSearchText();
+                    index(user);
+                }
+                return users.size();
+            });
+            batch = count != null ? count : 0;
+            indexed += batch;
+        } while (batch == REINDEX_BATCH);
+
+        if (indexed > 0) {
+            log.info("Index de recherche utilisateurs : {} utilisateurs indexés", indexed);
+        }
+    }
+}
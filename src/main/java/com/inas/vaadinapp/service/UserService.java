@@ -1,37 +1,77 @@
 package com.inas.vaadinapp.service;
 
+import com.inas.vaadinapp.domain.EventCreated;
+import com.inas.vaadinapp.domain.EventDeleted;
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.domain.ReservationStatusChanged;
+import com.inas.vaadinapp.domain.UserRegistered;
+import com.inas.vaadinapp.domain.UserRoleChanged;
+import com.inas.vaadinapp.entity.CacheRegion;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import com.inas.vaadinapp.entity.SearchText;
 import com.inas.vaadinapp.entity.User;
 import com.inas.vaadinapp.entity.Role;
 import com.inas.vaadinapp.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    private static final List<ReservationStatus> SPENT_STATUSES =
+            List.of(ReservationStatus.EN_ATTENTE, ReservationStatus.CONFIRMEE);
+
     private final UserRepository userRepository;
-    private final ReservationService reservationService;
-    private final EventService eventService;
+    private final UserSearchIndexService searchIndex;
+    private final LoginGuard loginGuard;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, ReservationService reservationService, EventService eventService) {
+    private final DomainEventBus domainEvents;
+
+    // Cache des statistiques par utilisateur (LRU borné), protégé par statisticsLock.
+    // Chaque invalidation incrémente la génération : un calcul commencé avant une
+    // mutation n'est jamais mis en cache après elle.
+    private final Object statisticsLock = new Object();
+    private final Map<Long, UserStatistics> statisticsCache;
+    private long statisticsGeneration;
+
+    public UserService(UserRepository userRepository, UserSearchIndexService searchIndex,
+                       LoginGuard loginGuard, PasswordEncoder passwordEncoder,
+                       DomainEventBus domainEvents,
+                       @Value("${app.user-stats.cache-size:10000}") int statisticsCacheSize) {
         this.userRepository = userRepository;
-        this.reservationService = reservationService;
-        this.eventService = eventService;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.searchIndex = searchIndex;
+        this.loginGuard = loginGuard;
+        this.domainEvents = domainEvents;
+        this.passwordEncoder = passwordEncoder;
+        this.statisticsCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserStatistics> eldest) {
+                return size() > statisticsCacheSize;
+            }
+        };
     }
 
-    // Note: EventService et ReservationService devraient être injectés ici
-    // pour les calculs de statistiques, mais nous les laisserons pour plus tard
-
     /* ------------------- INSCRIPTION ------------------- */
 
+    @Transactional
     public User register(User user) {
 
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -46,34 +86,70 @@ public class UserService {
             user.setRole(Role.CLIENT);
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        searchIndex.index(saved);
+        domainEvents.publish(new UserRegistered(saved.getId(), saved.getRole()));
+        return saved;
     }
 
     /* ------------------- AUTHENTIFICATION ------------------- */
 
     public Optional<User> login(String email, String password) {
+        return login(email, password, null);
+    }
 
-        Optional<User> userOpt = userRepository.findByEmail(email);
+    // clientAddress (optionnelle) : adresse IP de la source, limitée en plus de l'email
+    public Optional<User> login(String email, String password, String clientAddress) {
 
-        if (userOpt.isEmpty()) {
-            return Optional.empty();
-        }
+        LoginGuard.Attempt attempt = loginGuard.checkAllowed(email, clientAddress);
 
-        User user = userOpt.get();
+        Optional<User> userOpt;
+        boolean matches;
+        try {
+            userOpt = userRepository.findByEmail(User.normalizeEmail(email));
+            matches = userOpt.isPresent()
+                    && loginGuard.hash(() -> passwordEncoder.matches(password, userOpt.get().getPassword()));
+        } catch (RuntimeException ex) {
+            loginGuard.release(attempt);
+            throw ex;
+        }
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!matches) {
+            loginGuard.recordFailure(attempt);
             return Optional.empty();
         }
 
+        User user = userOpt.get();
+        loginGuard.recordSuccess(attempt);
+        rehashIfNeeded(user, password);
         return Optional.of(user);
     }
 
+    // Hash d'un autre coût (ou sans préfixe) : réencodé avec le mot de passe en clair qu'on
+    // vient de vérifier. Un échec ici n'empêche pas la connexion.
+    private void rehashIfNeeded(User user, String password) {
+        String previous = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(previous)) {
+            return;
+        }
+        try {
+            String upgraded = loginGuard.hash(() -> passwordEncoder.encode(password));
+            // Mise à jour conditionnelle : un changement de mot de passe concurrent l'emporte
+            if (userRepository.updatePassword(user.getId(), previous, upgraded) == 1) {
+                user.setPassword(upgraded);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Réencodage du mot de passe de l'utilisateur {} impossible : {}", user.getId(), ex.getMessage());
+        }
+    }
+
     /* ------------------- MISE À JOUR PROFIL ------------------- */
 
     @Transactional
     public User updateProfile(Long userId, User updatedUser) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur introuvable"));
+        String previousSearchText = SearchText.ofUser(user.getNom(), user.getPrenom(), user.getEmail());
 
         // Mise à jour des champs modifiables
         user.setNom(updatedUser.getNom());
@@ -88,7 +164,11 @@ public class UserService {
             user.setEmail(updatedUser.getEmail());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (!previousSearchText.equals(SearchText.ofUser(saved.getNom(), saved.getPrenom(), saved.getEmail()))) {
+            searchIndex.index(saved);
+        }
+        return saved;
     }
 
     /* ------------------- CHANGEMENT MOT DE PASSE ------------------- */
@@ -133,62 +213,132 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur introuvable"));
 
+        Role previousRole = user.getRole();
         user.setRole(newRole);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (previousRole != newRole) {
+            domainEvents.publish(new UserRoleChanged(userId, previousRole, newRole));
+        }
+        return saved;
     }
 
     /* ------------------- STATISTIQUES UTILISATEUR ------------------- */
 
     public UserStatistics getUserStatistics(Long userId) {
-        // Vérification que l'utilisateur existe
-        userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Utilisateur introuvable"));
+        long generation;
+        synchronized (statisticsLock) {
+            UserStatistics cached = statisticsCache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = statisticsGeneration;
+        }
 
-        // Calcul du nombre d'événements créés
-        long eventsCreated = eventService.countEventsByOrganizer(userId);
+        // Événements créés, réservations et montant dépensé en une seule requête
+        List<Object[]> rows = userRepository.aggregateStatistics(userId, SPENT_STATUSES);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Utilisateur introuvable");
+        }
+        Object[] row = rows.get(0);
+        UserStatistics statistics = new UserStatistics(((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(), ((Number) row[2]).doubleValue());
 
-        // Calcul du nombre de réservations
-        long reservationsCount = reservationService.countReservationsByUser(userId);
+        synchronized (statisticsLock) {
+            if (statisticsGeneration == generation) {
+                statisticsCache.put(userId, statistics);
+            }
+        }
+        return statistics;
+    }
 
-        // Calcul du montant total dépensé
-        double totalSpent = reservationService.totalSpentByUser(userId);
+    // Invalidation après commit des mutations qui changent les statistiques d'un utilisateur
 
-        return new UserStatistics(eventsCreated, reservationsCount, totalSpent);
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationCreated event) {
+        invalidateStatistics(event.clientId());
     }
 
-    /* ------------------- LISTE UTILISATEURS AVEC FILTRES ------------------- */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ReservationStatusChanged event) {
+        invalidateStatistics(event.clientId());
+    }
 
-    public List<User> findUsersWithFilters(String searchTerm, Role role, Boolean actif) {
-        List<User> users;
-
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            // Recherche par nom, prénom ou email
-            String term = searchTerm.trim();
-            users = userRepository.findAll().stream()
-                    .filter(u -> u.getNom().toLowerCase().contains(term.toLowerCase())
-                            || u.getPrenom().toLowerCase().contains(term.toLowerCase())
-                            || u.getEmail().toLowerCase().contains(term.toLowerCase()))
-                    .toList();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventCreated event) {
+        invalidateStatistics(event.organizerId());
+    }
+
+    // La suppression d'un événement supprime aussi ses réservations : tous les clients sont concernés
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(EventDeleted event) {
+        synchronized (statisticsLock) {
+            statisticsGeneration++;
+            statisticsCache.clear();
+        }
+    }
+
+    // Statistiques modifiées par un autre nœud
+    @EventListener
+    public void on(CacheInvalidation invalidation) {
+        if (invalidation.region() != CacheRegion.USER_STATS) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            synchronized (statisticsLock) {
+                statisticsGeneration++;
+                statisticsCache.clear();
+            }
         } else {
-            // Tous les utilisateurs
-            users = userRepository.findAll();
+            invalidateStatistics(invalidation.key());
         }
+    }
+
+    private void invalidateStatistics(Long userId) {
+        synchronized (statisticsLock) {
+            statisticsGeneration++;
+            statisticsCache.remove(userId);
+        }
+    }
 
-        // Filtrage par rôle
-        if (role != null) {
-            users = users.stream()
-                    .filter(user -> user.getRole() == role)
-                    .toList();
+    /* ------------------- LISTE UTILISATEURS AVEC FILTRES ------------------- */
+
+    // Filtrage et pagination en base. Terme de 3 caractères ou plus : sous-chaîne de
+    // "nom prénom email" (index trigrammes). Terme plus court : début d'un mot (index des préfixes).
+    // Casse et accents ignorés. Pas de total : countUsers le fournit séparément.
+    @Transactional(readOnly = true)
+    public Slice<User> searchUsers(String searchTerm, Role role, Boolean actif, Pageable pageable) {
+        String term = SearchText.normalize(searchTerm);
+        if (term.isEmpty()) {
+            return userRepository.search(null, role, actif, pageable);
         }
+        Set<String> grams = SearchText.queryGrams(term);
+        if (grams.isEmpty()) {
+            return userRepository.search(toLikePattern(term), role, actif, pageable);
+        }
+        return userRepository.searchByGrams(grams, grams.size(), toLikePattern(term), role, actif, pageable);
+    }
 
-        // Filtrage par statut actif
-        if (actif != null) {
-            users = users.stream()
-                    .filter(user -> user.getActif() == actif)
-                    .toList();
+    @Transactional(readOnly = true)
+    public long countUsers(String searchTerm, Role role, Boolean actif) {
+        String term = SearchText.normalize(searchTerm);
+        if (term.isEmpty()) {
+            return userRepository.countSearch(null, role, actif);
         }
+        Set<String> grams = SearchText.queryGrams(term);
+        if (grams.isEmpty()) {
+            return userRepository.countSearch(toLikePattern(term), role, actif);
+        }
+        return userRepository.countSearchByGrams(grams, grams.size(), toLikePattern(term), role, actif);
+    }
+
+    public List<User> findUsersWithFilters(String searchTerm, Role role, Boolean actif) {
+        return searchUsers(searchTerm, role, actif, Pageable.unpaged()).getContent();
+    }
 
-        return users;
+    // Motif LIKE échappé : '_' est fréquent dans les emails
+    private static String toLikePattern(String term) {
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
     /* ------------------- UTILITAIRES ------------------- */
@@ -198,7 +348,23 @@ public class UserService {
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userRepository.findByEmail(User.normalizeEmail(email));
+    }
+
+    // Emails enregistrés avant leur normalisation (base persistante) : passés en minuscules
+    // au démarrage, sauf si le compte en minuscules existe déjà (doublon à fusionner à la main)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void normalizeLegacyEmails() {
+        for (User user : userRepository.findWithUppercaseEmail()) {
+            String normalized = User.normalizeEmail(user.getEmail());
+            if (userRepository.existsByEmail(normalized)) {
+                log.warn("Compte {} : l'email {} existe déjà en minuscules, non normalisé", user.getId(), normalized);
+                continue;
+            }
+            user.setEmail(normalized);
+            userRepository.saveAndFlush(user);
+        }
     }
 
     /* ------------------- CLASSE INTERNE POUR STATISTIQUES ------------------- */
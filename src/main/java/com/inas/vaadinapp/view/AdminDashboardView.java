@@ -1,9 +1,9 @@
 package com.inas.vaadinapp.view;
 
 import com.inas.vaadinapp.entity.*;
-import com.inas.vaadinapp.service.EventService;
-import com.inas.vaadinapp.service.ReservationService;
-import com.inas.vaadinapp.service.UserService;
+import com.inas.vaadinapp.service.PlatformMetricsService;
+import com.inas.vaadinapp.service.ReservationRollupService;
+import com.inas.vaadinapp.service.PlatformMetricsService.PlatformMetrics;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -19,31 +19,30 @@ import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @PageTitle("Admin Dashboard - EventManager")
 @Route("admin/dashboard")
 public class AdminDashboardView extends VerticalLayout implements BeforeEnterObserver {
 
-    private final UserService userService;
-    private final EventService eventService;
-    private final ReservationService reservationService;
+    private static final String MONTH_REVENUE = "📈 Revenus ce mois: ";
 
-    // Statistiques principales
-    private Div totalUsersCard;
-    private Div totalEventsCard;
-    private Div totalReservationsCard;
-    private Div totalRevenueCard;
+    private final PlatformMetricsService platformMetricsService;
+    private final ReservationRollupService rollupService;
+    private final DashboardLoader loader;
 
-    public AdminDashboardView(UserService userService, EventService eventService, ReservationService reservationService) {
-        this.userService = userService;
-        this.eventService = eventService;
-        this.reservationService = reservationService;
+    // Indicateurs lus une seule fois par affichage, depuis le snapshot en mémoire (aucune requête)
+    private PlatformMetrics metrics;
+
+    public AdminDashboardView(PlatformMetricsService platformMetricsService, ReservationRollupService rollupService,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        this.platformMetricsService = platformMetricsService;
+        this.rollupService = rollupService;
+        this.loader = new DashboardLoader(this, taskExecutor);
 
         setSizeFull();
         setPadding(true);
@@ -72,6 +71,8 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
     }
 
     private void buildDashboard() {
+        metrics = platformMetricsService.getSnapshot();
+
         // Header
         createHeader();
 
@@ -81,6 +82,9 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         // Graphiques et analyses détaillées
         createChartsSection();
 
+        // Tendance sur 12 mois (agrégats temporels, chargés en arrière-plan)
+        createTrendSection();
+
         // Statistiques détaillées
         createDetailedStatistics();
 
@@ -106,7 +110,7 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
                 .set("font-size", "1.1rem")
                 .set("text-align", "center");
 
-        Span lastUpdate = new Span("Dernière mise à jour: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        Span lastUpdate = new Span("Dernière mise à jour: " + metrics.getComputedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
         lastUpdate.getStyle()
                 .set("color", "#999")
                 .set("font-size", "0.9rem")
@@ -129,35 +133,31 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         statsGrid.setWidthFull();
         statsGrid.setSpacing(true);
 
-        // Calculer les statistiques
-        List<User> allUsers = userService.findUsersWithFilters(null, null, null);
-        ReservationService.OrganizerReservationStatistics reservationStats = getGlobalReservationStats();
-
         // Carte utilisateurs
-        totalUsersCard = createStatsCard(
+        Div totalUsersCard = createStatsCard(
                 "👥 Utilisateurs",
-                String.valueOf(allUsers.size()),
+                String.valueOf(metrics.getTotalUsers()),
                 "Total des utilisateurs inscrits"
         );
 
         // Carte événements
-        totalEventsCard = createStatsCard(
+        Div totalEventsCard = createStatsCard(
                 "📅 Événements",
-                String.valueOf(eventService.findAll().size()),
+                String.valueOf(metrics.getTotalEvents()),
                 "Total des événements créés"
         );
 
         // Carte réservations
-        totalReservationsCard = createStatsCard(
+        Div totalReservationsCard = createStatsCard(
                 "🎫 Réservations",
-                String.valueOf(reservationStats.getTotalReservations()),
+                String.valueOf(metrics.getTotalReservations()),
                 "Total des réservations effectuées"
         );
 
         // Carte revenus
-        totalRevenueCard = createStatsCard(
+        Div totalRevenueCard = createStatsCard(
                 "💰 Revenus",
-                String.format("%.2f dh", reservationStats.getTotalRevenue()),
+                String.format("%.2f dh", metrics.getActiveRevenue()),
                 "Revenus totaux générés"
         );
 
@@ -183,13 +183,32 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         VerticalLayout usersStats = createStatsTable("👥 Utilisateurs par rôle", getUsersByRoleStats());
         VerticalLayout eventsStats = createStatsTable("📅 Événements par statut", getEventsByStatusStats());
         VerticalLayout reservationsStats = createStatsTable("🎫 Réservations par statut", getReservationsByStatusStats());
-        VerticalLayout revenueStats = createStatsTable("💰 Métriques financières", getRevenueStats());
+        VerticalLayout revenueStats = createStatsTable("💰 Métriques financières", List.of());
+
+        // Revenus du mois : seul indicateur hors snapshot, lu en base hors du thread de requête
+        Div monthRevenue = addRevenueStats(revenueStats);
+        loader.load(() -> rollupService.getCurrentMonthRevenue(null),
+                revenue -> monthRevenue.setText(MONTH_REVENUE + String.format("%.2f dh", revenue)),
+                error -> monthRevenue.setText(MONTH_REVENUE + DashboardLoader.UNAVAILABLE));
 
         chartsGrid.add(usersStats, eventsStats, reservationsStats, revenueStats);
         chartsSection.add(chartsTitle, chartsGrid);
         add(chartsSection);
     }
 
+    private void createTrendSection() {
+        VerticalLayout trendSection = new VerticalLayout();
+        trendSection.setPadding(true);
+        trendSection.setWidthFull();
+
+        TrendTable trendTable = new TrendTable("📈 Réservations de la plateforme sur 12 mois");
+        loader.load(() -> rollupService.getMonthlyTrend(null, null, 12),
+                trendTable::setPoints, error -> trendTable.setUnavailable());
+
+        trendSection.add(trendTable);
+        add(trendSection);
+    }
+
     private void createDetailedStatistics() {
         VerticalLayout detailedSection = new VerticalLayout();
         detailedSection.setPadding(true);
@@ -303,6 +322,8 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
                 .set("margin-bottom", "1rem")
                 .set("color", "#333");
 
+        card.add(cardTitle);
+
         for (String stat : stats) {
             Paragraph statLine = new Paragraph(stat);
             statLine.getStyle().set("margin", "0.25rem 0");
@@ -313,91 +334,51 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
     }
 
     private List<String> getUsersStatsDetails() {
-        List<User> allUsers = userService.findUsersWithFilters(null, null, null);
-        Map<Role, Long> usersByRole = allUsers.stream()
-                .collect(Collectors.groupingBy(User::getRole, Collectors.counting()));
-
         return List.of(
-            "👑 Administrateurs: " + usersByRole.getOrDefault(Role.ADMIN, 0L),
-            "🎭 Organisateurs: " + usersByRole.getOrDefault(Role.ORGANIZER, 0L),
-            "👥 Clients: " + usersByRole.getOrDefault(Role.CLIENT, 0L),
-            "📊 Taux organisateurs: " + String.format("%.1f%%",
-                (double) usersByRole.getOrDefault(Role.ORGANIZER, 0L) / allUsers.size() * 100)
+            "👑 Administrateurs: " + metrics.getUsers(Role.ADMIN),
+            "🎭 Organisateurs: " + metrics.getUsers(Role.ORGANIZER),
+            "👥 Clients: " + metrics.getUsers(Role.CLIENT),
+            "📊 Taux organisateurs: " + String.format("%.1f%%", percent(metrics.getUsers(Role.ORGANIZER), metrics.getTotalUsers()))
         );
     }
 
     private List<String> getEventsStatsDetails() {
-        Map<EventStatus, Long> eventsByStatus = eventService.findAll().stream()
-                .collect(Collectors.groupingBy(Event::getStatus, Collectors.counting()));
-
-        long totalEvents = eventService.findAll().size();
         return List.of(
-            "📝 Brouillons: " + eventsByStatus.getOrDefault(EventStatus.BROUILLON, 0L),
-            "🟢 Publiés: " + eventsByStatus.getOrDefault(EventStatus.PUBLIE, 0L),
-            "🔴 Annulés: " + eventsByStatus.getOrDefault(EventStatus.ANNULE, 0L),
-            "✅ Terminés: " + eventsByStatus.getOrDefault(EventStatus.TERMINE, 0L),
-            "📈 Taux de succès: " + String.format("%.1f%%",
-                (double) eventsByStatus.getOrDefault(EventStatus.PUBLIE, 0L) / totalEvents * 100)
+            "📝 Brouillons: " + metrics.getEvents(EventStatus.BROUILLON),
+            "🟢 Publiés: " + metrics.getEvents(EventStatus.PUBLIE),
+            "🔴 Annulés: " + metrics.getEvents(EventStatus.ANNULE),
+            "✅ Terminés: " + metrics.getEvents(EventStatus.TERMINE),
+            "📈 Taux de succès: " + String.format("%.1f%%", percent(metrics.getEvents(EventStatus.PUBLIE), metrics.getTotalEvents()))
         );
     }
 
     private List<String> getReservationsStatsDetails() {
-        ReservationService.OrganizerReservationStatistics stats = getGlobalReservationStats();
-
         return List.of(
-            "⏳ En attente: " + getReservationCountByStatus(ReservationStatus.EN_ATTENTE),
-            "✅ Confirmées: " + getReservationCountByStatus(ReservationStatus.CONFIRMEE),
-            "❌ Annulées: " + getReservationCountByStatus(ReservationStatus.ANNULEE),
-            "👥 Places réservées: " + stats.getTotalPlacesReserved(),
-            "💰 CA généré: " + String.format("%.2f dh", stats.getTotalRevenue())
+            "⏳ En attente: " + metrics.getReservations(ReservationStatus.EN_ATTENTE),
+            "✅ Confirmées: " + metrics.getReservations(ReservationStatus.CONFIRMEE),
+            "❌ Annulées: " + metrics.getReservations(ReservationStatus.ANNULEE),
+            "👥 Places réservées: " + metrics.getActivePlaces(),
+            "💰 CA généré: " + String.format("%.2f dh", metrics.getActiveRevenue())
         );
     }
 
     private List<String> getPlatformStatsDetails() {
-        List<User> allUsers = userService.findUsersWithFilters(null, null, null);
-        long totalUsers = allUsers.size();
-        long totalEvents = eventService.findAll().size();
-        ReservationService.OrganizerReservationStatistics reservationStats = getGlobalReservationStats();
+        long totalUsers = metrics.getTotalUsers();
+        long totalEvents = metrics.getTotalEvents();
 
         return List.of(
             "📊 Utilisateurs actifs: " + totalUsers,
             "🎪 Événements totaux: " + totalEvents,
-            "🎫 Réservations totales: " + reservationStats.getTotalReservations(),
-            "💰 Revenus totaux: " + String.format("%.2f dh", reservationStats.getTotalRevenue()),
-            "📈 Événements/utilisateur: " + String.format("%.2f", (double) totalEvents / totalUsers),
+            "🎫 Réservations totales: " + metrics.getTotalReservations(),
+            "💰 Revenus totaux: " + String.format("%.2f dh", metrics.getActiveRevenue()),
+            "📈 Événements/utilisateur: " + String.format("%.2f", totalUsers > 0 ? (double) totalEvents / totalUsers : 0),
             "💵 Revenus/événement: " + String.format("%.2f dh",
-                totalEvents > 0 ? reservationStats.getTotalRevenue() / totalEvents : 0)
+                totalEvents > 0 ? metrics.getActiveRevenue() / totalEvents : 0)
         );
     }
 
-    private ReservationService.OrganizerReservationStatistics getGlobalReservationStats() {
-        try {
-            // Essayer d'utiliser la méthode globale si elle existe
-            var method = ReservationService.class.getMethod("getReservationStatistics");
-            ReservationService.ReservationStatistics globalStats = (ReservationService.ReservationStatistics) method.invoke(reservationService);
-
-            return new ReservationService.OrganizerReservationStatistics(
-                (int) globalStats.getTotalReservations(),
-                (int) (globalStats.getConfirmedReservations() + globalStats.getPendingReservations()),
-                globalStats.getTotalRevenue(),
-                0.0, // Current month revenue - à calculer séparément
-                globalStats.getTotalPlacesReserved()
-            );
-        } catch (Exception e) {
-            // Fallback: calculer manuellement
-            return new ReservationService.OrganizerReservationStatistics(0, 0, 0.0, 0.0, 0);
-        }
-    }
-
-    private long getReservationCountByStatus(ReservationStatus status) {
-        try {
-            var method = ReservationService.class.getMethod("findByStatus", ReservationStatus.class);
-            @SuppressWarnings("unchecked")
-            List<Reservation> reservations = (List<Reservation>) method.invoke(reservationService, status);
-            return reservations.size();
-        } catch (Exception e) {
-            return 0;
-        }
+    private double percent(long part, long total) {
+        return total > 0 ? (double) part / total * 100 : 0.0;
     }
 
 
@@ -428,82 +409,72 @@ public class AdminDashboardView extends VerticalLayout implements BeforeEnterObs
         table.add(tableTitle);
 
         for (String stat : stats) {
-            Div statRow = new Div();
-            statRow.getStyle()
-                    .set("padding", "0.5rem")
-                    .set("border-bottom", "1px solid #eee")
-                    .set("display", "flex")
-                    .set("justify-content", "space-between");
-
-            statRow.setText(stat);
-            table.add(statRow);
+            addStatRow(table, stat);
         }
 
         return table;
     }
 
+    private Div addStatRow(VerticalLayout table, String stat) {
+        Div statRow = new Div();
+        statRow.getStyle()
+                .set("padding", "0.5rem")
+                .set("border-bottom", "1px solid #eee")
+                .set("display", "flex")
+                .set("justify-content", "space-between");
+
+        statRow.setText(stat);
+        table.add(statRow);
+        return statRow;
+    }
+
     private List<String> getUsersByRoleStats() {
-        List<User> allUsers = userService.findUsersWithFilters(null, null, null);
-        Map<Role, Long> usersByRole = allUsers.stream()
-                .collect(Collectors.groupingBy(User::getRole, Collectors.counting()));
-        long totalUsers = allUsers.size();
+        long totalUsers = metrics.getTotalUsers();
 
         return List.of(
-            "👑 Administrateurs: " + usersByRole.getOrDefault(Role.ADMIN, 0L) +
-                " (" + String.format("%.1f%%", (double) usersByRole.getOrDefault(Role.ADMIN, 0L) / totalUsers * 100) + ")",
-            "🎭 Organisateurs: " + usersByRole.getOrDefault(Role.ORGANIZER, 0L) +
-                " (" + String.format("%.1f%%", (double) usersByRole.getOrDefault(Role.ORGANIZER, 0L) / totalUsers * 100) + ")",
-            "👥 Clients: " + usersByRole.getOrDefault(Role.CLIENT, 0L) +
-                " (" + String.format("%.1f%%", (double) usersByRole.getOrDefault(Role.CLIENT, 0L) / totalUsers * 100) + ")"
+            "👑 Administrateurs: " + metrics.getUsers(Role.ADMIN) +
+                " (" + String.format("%.1f%%", percent(metrics.getUsers(Role.ADMIN), totalUsers)) + ")",
+            "🎭 Organisateurs: " + metrics.getUsers(Role.ORGANIZER) +
+                " (" + String.format("%.1f%%", percent(metrics.getUsers(Role.ORGANIZER), totalUsers)) + ")",
+            "👥 Clients: " + metrics.getUsers(Role.CLIENT) +
+                " (" + String.format("%.1f%%", percent(metrics.getUsers(Role.CLIENT), totalUsers)) + ")"
         );
     }
 
     private List<String> getEventsByStatusStats() {
-        Map<EventStatus, Long> eventsByStatus = eventService.findAll().stream()
-                .collect(Collectors.groupingBy(Event::getStatus, Collectors.counting()));
-        long totalEvents = eventService.findAll().size();
+        long totalEvents = metrics.getTotalEvents();
 
         return List.of(
-            "📝 Brouillons: " + eventsByStatus.getOrDefault(EventStatus.BROUILLON, 0L) +
-                " (" + String.format("%.1f%%", (double) eventsByStatus.getOrDefault(EventStatus.BROUILLON, 0L) / totalEvents * 100) + ")",
-            "🟢 Publiés: " + eventsByStatus.getOrDefault(EventStatus.PUBLIE, 0L) +
-                " (" + String.format("%.1f%%", (double) eventsByStatus.getOrDefault(EventStatus.PUBLIE, 0L) / totalEvents * 100) + ")",
-            "🔴 Annulés: " + eventsByStatus.getOrDefault(EventStatus.ANNULE, 0L) +
-                " (" + String.format("%.1f%%", (double) eventsByStatus.getOrDefault(EventStatus.ANNULE, 0L) / totalEvents * 100) + ")",
-            "✅ Terminés: " + eventsByStatus.getOrDefault(EventStatus.TERMINE, 0L) +
-                " (" + String.format("%.1f%%", (double) eventsByStatus.getOrDefault(EventStatus.TERMINE, 0L) / totalEvents * 100) + ")"
+            "📝 Brouillons: " + metrics.getEvents(EventStatus.BROUILLON) +
+                " (" + String.format("%.1f%%", percent(metrics.getEvents(EventStatus.BROUILLON), totalEvents)) + ")",
+            "🟢 Publiés: " + metrics.getEvents(EventStatus.PUBLIE) +
+                " (" + String.format("%.1f%%", percent(metrics.getEvents(EventStatus.PUBLIE), totalEvents)) + ")",
+            "🔴 Annulés: " + metrics.getEvents(EventStatus.ANNULE) +
+                " (" + String.format("%.1f%%", percent(metrics.getEvents(EventStatus.ANNULE), totalEvents)) + ")",
+            "✅ Terminés: " + metrics.getEvents(EventStatus.TERMINE) +
+                " (" + String.format("%.1f%%", percent(metrics.getEvents(EventStatus.TERMINE), totalEvents)) + ")"
         );
     }
 
     private List<String> getReservationsByStatusStats() {
         return List.of(
-            "⏳ En attente: " + getReservationCountByStatus(ReservationStatus.EN_ATTENTE),
-            "✅ Confirmées: " + getReservationCountByStatus(ReservationStatus.CONFIRMEE),
-            "❌ Annulées: " + getReservationCountByStatus(ReservationStatus.ANNULEE),
-            "📊 Taux de confirmation: " + getConfirmationRate() + "%"
+            "⏳ En attente: " + metrics.getReservations(ReservationStatus.EN_ATTENTE),
+            "✅ Confirmées: " + metrics.getReservations(ReservationStatus.CONFIRMEE),
+            "❌ Annulées: " + metrics.getReservations(ReservationStatus.ANNULEE),
+            "📊 Taux de confirmation: " + String.format("%.1f",
+                percent(metrics.getReservations(ReservationStatus.CONFIRMEE), metrics.getTotalReservations())) + "%"
         );
     }
 
-    private List<String> getRevenueStats() {
-        ReservationService.OrganizerReservationStatistics stats = getGlobalReservationStats();
-
-        return List.of(
-            "💰 Revenus totaux: " + String.format("%.2f dh", stats.getTotalRevenue()),
-            "📈 Revenus ce mois: " + String.format("%.2f dh", stats.getCurrentMonthRevenue()),
-            "👥 Places réservées: " + stats.getTotalPlacesReserved(),
-            "💵 Panier moyen: " + String.format("%.2f dh",
-                stats.getTotalReservations() > 0 ? stats.getTotalRevenue() / stats.getTotalReservations() : 0)
-        );
-    }
-
-    private String getConfirmationRate() {
-        long total = getReservationCountByStatus(ReservationStatus.EN_ATTENTE) +
-                    getReservationCountByStatus(ReservationStatus.CONFIRMEE) +
-                    getReservationCountByStatus(ReservationStatus.ANNULEE);
-
-        if (total == 0) return "0.0";
+    // Retourne la ligne des revenus du mois, complétée après chargement
+    private Div addRevenueStats(VerticalLayout table) {
+        long totalReservations = metrics.getTotalReservations();
 
-        long confirmed = getReservationCountByStatus(ReservationStatus.CONFIRMEE);
-        return String.format("%.1f", (double) confirmed / total * 100);
+        addStatRow(table, "💰 Revenus totaux: " + String.format("%.2f dh", metrics.getActiveRevenue()));
+        Div monthRevenue = addStatRow(table, MONTH_REVENUE + DashboardLoader.PLACEHOLDER);
+        addStatRow(table, "👥 Places réservées: " + metrics.getActivePlaces());
+        addStatRow(table, "💵 Panier moyen: " + String.format("%.2f dh",
+                totalReservations > 0 ? metrics.getActiveRevenue() / totalReservations : 0));
+        return monthRevenue;
     }
 }
@@ -32,14 +32,17 @@ import com.vaadin.flow.server.VaadinSession;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @PageTitle("Gestion des événements - Admin")
 @Route("admin/events")
-public class AllEventsManagementView extends VerticalLayout implements BeforeEnterObserver {
+public class AllEventsManagementView extends VerticalLayout implements BeforeEnterObserver, ReleasableView {
 
     private final EventService eventService;
     private ListDataProvider<Event> dataProvider;
+    private ReleasableList<Event> events;
+    private Set<Long> reservedEventIds = Set.of();
     private Grid<Event> grid;
 
     private final ComboBox<Category> categoryFilter = new ComboBox<>("Catégorie");
@@ -187,7 +190,7 @@ public class AllEventsManagementView extends VerticalLayout implements BeforeEnt
 
         Button delete = new Button(new Icon(VaadinIcon.TRASH));
         delete.addThemeVariants(ButtonVariant.LUMO_ERROR);
-        delete.setVisible(event.getReservations() == null || event.getReservations().isEmpty());
+        delete.setVisible(!reservedEventIds.contains(event.getId()));
         delete.getElement().setAttribute("title", "Supprimer");
         delete.addClickListener(e -> deleteEvent(event));
 
@@ -196,12 +199,23 @@ public class AllEventsManagementView extends VerticalLayout implements BeforeEnt
     }
 
     private void loadEvents() {
-        List<Event> events = eventService.findAll().stream()
+        // Lu avant le rendu des lignes, dont le bouton Supprimer dépend
+        reservedEventIds = eventService.findReservedEventIds();
+        events = ReleasableList.of(fetchEvents(), this::fetchEvents);
+        dataProvider = new ListDataProvider<>(events);
+        grid.setDataProvider(dataProvider);
+    }
+
+    private List<Event> fetchEvents() {
+        return eventService.findAll().stream()
                 .sorted(Comparator.comparing(Event::getDateCreation, Comparator.nullsLast(Comparator.naturalOrder())).reversed())
                 .collect(Collectors.toList());
+    }
 
-        dataProvider = new ListDataProvider<>(events);
-        grid.setDataProvider(dataProvider);
+    // Budget mémoire de session dépassé : la grille rechargera la liste à sa prochaine lecture
+    @Override
+    public boolean releaseCachedData() {
+        return events != null && events.release();
     }
 
     private void applyFilters() {
@@ -35,12 +35,13 @@ import java.util.stream.Collectors;
 
 @PageTitle("Toutes les réservations - Admin")
 @Route("admin/reservations")
-public class AllReservationsView extends VerticalLayout implements BeforeEnterObserver {
+public class AllReservationsView extends VerticalLayout implements BeforeEnterObserver, ReleasableView {
 
     private final ReservationService reservationService;
 
     private Grid<Reservation> grid;
     private ListDataProvider<Reservation> dataProvider;
+    private ReleasableList<Reservation> reservations;
 
     // Filtres
     private ComboBox<ReservationStatus> statusFilter;
@@ -222,14 +223,24 @@ public class AllReservationsView extends VerticalLayout implements BeforeEnterOb
     }
 
     private void loadData() {
-        List<Reservation> reservations = reservationService.findAllReservations().stream()
-                .sorted((r1, r2) -> r2.getDateReservation().compareTo(r1.getDateReservation()))
-                .collect(Collectors.toList());
-
+        List<Reservation> loaded = fetchReservations();
+        reservations = ReleasableList.of(loaded, this::fetchReservations);
         dataProvider = new ListDataProvider<>(reservations);
         grid.setDataProvider(dataProvider);
 
-        updateStats(reservations);
+        updateStats(loaded);
+    }
+
+    private List<Reservation> fetchReservations() {
+        return reservationService.findAllReservations().stream()
+                .sorted((r1, r2) -> r2.getDateReservation().compareTo(r1.getDateReservation()))
+                .collect(Collectors.toList());
+    }
+
+    // Budget mémoire de session dépassé : la grille rechargera la liste à sa prochaine lecture
+    @Override
+    public boolean releaseCachedData() {
+        return reservations != null && reservations.release();
     }
 
     private void updateStats(List<Reservation> reservations) {
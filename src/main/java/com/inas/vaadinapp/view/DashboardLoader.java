@@ -0,0 +1,77 @@
+package com.inas.vaadinapp.view;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Charge les cartes d'un tableau de bord en parallèle, hors du thread de requête.
+ *
+ * Chaque calcul est soumis à l'exécuteur borné de l'application ; le résultat est
+ * appliqué au composant via UI.access (push). Quand la vue est détachée, les calculs
+ * pas encore démarrés sont annulés ; ceux en cours vont à leur terme sans interruption
+ * (une requête JDBC interrompue peut laisser la connexion dans un état incertain) et
+ * leur résultat est abandonné.
+ */
+class DashboardLoader {
+
+    static final String PLACEHOLDER = "…";
+    static final String UNAVAILABLE = "Indisponible";
+
+    private final AsyncTaskExecutor executor;
+    private final List<Future<?>> pending = new ArrayList<>();
+    // Incrémentée à chaque détachement : un résultat d'une génération passée est ignoré
+    private volatile int generation;
+
+    DashboardLoader(Component owner, AsyncTaskExecutor executor) {
+        this.executor = executor;
+        owner.addDetachListener(e -> cancelAll());
+    }
+
+    /**
+     * Lance le calcul en arrière-plan puis applique le résultat dans la session UI.
+     * Doit être appelé depuis le thread UI (constructeur, beforeEnter, listener...).
+     */
+    <T> void load(Supplier<T> task, Consumer<T> onReady, Consumer<Throwable> onError) {
+        UI ui = UI.getCurrent();
+        int submitted = generation;
+        Future<?> future = executor.submit(() -> {
+            try {
+                T result = task.get();
+                access(ui, submitted, () -> onReady.accept(result));
+            } catch (RuntimeException ex) {
+                access(ui, submitted, () -> onError.accept(ex));
+            }
+        });
+        pending.add(future);
+    }
+
+    void cancelAll() {
+        generation++;
+        pending.forEach(f -> f.cancel(false));
+        pending.clear();
+    }
+
+    // Vérifiée aussi sous le verrou de session, où s'exécute le listener de détachement
+    private void access(UI ui, int submitted, Runnable command) {
+        if (submitted != generation) {
+            return;
+        }
+        try {
+            ui.access(() -> {
+                if (submitted == generation) {
+                    command.run();
+                }
+            });
+        } catch (UIDetachedException ignored) {
+            // La vue a été quittée entre-temps : résultat abandonné
+        }
+    }
+}
@@ -27,6 +27,8 @@ import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 @PageTitle("Dashboard - EventManager")
 @Route("dashboard")
@@ -34,11 +36,21 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
 
     private final UserService userService;
     private final ReservationService reservationService;
+    private final DashboardLoader loader;
         private boolean dashboardBuilt = false;
 
-    public DashboardView(UserService userService, ReservationService reservationService) {
+    // Résultats chargés en arrière-plan (null tant que le calcul n'est pas terminé)
+    private UserService.UserStatistics stats;
+    private List<Event> upcomingEvents;
+    // Chargements pas encore terminés (succès ou échec), lus et modifiés sous le verrou de session
+    private int pendingLoads = 2;
+    private VerticalLayout notificationsList;
+
+    public DashboardView(UserService userService, ReservationService reservationService,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
         this.userService = userService;
         this.reservationService = reservationService;
+        this.loader = new DashboardLoader(this, taskExecutor);
 
         setSizeFull();
         setPadding(false);
@@ -97,37 +109,35 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         H2 statsTitle = new H2("📊 Vos statistiques");
         statsTitle.getStyle().set("text-align", "center").set("color", "#333").set("margin-bottom", "1rem");
 
-        // Récupération des statistiques
-        UserService.UserStatistics stats = userService.getUserStatistics(user.getId());
-
         HorizontalLayout statsCards = new HorizontalLayout();
         statsCards.setWidthFull();
         statsCards.setSpacing(true);
 
         // Carte réservations
-        Div reservationsCard = createStatsCard(
-                "🎫 Réservations",
-                String.valueOf(stats.getReservationsCount()),
-                "Total de vos réservations"
-        );
+        H2 reservationsValue = addStatsCard(statsCards, "🎫 Réservations", "Total de vos réservations");
 
         // Carte événements organisés (si organisateur)
-        Div eventsCard = createStatsCard(
-                "📅 Événements organisés",
-                String.valueOf(stats.getEventsCreated()),
-                "Événements que vous avez créés"
-        );
+        H2 eventsValue = addStatsCard(statsCards, "📅 Événements organisés", "Événements que vous avez créés");
 
         // Carte montant dépensé
-        Div spentCard = createStatsCard(
-                "💰 Dépensé",
-                String.format("%.2f dh", stats.getTotalSpent()),
-                "Montant total de vos réservations"
-        );
+        H2 spentValue = addStatsCard(statsCards, "💰 Dépensé", "Montant total de vos réservations");
 
-        statsCards.add(reservationsCard, eventsCard, spentCard);
         statsSection.add(statsTitle, statsCards);
 
+        // Récupération des statistiques en arrière-plan
+        loader.load(() -> userService.getUserStatistics(user.getId()), result -> {
+            stats = result;
+            reservationsValue.setText(String.valueOf(result.getReservationsCount()));
+            eventsValue.setText(String.valueOf(result.getEventsCreated()));
+            spentValue.setText(String.format("%.2f dh", result.getTotalSpent()));
+            loadFinished();
+        }, error -> {
+            reservationsValue.setText(DashboardLoader.UNAVAILABLE);
+            eventsValue.setText(DashboardLoader.UNAVAILABLE);
+            spentValue.setText(DashboardLoader.UNAVAILABLE);
+            loadFinished();
+        });
+
         // Section événements à venir
         VerticalLayout upcomingSection = new VerticalLayout();
         upcomingSection.setPadding(true);
@@ -137,20 +147,29 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         H2 upcomingTitle = new H2("📅 Événements à venir");
         upcomingTitle.getStyle().set("text-align", "center").set("color", "#333").set("margin-bottom", "1rem");
 
-        List<Event> upcomingEvents = getUpcomingEvents(user);
         VerticalLayout upcomingEventsList = new VerticalLayout();
         upcomingEventsList.setSpacing(true);
         upcomingEventsList.setWidthFull();
-
-        if (upcomingEvents.isEmpty()) {
-            Paragraph noEvents = new Paragraph("Aucun événement à venir dans vos réservations.");
-            noEvents.getStyle().set("text-align", "center").set("color", "#666").set("font-style", "italic");
-            upcomingEventsList.add(noEvents);
-        } else {
-            for (Event event : upcomingEvents) {
-                upcomingEventsList.add(createEventCard(event));
+        upcomingEventsList.add(new Paragraph(DashboardLoader.PLACEHOLDER));
+
+        loader.load(() -> getUpcomingEvents(user), result -> {
+            upcomingEvents = result;
+            upcomingEventsList.removeAll();
+            if (result.isEmpty()) {
+                Paragraph noEvents = new Paragraph("Aucun événement à venir dans vos réservations.");
+                noEvents.getStyle().set("text-align", "center").set("color", "#666").set("font-style", "italic");
+                upcomingEventsList.add(noEvents);
+            } else {
+                for (Event event : result) {
+                    upcomingEventsList.add(createEventCard(event));
+                }
             }
-        }
+            loadFinished();
+        }, error -> {
+            upcomingEventsList.removeAll();
+            upcomingEventsList.add(new Paragraph(DashboardLoader.UNAVAILABLE));
+            loadFinished();
+        });
 
         upcomingSection.add(upcomingTitle, upcomingEventsList);
 
@@ -219,12 +238,34 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         H2 notificationsTitle = new H2("🔔 Notifications");
         notificationsTitle.getStyle().set("text-align", "center").set("color", "#333").set("margin-bottom", "1rem");
 
-        VerticalLayout notificationsList = new VerticalLayout();
+        notificationsList = new VerticalLayout();
         notificationsList.setSpacing(false);
         notificationsList.setWidthFull();
+        notificationsList.add(new Paragraph(DashboardLoader.PLACEHOLDER));
+
+        notificationsSection.add(notificationsTitle, notificationsList);
+
+        // Assembler tout
+        add(header, statsSection, upcomingSection, shortcutsSection, notificationsSection);
+    }
+
+    private void loadFinished() {
+        if (--pendingLoads == 0) {
+            refreshNotifications();
+        }
+    }
+
+    // Les notifications dépendent des deux chargements : construites quand les deux sont
+    // terminés, à partir des résultats disponibles (un chargement en échec reste null)
+    private void refreshNotifications() {
+        notificationsList.removeAll();
+        if (stats == null && upcomingEvents == null) {
+            notificationsList.add(new Paragraph(DashboardLoader.UNAVAILABLE));
+            return;
+        }
 
         // Notification exemple - événements à venir
-        if (!upcomingEvents.isEmpty()) {
+        if (upcomingEvents != null && !upcomingEvents.isEmpty()) {
             Div upcomingNotification = createNotificationCard(
                     "Événements à venir",
                     "Vous avez " + upcomingEvents.size() + " événement(s) réservé(s) dans les prochains jours.",
@@ -235,7 +276,7 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         }
 
         // Notification exemple - solde
-        if (stats.getTotalSpent() > 0) {
+        if (stats != null && stats.getTotalSpent() > 0) {
             Div balanceNotification = createNotificationCard(
                     "Historique d'achats",
                     "Vous avez dépensé " + String.format("%.2f dh", stats.getTotalSpent()) + " en réservations.",
@@ -246,7 +287,7 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
         }
 
         // Notification de bienvenue si nouveau
-        if (stats.getReservationsCount() == 0) {
+        if (stats != null && stats.getReservationsCount() == 0) {
             Div welcomeNotification = createNotificationCard(
                     "Bienvenue !",
                     "Découvrez notre catalogue d'événements et faites votre première réservation.",
@@ -261,14 +302,9 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
             noNotifications.getStyle().set("text-align", "center").set("color", "#666").set("font-style", "italic");
             notificationsList.add(noNotifications);
         }
-
-        notificationsSection.add(notificationsTitle, notificationsList);
-
-        // Assembler tout
-        add(header, statsSection, upcomingSection, shortcutsSection, notificationsSection);
     }
 
-    private Div createStatsCard(String title, String value, String subtitle) {
+    private H2 addStatsCard(HorizontalLayout grid, String title, String subtitle) {
         Div card = new Div();
         card.getStyle()
                 .set("background", "white")
@@ -285,7 +321,7 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
                 .set("color", "#666")
                 .set("font-size", "1rem");
 
-        H2 cardValue = new H2(value);
+        H2 cardValue = new H2(DashboardLoader.PLACEHOLDER);
         cardValue.getStyle()
                 .set("margin", "0 0 0.5rem 0")
                 .set("color", "#333")
@@ -297,7 +333,8 @@ public class DashboardView extends VerticalLayout implements BeforeEnterObserver
                 .set("font-size", "0.9rem");
 
         card.add(cardTitle, cardValue, cardSubtitle);
-        return card;
+        grid.add(card);
+        return cardValue;
     }
 
     private Div createShortcutCard(String title, String description, VaadinIcon icon, String color, Runnable action) {
@@ -1,11 +1,12 @@
 package com.inas.vaadinapp.view;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import com.inas.vaadinapp.dto.CatalogEvent;
 import com.inas.vaadinapp.entity.Category;
-import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.service.EventCatalog;
 import com.inas.vaadinapp.service.EventService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -34,8 +35,9 @@ import com.vaadin.flow.router.RouteAlias;
 public class EventListView extends VerticalLayout {
 
     private final EventService eventService;
-    private ListDataProvider<Event> dataProvider;
-    private Grid<Event> grid;
+    private final EventCatalog eventCatalog;
+    private ListDataProvider<CatalogEvent> dataProvider;
+    private Grid<CatalogEvent> grid;
     private boolean showAsCards = false;
 
     private final ComboBox<Category> categoryField = new ComboBox<>("Catégorie");
@@ -49,8 +51,9 @@ public class EventListView extends VerticalLayout {
     private MenuBar sortMenuBar;
     private Button toggleViewButton;
 
-    public EventListView(EventService eventService) {
+    public EventListView(EventService eventService, EventCatalog eventCatalog) {
         this.eventService = eventService;
+        this.eventCatalog = eventCatalog;
 
         setSizeFull();
         setPadding(true);
@@ -155,7 +158,7 @@ public class EventListView extends VerticalLayout {
     /* -------------------- GRID -------------------- */
 
     private void createGridSection() {
-        grid = new Grid<>(Event.class, false);
+        grid = new Grid<>(CatalogEvent.class, false);
         configureGrid();
         add(grid);
     }
@@ -169,9 +172,9 @@ public class EventListView extends VerticalLayout {
     }
 
     private void configureGrid() {
-        grid.addColumn(Event::getTitre).setHeader("Titre");
+        grid.addColumn(CatalogEvent::getTitre).setHeader("Titre");
         grid.addColumn(e -> e.getCategorie().toString()).setHeader("Catégorie");
-        grid.addColumn(Event::getVille).setHeader("Ville");
+        grid.addColumn(CatalogEvent::getVille).setHeader("Ville");
 
         grid.addColumn(e ->
                 e.getDateDebut().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))
@@ -188,7 +191,7 @@ public class EventListView extends VerticalLayout {
                 .setHeader("Actions");
     }
 
-    private HorizontalLayout createActionButtons(Event event) {
+    private HorizontalLayout createActionButtons(CatalogEvent event) {
         Button details = new Button("Voir détails", new Icon(VaadinIcon.EYE),
                 e -> UI.getCurrent().navigate("event/" + event.getId()));
 
@@ -205,20 +208,32 @@ public class EventListView extends VerticalLayout {
         return new HorizontalLayout(details, reserve);
     }
 
+    // Catalogue public en mémoire : événements publiés et non terminés, triés par date
     private void loadEvents() {
-        List<Event> events = eventService.findAll().stream()
-            .collect(Collectors.toList());
-
-        dataProvider = new ListDataProvider<>(events);
+        dataProvider = new ListDataProvider<>(eventCatalog.findAll());
         grid.setDataProvider(dataProvider);
     }
 
     private void applyFilters() {
-        dataProvider.setFilter(event -> true);
+        LocalDateTime start = dateMinField.getValue() != null ? dateMinField.getValue().atStartOfDay() : null;
+        LocalDateTime end = dateMaxField.getValue() != null ? dateMaxField.getValue().atTime(23, 59, 59) : null;
+
+        List<CatalogEvent> events = eventCatalog.search(categoryField.getValue(), villeField.getValue(),
+                start, end, prixMinField.getValue(), prixMaxField.getValue(), keywordField.getValue());
+        dataProvider.getItems().clear();
+        dataProvider.getItems().addAll(events);
+        dataProvider.refreshAll();
     }
 
     private void resetFilters() {
-        dataProvider.clearFilters();
+        categoryField.clear();
+        villeField.clear();
+        keywordField.clear();
+        dateMinField.clear();
+        dateMaxField.clear();
+        prixMinField.clear();
+        prixMaxField.clear();
+        applyFilters();
     }
 
     private void sortByDate(boolean asc) {
@@ -237,7 +252,7 @@ public class EventListView extends VerticalLayout {
 
     private void sortByPopularity() {
         dataProvider.setSortComparator((e1, e2) ->
-            Integer.compare(e2.getReservations().size(), e1.getReservations().size())
+            Integer.compare(e2.getReservationCount(), e1.getReservationCount())
         );
     }
 
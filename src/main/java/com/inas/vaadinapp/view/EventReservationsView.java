@@ -1,7 +1,8 @@
 package com.inas.vaadinapp.view;
 
+import com.inas.vaadinapp.dto.ReservationRow;
+import com.inas.vaadinapp.dto.ReservationTotals;
 import com.inas.vaadinapp.entity.Event;
-import com.inas.vaadinapp.entity.Reservation;
 import com.inas.vaadinapp.entity.ReservationStatus;
 import com.inas.vaadinapp.entity.User;
 import com.inas.vaadinapp.service.EventService;
@@ -20,16 +21,18 @@ import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.router.*;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.io.ByteArrayInputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @PageTitle("Réservations - EventManager")
 @Route("organizer/event/reservations")
@@ -39,9 +42,11 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
     private final ReservationService reservationService;
     private final UserService userService;
 
+    // Tri par défaut : réservations les plus récentes en premier
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "dateReservation");
+
     private Event currentEvent;
-    private ListDataProvider<Reservation> dataProvider;
-    private Grid<Reservation> grid;
+    private Grid<ReservationRow> grid;
 
     // Filtres
     private ComboBox<ReservationStatus> statusFilter;
@@ -252,7 +257,7 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
     }
 
     private void createGridSection() {
-        grid = new Grid<>(Reservation.class, false);
+        grid = new Grid<>(ReservationRow.class, false);
         configureGrid();
         grid.setSizeFull();
 
@@ -281,7 +286,7 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
 
         Button refreshBtn = new Button("Actualiser", new Icon(VaadinIcon.REFRESH));
         refreshBtn.addClickListener(e -> {
-            loadReservations();
+            updateStatistics();
             applyFilters();
         });
 
@@ -291,28 +296,27 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
 
     private void configureGrid() {
         // Client (nom + prénom)
-        grid.addColumn(reservation ->
-                reservation.getClient().getPrenom() + " " + reservation.getClient().getNom()
-        ).setHeader("Client")
+        grid.addColumn(ReservationRow::getClientFullName)
+                .setHeader("Client")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("client.prenom", "client.nom");
 
         // Email client
-        grid.addColumn(reservation -> reservation.getClient().getEmail())
+        grid.addColumn(ReservationRow::getClientEmail)
                 .setHeader("Email")
                 .setAutoWidth(true);
 
         // Code réservation
-        grid.addColumn(Reservation::getCodeReservation)
+        grid.addColumn(ReservationRow::getCodeReservation)
                 .setHeader("Code réservation")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("codeReservation");
 
         // Nombre de places
-        grid.addColumn(Reservation::getNbPlaces)
+        grid.addColumn(ReservationRow::getNbPlaces)
                 .setHeader("Places")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("nbPlaces");
 
         // Prix unitaire
         grid.addColumn(reservation -> String.format("%.2f dh", reservation.getPrixUnitaire()))
@@ -323,14 +327,14 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         grid.addColumn(reservation -> String.format("%.2f dh", reservation.getMontantTotal()))
                 .setHeader("Total")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("montantTotal");
 
         // Date de réservation
         grid.addColumn(reservation ->
                 reservation.getDateReservation().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))
         ).setHeader("Date réservation")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("dateReservation");
 
         // Statut avec style
         grid.addComponentColumn(this::createStatusBadge)
@@ -343,7 +347,7 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
                 .setAutoWidth(true);
     }
 
-    private Span createStatusBadge(Reservation reservation) {
+    private Span createStatusBadge(ReservationRow reservation) {
         Span badge = new Span(getStatusLabel(reservation.getStatus()));
         badge.getStyle()
                 .set("padding", "0.25rem 0.5rem")
@@ -356,7 +360,7 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         return badge;
     }
 
-    private HorizontalLayout createActionButtons(Reservation reservation) {
+    private HorizontalLayout createActionButtons(ReservationRow reservation) {
         HorizontalLayout actions = new HorizontalLayout();
         actions.setSpacing(true);
 
@@ -385,46 +389,31 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
     }
 
     private void loadReservations() {
-        List<Reservation> reservations = reservationService.findByClient(0L).stream() // On utilise une liste vide pour commencer
-                .filter(r -> r.getEvent().getId().equals(currentEvent.getId()))
-                .sorted((r1, r2) -> r2.getDateReservation().compareTo(r1.getDateReservation()))
-                .collect(Collectors.toList());
-
-        // Charger les réservations depuis le repository directement car ReservationService ne les a pas toutes
-        try {
-            java.lang.reflect.Field reservationRepositoryField = ReservationService.class.getDeclaredField("reservationRepository");
-            reservationRepositoryField.setAccessible(true);
-            var reservationRepository = reservationRepositoryField.get(reservationService);
-
-            var findByEventIdMethod = reservationRepository.getClass().getMethod("findByEventId", Long.class);
-            reservations = (List<Reservation>) findByEventIdMethod.invoke(reservationRepository, currentEvent.getId());
-        } catch (Exception e) {
-            // Fallback: utiliser les réservations de l'événement
-            reservations = currentEvent.getReservations();
-        }
+        // Chargement paresseux : seule la page visible est lue, déjà filtrée et triée en base
+        grid.setItems(
+                query -> reservationService.findEventReservations(
+                        currentEvent.getId(), statusFilter.getValue(), searchField.getValue(),
+                        toPageRequest(query)).stream(),
+                query -> (int) reservationService.countEventReservations(
+                        currentEvent.getId(), statusFilter.getValue(), searchField.getValue())
+        );
 
-        dataProvider = new ListDataProvider<>(reservations);
-        grid.setDataProvider(dataProvider);
+        updateStatistics();
+    }
 
-        // Mettre à jour les statistiques
-        updateStatistics(reservations);
+    private Pageable toPageRequest(Query<ReservationRow, ?> query) {
+        Sort sort = VaadinSpringDataHelpers.toSpringDataSort(query);
+        return VaadinSpringDataHelpers.toSpringPageRequest(query)
+                .withSort(sort.isSorted() ? sort : DEFAULT_SORT);
     }
 
-    private void updateStatistics(List<Reservation> reservations) {
-        int totalReservations = reservations.size();
-        int totalPlaces = reservations.stream()
-                .filter(r -> r.getStatus() != ReservationStatus.ANNULEE)
-                .mapToInt(Reservation::getNbPlaces)
-                .sum();
-        double totalRevenue = reservations.stream()
-                .filter(r -> r.getStatus() == ReservationStatus.CONFIRMEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
+    private void updateStatistics() {
+        ReservationTotals totals = reservationService.getEventReservationTotals(currentEvent.getId());
 
         // Mettre à jour les cartes de statistiques
-        updateStatsCard(totalReservationsCard, "🎫 Total réservations", String.valueOf(totalReservations), "Nombre total de réservations");
-        updateStatsCard(totalPlacesCard, "👥 Places réservées", String.valueOf(totalPlaces), "Nombre total de places vendues");
-        updateStatsCard(totalRevenueCard, "💰 Revenus totaux", String.format("%.2f dh", totalRevenue), "Montant total généré");
+        updateStatsCard(totalReservationsCard, "🎫 Total réservations", String.valueOf(totals.getNbReservations()), "Nombre total de réservations");
+        updateStatsCard(totalPlacesCard, "👥 Places réservées", String.valueOf(totals.getPlacesReservees()), "Nombre total de places vendues");
+        updateStatsCard(totalRevenueCard, "💰 Revenus totaux", String.format("%.2f dh", totals.getRevenuConfirme()), "Montant total généré");
     }
 
     private void updateStatsCard(Div card, String title, String value, String subtitle) {
@@ -434,46 +423,23 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
     }
 
     private void applyFilters() {
-        dataProvider.setFilter(reservation -> {
-            // Filtre par statut
-            if (statusFilter.getValue() != null) {
-                if (reservation.getStatus() != statusFilter.getValue()) {
-                    return false;
-                }
-            }
-
-            // Filtre par recherche
-            if (searchField.getValue() != null && !searchField.getValue().trim().isEmpty()) {
-                String searchTerm = searchField.getValue().toLowerCase().trim();
-                String clientName = (reservation.getClient().getPrenom() + " " +
-                                   reservation.getClient().getNom()).toLowerCase();
-                String clientEmail = reservation.getClient().getEmail().toLowerCase();
-                String reservationCode = reservation.getCodeReservation().toLowerCase();
-
-                if (!clientName.contains(searchTerm) &&
-                    !clientEmail.contains(searchTerm) &&
-                    !reservationCode.contains(searchTerm)) {
-                    return false;
-                }
-            }
-
-            return true;
-        });
+        // Les filtres sont lus par les callbacks du fournisseur de données
+        grid.getDataProvider().refreshAll();
     }
 
-    private void confirmReservation(Reservation reservation) {
+    private void confirmReservation(ReservationRow reservation) {
         try {
             User currentUser = VaadinSession.getCurrent().getAttribute(User.class);
-            Reservation confirmed = reservationService.confirmReservation(reservation.getId(), currentUser.getId());
+            reservationService.confirmReservation(reservation.getId(), currentUser.getId());
 
             Notification notification = new Notification(
-                "Réservation confirmée pour " + confirmed.getClient().getPrenom() + " " + confirmed.getClient().getNom(),
+                "Réservation confirmée pour " + reservation.getClientFullName(),
                 3000
             );
             notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             notification.open();
 
-            loadReservations();
+            updateStatistics();
             applyFilters();
         } catch (Exception e) {
             Notification notification = new Notification("Erreur lors de la confirmation: " + e.getMessage(), 5000);
@@ -482,19 +448,19 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         }
     }
 
-    private void cancelReservation(Reservation reservation) {
+    private void cancelReservation(ReservationRow reservation) {
         try {
             User currentUser = VaadinSession.getCurrent().getAttribute(User.class);
             reservationService.cancelReservation(reservation.getId(), currentUser.getId());
 
             Notification notification = new Notification(
-                "Réservation annulée pour " + reservation.getClient().getPrenom() + " " + reservation.getClient().getNom(),
+                "Réservation annulée pour " + reservation.getClientFullName(),
                 3000
             );
             notification.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             notification.open();
 
-            loadReservations();
+            updateStatistics();
             applyFilters();
         } catch (Exception e) {
             Notification notification = new Notification("Erreur lors de l'annulation: " + e.getMessage(), 5000);
@@ -503,7 +469,7 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
         }
     }
 
-    private void showReservationDetails(Reservation reservation) {
+    private void showReservationDetails(ReservationRow reservation) {
         // Créer une boîte de dialogue avec les détails
         String details = String.format(
             "Détails de la réservation %s\n\n" +
@@ -516,9 +482,9 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
             "Date: %s\n" +
             "Statut: %s",
             reservation.getCodeReservation(),
-            reservation.getClient().getPrenom(),
-            reservation.getClient().getNom(),
-            reservation.getClient().getEmail(),
+            reservation.getClientPrenom(),
+            reservation.getClientNom(),
+            reservation.getClientEmail(),
             currentEvent.getTitre(),
             reservation.getNbPlaces(),
             reservation.getPrixUnitaire(),
@@ -537,15 +503,17 @@ public class EventReservationsView extends VerticalLayout implements HasUrlParam
     }
 
     private void exportToCsv() {
-        List<Reservation> allReservations = dataProvider.getItems().stream().collect(Collectors.toList());
+        // Toutes les réservations de l'événement, indépendamment des filtres affichés
+        List<ReservationRow> allReservations = reservationService.findEventReservations(
+                currentEvent.getId(), null, null, Pageable.unpaged(DEFAULT_SORT)).getContent();
 
         StringBuilder csv = new StringBuilder();
         csv.append("Code réservation,Client,Email,Places,Prix unitaire,Total,Date réservation,Statut\n");
 
-        for (Reservation reservation : allReservations) {
+        for (ReservationRow reservation : allReservations) {
             csv.append(reservation.getCodeReservation()).append(",");
-            csv.append("\"").append(reservation.getClient().getPrenom()).append(" ").append(reservation.getClient().getNom()).append("\",");
-            csv.append(reservation.getClient().getEmail()).append(",");
+            csv.append("\"").append(reservation.getClientFullName()).append("\",");
+            csv.append(reservation.getClientEmail()).append(",");
             csv.append(reservation.getNbPlaces()).append(",");
             csv.append(String.format("%.2f", reservation.getPrixUnitaire())).append(",");
             csv.append(String.format("%.2f", reservation.getMontantTotal())).append(",");
@@ -1,7 +1,9 @@
 package com.inas.vaadinapp.view;
 
+import com.inas.vaadinapp.dto.CatalogEvent;
 import com.inas.vaadinapp.entity.Category;
 import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.service.EventCatalog;
 import com.inas.vaadinapp.service.EventService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -29,6 +31,7 @@ import java.util.List;
 public class HomeView extends VerticalLayout {
 
     private final EventService eventService;
+    private final EventCatalog eventCatalog;
     private VerticalLayout featuredEventsLayout;
     private VerticalLayout allEventsLayout;
     private ComboBox<Category> categoryFilter;
@@ -36,8 +39,9 @@ public class HomeView extends VerticalLayout {
     private DatePicker dateFilter;
     private Button searchButton;
 
-    public HomeView(EventService eventService) {
+    public HomeView(EventService eventService, EventCatalog eventCatalog) {
         this.eventService = eventService;
+        this.eventCatalog = eventCatalog;
 
         setSizeFull();
         setPadding(false);
@@ -216,7 +220,7 @@ public class HomeView extends VerticalLayout {
 
     private void loadAllEvents() {
         allEventsLayout.removeAll();
-        List<Event> allEvents = eventService.searchEvents(null, null, null, null, null);
+        List<CatalogEvent> allEvents = eventCatalog.findAll();
 
         if (allEvents.isEmpty()) {
             Paragraph noEvents = new Paragraph("Aucun événement disponible pour le moment.");
@@ -325,7 +329,7 @@ public class HomeView extends VerticalLayout {
         return card;
     }
 
-    private Div createEventCard(Event event) {
+    private Div createEventCard(CatalogEvent event) {
         Div card = new Div();
         card.getStyle()
                 .set("background", "white")
@@ -417,11 +421,13 @@ public class HomeView extends VerticalLayout {
             endDate = selectedDate.atTime(23, 59, 59);
         }
 
-        List<Event> filteredEvents = eventService.searchEvents(
-                selectedCity,
+        List<CatalogEvent> filteredEvents = eventCatalog.search(
                 selectedCategory,
+                selectedCity,
                 startDate,
                 endDate,
+                null,
+                null,
                 null
         );
 
@@ -116,7 +116,8 @@ public class LoginView extends VerticalLayout {
         }
 
         try {
-            Optional<User> userOpt = userService.login(email, password);
+            String clientAddress = VaadinSession.getCurrent().getBrowser().getAddress();
+            Optional<User> userOpt = userService.login(email, password, clientAddress);
 
             if (userOpt.isEmpty()) {
                 Notification.show("Email ou mot de passe incorrect", 4000, Notification.Position.TOP_CENTER);
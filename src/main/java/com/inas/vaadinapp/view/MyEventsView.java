@@ -25,15 +25,18 @@ import com.vaadin.flow.server.VaadinSession;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @PageTitle("Mes Événements - EventManager")
 @Route("organizer/events")
-public class MyEventsView extends VerticalLayout {
+public class MyEventsView extends VerticalLayout implements ReleasableView {
 
     private final EventService eventService;
 
     private ListDataProvider<Event> dataProvider;
+    private ReleasableList<Event> events;
+    private Set<Long> reservedEventIds = Set.of();
     private Grid<Event> grid;
     private ComboBox<EventStatus> statusFilter;
 
@@ -275,7 +278,7 @@ public class MyEventsView extends VerticalLayout {
         Button deleteBtn = new Button(new Icon(VaadinIcon.TRASH));
         deleteBtn.getElement().setAttribute("title", "Supprimer l'événement");
         deleteBtn.addThemeVariants(ButtonVariant.LUMO_ERROR);
-        deleteBtn.setVisible(event.getStatus() == EventStatus.BROUILLON && event.getReservations().isEmpty());
+        deleteBtn.setVisible(event.getStatus() == EventStatus.BROUILLON && !reservedEventIds.contains(event.getId()));
         deleteBtn.addClickListener(e -> deleteEvent(event));
 
         actions.add(viewBtn, editBtn, reservationsBtn, publishBtn, cancelBtn, deleteBtn);
@@ -337,13 +340,24 @@ public class MyEventsView extends VerticalLayout {
     /* -------------------- UTILITAIRES -------------------- */
 
     private void loadEvents(Long userId) {
-        List<Event> events = eventService.findAll().stream()
+        // Lu avant le rendu des lignes, dont le bouton Supprimer dépend
+        reservedEventIds = eventService.findReservedEventIds();
+        events = ReleasableList.of(fetchEvents(userId), () -> fetchEvents(userId));
+        dataProvider = new ListDataProvider<>(events);
+        grid.setDataProvider(dataProvider);
+    }
+
+    private List<Event> fetchEvents(Long userId) {
+        return eventService.findAll().stream()
                 .filter(e -> e.getOrganisateur() != null && e.getOrganisateur().getId().equals(userId))
                 .sorted(Comparator.comparing(Event::getDateCreation).reversed())
                 .collect(Collectors.toList());
+    }
 
-        dataProvider = new ListDataProvider<>(events);
-        grid.setDataProvider(dataProvider);
+    // Budget mémoire de session dépassé : la grille rechargera la liste à sa prochaine lecture
+    @Override
+    public boolean releaseCachedData() {
+        return events != null && events.release();
     }
 
     private void applyFilters() {
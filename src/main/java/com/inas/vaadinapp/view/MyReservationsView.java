@@ -1,9 +1,11 @@
 package com.inas.vaadinapp.view;
 
-import com.inas.vaadinapp.entity.Reservation;
+import com.inas.vaadinapp.dto.ClientReservationTotals;
+import com.inas.vaadinapp.dto.ReservationRow;
 import com.inas.vaadinapp.entity.ReservationStatus;
 import com.inas.vaadinapp.entity.User;
 import com.inas.vaadinapp.service.ReservationService;
+import com.inas.vaadinapp.service.ReservationService.HistoryCursor;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -16,7 +18,7 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
@@ -24,17 +26,25 @@ import com.vaadin.flow.server.VaadinSession;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Route("my-reservations")
 @PageTitle("Mes réservations - EventManager")
 public class MyReservationsView extends VerticalLayout {
 
     private final ReservationService reservationService;
-    private Grid<Reservation> grid;
-    private ListDataProvider<Reservation> dataProvider;
+    private Grid<ReservationRow> grid;
+    private Span statsInfo;
     private User currentUser;
 
+    // Totaux par statut, lus une fois par rafraîchissement (comptage de la grille et bandeau)
+    private ClientReservationTotals totals;
+
+    // Curseurs de pagination : position dans la liste -> dernière ligne lue juste avant
+    private final NavigableMap<Integer, HistoryCursor> cursors = new TreeMap<>();
+
     // Filtres et contrôles
     private ComboBox<ReservationStatus> statusFilter;
     private TextField codeSearchField;
@@ -117,7 +127,7 @@ public class MyReservationsView extends VerticalLayout {
 
         // Recherche par code
         codeSearchField = new TextField("Code de réservation");
-        codeSearchField.setPlaceholder("Ex: EVT-01234");
+        codeSearchField.setPlaceholder("Ex: EVT-7K2M9QXA");
         codeSearchField.setClearButtonVisible(true);
         codeSearchField.setPrefixComponent(new Icon(VaadinIcon.SEARCH));
 
@@ -143,10 +153,10 @@ public class MyReservationsView extends VerticalLayout {
                 .set("margin-bottom", "1rem")
                 .set("color", "#333");
 
-        grid = new Grid<>(Reservation.class, false);
+        grid = new Grid<>(ReservationRow.class, false);
         configureGrid();
 
-        Span statsInfo = new Span();
+        statsInfo = new Span();
         statsInfo.getStyle()
                 .set("color", "#666")
                 .set("font-size", "0.9rem")
@@ -167,40 +177,35 @@ public class MyReservationsView extends VerticalLayout {
         grid.setHeight("500px");
 
         // Colonne Code de réservation
-        grid.addColumn(Reservation::getCodeReservation)
+        // Ordre fixe : réservations les plus récentes en premier (pagination par clé)
+        grid.addColumn(ReservationRow::getCodeReservation)
                 .setHeader("Code réservation")
-                .setSortable(true)
                 .setAutoWidth(true);
 
         // Colonne Événement avec indicateur visuel pour événements à venir
         grid.addComponentColumn(this::createEventCell)
                 .setHeader("Événement")
-                .setSortable(true)
                 .setWidth("250px");
 
         // Colonne Date de réservation
         grid.addColumn(reservation ->
                 reservation.getDateReservation().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
                 .setHeader("Date réservation")
-                .setSortable(true)
                 .setAutoWidth(true);
 
         // Colonne Nombre de places
-        grid.addColumn(Reservation::getNbPlaces)
+        grid.addColumn(ReservationRow::getNbPlaces)
                 .setHeader("Places")
-                .setSortable(true)
                 .setAutoWidth(true);
 
         // Colonne Montant total
         grid.addColumn(reservation -> String.format("%.2f dh", reservation.getMontantTotal()))
                 .setHeader("Montant")
-                .setSortable(true)
                 .setAutoWidth(true);
 
         // Colonne Statut avec style coloré
         grid.addComponentColumn(this::createStatusBadge)
                 .setHeader("Statut")
-                .setSortable(true)
                 .setAutoWidth(true);
 
         // Colonne Actions
@@ -212,21 +217,21 @@ public class MyReservationsView extends VerticalLayout {
         grid.setPageSize(10);
     }
 
-    private VerticalLayout createEventCell(Reservation reservation) {
+    private VerticalLayout createEventCell(ReservationRow reservation) {
         VerticalLayout cell = new VerticalLayout();
         cell.setSpacing(false);
         cell.setPadding(false);
 
         // Titre de l'événement
-        Span title = new Span(reservation.getEvent().getTitre());
+        Span title = new Span(reservation.getEventTitre());
         title.getStyle()
                 .set("font-weight", "bold")
                 .set("color", "#333");
 
         // Informations supplémentaires
         Span details = new Span(
-                reservation.getEvent().getDateDebut().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) +
-                " • " + reservation.getEvent().getVille()
+                reservation.getEventDateDebut().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) +
+                " • " + reservation.getEventVille()
         );
         details.getStyle()
                 .set("font-size", "0.85rem")
@@ -234,7 +239,7 @@ public class MyReservationsView extends VerticalLayout {
 
         // Indicateur visuel pour événements à venir
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime eventDate = reservation.getEvent().getDateDebut();
+        LocalDateTime eventDate = reservation.getEventDateDebut();
 
         if (eventDate.isAfter(now)) {
             long daysUntil = java.time.Duration.between(now, eventDate).toDays();
@@ -272,7 +277,7 @@ public class MyReservationsView extends VerticalLayout {
         return cell;
     }
 
-    private Span createStatusBadge(Reservation reservation) {
+    private Span createStatusBadge(ReservationRow reservation) {
         Span badge = new Span(reservation.getStatus().toString());
         badge.getStyle()
                 .set("padding", "4px 8px")
@@ -302,19 +307,19 @@ public class MyReservationsView extends VerticalLayout {
         return badge;
     }
 
-    private HorizontalLayout createActionButtons(Reservation reservation) {
+    private HorizontalLayout createActionButtons(ReservationRow reservation) {
         HorizontalLayout actions = new HorizontalLayout();
         actions.setSpacing(true);
 
         // Bouton Voir détails
         Button detailsBtn = new Button("Voir détails", new Icon(VaadinIcon.EYE));
         detailsBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-        detailsBtn.addClickListener(e -> UI.getCurrent().navigate("event/" + reservation.getEvent().getId()));
+        detailsBtn.addClickListener(e -> UI.getCurrent().navigate("event/" + reservation.getEventId()));
 
         // Bouton Annuler (seulement si EN_ATTENTE et plus de 48h avant l'événement)
         if (reservation.getStatus() == ReservationStatus.EN_ATTENTE) {
             LocalDateTime now = LocalDateTime.now();
-            LocalDateTime eventDate = reservation.getEvent().getDateDebut();
+            LocalDateTime eventDate = reservation.getEventDateDebut();
             long hoursUntil = java.time.Duration.between(now, eventDate).toHours();
 
             if (hoursUntil > 48) {
@@ -341,77 +346,72 @@ public class MyReservationsView extends VerticalLayout {
     /* -------------------- GESTION DES DONNÉES -------------------- */
 
     private void loadReservations() {
-        List<Reservation> reservations = reservationService.findByClient(currentUser.getId());
-        dataProvider = new ListDataProvider<>(reservations);
-        grid.setDataProvider(dataProvider);
-
-        updateStatsInfo(reservations);
+        // Chargement paresseux : chaque page est lue en base, filtrée par statut et par code
+        grid.setItems(this::fetchPage, query -> (int) countReservations());
+        applyFilters();
     }
 
     private void applyFilters() {
-        ReservationStatus selectedStatus = statusFilter.getValue();
-        String codeSearch = codeSearchField.getValue();
-
-        dataProvider.setFilter(reservation -> {
-            // Filtre par statut
-            if (selectedStatus != null && reservation.getStatus() != selectedStatus) {
-                return false;
-            }
-
-            // Filtre par code de réservation
-            if (codeSearch != null && !codeSearch.trim().isEmpty()) {
-                if (reservation.getCodeReservation() == null ||
-                    !reservation.getCodeReservation().toUpperCase().contains(codeSearch.toUpperCase().trim())) {
-                    return false;
-                }
-            }
-
-            return true;
-        });
-
-        List<Reservation> filteredItems = dataProvider.getItems().stream().collect(Collectors.toList());
-        updateStatsInfo(filteredItems);
+        cursors.clear();
+        totals = reservationService.getClientReservationTotals(currentUser.getId());
+        grid.getDataProvider().refreshAll();
+        updateStatsInfo();
     }
 
     private void resetFilters() {
         statusFilter.clear();
         codeSearchField.clear();
-        dataProvider.clearFilters();
+        applyFilters();
+    }
+
+    private Stream<ReservationRow> fetchPage(Query<ReservationRow, Void> query) {
+        int offset = query.getOffset();
+        int limit = query.getLimit();
 
-        List<Reservation> allItems = dataProvider.getItems().stream().collect(Collectors.toList());
-        updateStatsInfo(allItems);
+        // Lecture séquentielle (défilement) : on repart du curseur de la page précédente.
+        // Saut direct plus loin dans la liste : repli ponctuel sur OFFSET.
+        List<ReservationRow> rows;
+        if (offset == 0 || cursors.containsKey(offset)) {
+            rows = reservationService.findClientHistory(currentUser.getId(), statusFilter.getValue(),
+                    codeSearchField.getValue(), cursors.get(offset), limit);
+        } else {
+            rows = reservationService.findClientHistoryAt(currentUser.getId(), statusFilter.getValue(),
+                    codeSearchField.getValue(), offset, limit);
+        }
+
+        if (!rows.isEmpty()) {
+            cursors.put(offset + rows.size(), HistoryCursor.of(rows.get(rows.size() - 1)));
+        }
+        return rows.stream();
     }
 
-    private void updateStatsInfo(List<Reservation> reservations) {
-        long total = reservations.size();
-        long pending = reservations.stream().filter(r -> r.getStatus() == ReservationStatus.EN_ATTENTE).count();
-        long confirmed = reservations.stream().filter(r -> r.getStatus() == ReservationStatus.CONFIRMEE).count();
-        long cancelled = reservations.stream().filter(r -> r.getStatus() == ReservationStatus.ANNULEE).count();
-        double totalAmount = reservations.stream()
-                .filter(r -> r.getStatus() != ReservationStatus.ANNULEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
-
-        // Trouver le Span statsInfo et mettre à jour son contenu
-        VerticalLayout gridSection = (VerticalLayout) getComponentAt(getComponentCount() - 1);
-        if (gridSection.getComponentCount() >= 3) {
-            Span statsInfo = (Span) gridSection.getComponentAt(2);
-            if (total > 0) {
-                statsInfo.setText(String.format(
-                        "Affichage de %d réservation(s) • En attente: %d • Confirmées: %d • Annulées: %d • Montant total: %.2f dh",
-                        total, pending, confirmed, cancelled, totalAmount
-                ));
-            } else {
-                statsInfo.setText("Aucune réservation trouvée.");
-            }
+    private long countReservations() {
+        String code = codeSearchField.getValue();
+        if (code == null || code.trim().isEmpty()) {
+            // Sans recherche par code, le total découle de l'agrégat par statut
+            return statusFilter.getValue() != null ? totals.getCount(statusFilter.getValue()) : totals.getTotal();
+        }
+        return reservationService.countClientHistory(currentUser.getId(), statusFilter.getValue(), code);
+    }
+
+    private void updateStatsInfo() {
+        long displayed = countReservations();
+
+        if (totals.getTotal() > 0) {
+            statsInfo.setText(String.format(
+                    "Affichage de %d réservation(s) • En attente: %d • Confirmées: %d • Annulées: %d • Montant total: %.2f dh",
+                    displayed, totals.getPending(), totals.getConfirmed(), totals.getCancelled(), totals.getActiveAmount()
+            ));
+        } else {
+            statsInfo.setText("Aucune réservation trouvée.");
         }
     }
 
-    private void cancelReservation(Reservation reservation) {
+    private void cancelReservation(ReservationRow reservation) {
         try {
             reservationService.cancelReservation(reservation.getId(), currentUser.getId());
             Notification.show("Réservation " + reservation.getCodeReservation() + " annulée avec succès.", 3000, Notification.Position.TOP_CENTER);
-            loadReservations(); // Refresh the data
+            applyFilters(); // Refresh the data
         } catch (IllegalArgumentException ex) {
             Notification.show(ex.getMessage(), 5000, Notification.Position.MIDDLE);
         }
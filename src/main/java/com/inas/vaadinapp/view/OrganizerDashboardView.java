@@ -3,7 +3,9 @@ package com.inas.vaadinapp.view;
 import com.inas.vaadinapp.entity.Event;
 import com.inas.vaadinapp.entity.EventStatus;
 import com.inas.vaadinapp.entity.User;
+import com.inas.vaadinapp.service.AudienceSketchService;
 import com.inas.vaadinapp.service.EventService;
+import com.inas.vaadinapp.service.ReservationRollupService;
 import com.inas.vaadinapp.service.ReservationService;
 import com.inas.vaadinapp.service.UserService;
 import com.vaadin.flow.component.UI;
@@ -15,6 +17,8 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -26,11 +30,19 @@ public class OrganizerDashboardView extends VerticalLayout {
     private final EventService eventService;
     private final ReservationService reservationService;
     private final UserService userService;
+    private final ReservationRollupService rollupService;
+    private final AudienceSketchService audienceSketchService;
+    private final DashboardLoader loader;
 
-    public OrganizerDashboardView(EventService eventService, ReservationService reservationService, UserService userService) {
+    public OrganizerDashboardView(EventService eventService, ReservationService reservationService, UserService userService,
+                                  ReservationRollupService rollupService, AudienceSketchService audienceSketchService,
+                                  @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
         this.eventService = eventService;
         this.reservationService = reservationService;
         this.userService = userService;
+        this.rollupService = rollupService;
+        this.audienceSketchService = audienceSketchService;
+        this.loader = new DashboardLoader(this, taskExecutor);
 
         // Vérifier si l'utilisateur est connecté et est un organisateur
         User currentUser = VaadinSession.getCurrent().getAttribute(User.class);
@@ -89,36 +101,18 @@ public class OrganizerDashboardView extends VerticalLayout {
         H2 statsTitle = new H2("📊 Vos statistiques");
         statsTitle.getStyle().set("text-align", "center").set("color", "#333").set("margin-bottom", "1rem");
 
-        // Récupération des statistiques
-        EventService.OrganizerStatistics eventStats = eventService.getOrganizerStatistics(user.getId());
-        ReservationService.OrganizerReservationStatistics reservationStats = reservationService.getOrganizerReservationStatistics(user.getId());
-
         HorizontalLayout statsCards = new HorizontalLayout();
         statsCards.setWidthFull();
         statsCards.setSpacing(true);
 
         // Carte événements totaux
-        Div totalEventsCard = createStatsCard(
-                "🎪 Événements créés",
-                String.valueOf(eventStats.getTotalEvents()),
-                "Total de vos événements"
-        );
+        H2 totalEventsValue = addCard(statsCards, createStatsCard("🎪 Événements créés", "Total de vos événements"));
 
         // Carte événements publiés
-        Div publishedEventsCard = createStatsCard(
-                "📅 Événements publiés",
-                String.valueOf(eventStats.getPublishedEvents()),
-                "Événements actifs"
-        );
+        H2 publishedEventsValue = addCard(statsCards, createStatsCard("📅 Événements publiés", "Événements actifs"));
 
         // Carte réservations totales
-        Div totalReservationsCard = createStatsCard(
-                "🎫 Réservations totales",
-                String.valueOf(reservationStats.getTotalReservations()),
-                "Toutes les réservations reçues"
-        );
-
-        statsCards.add(totalEventsCard, publishedEventsCard, totalReservationsCard);
+        H2 totalReservationsValue = addCard(statsCards, createStatsCard("🎫 Réservations totales", "Toutes les réservations reçues"));
 
         // Deuxième ligne de statistiques
         HorizontalLayout revenueCards = new HorizontalLayout();
@@ -126,29 +120,26 @@ public class OrganizerDashboardView extends VerticalLayout {
         revenueCards.setSpacing(true);
 
         // Carte revenu total
-        Div totalRevenueCard = createStatsCard(
-                "💰 Revenus totaux",
-                String.format("%.2f dh", reservationStats.getTotalRevenue()),
-                "Gains générés par vos événements"
-        );
+        H2 totalRevenueValue = addCard(revenueCards, createStatsCard("💰 Revenus totaux", "Gains générés par vos événements"));
 
         // Carte revenu du mois
-        Div monthRevenueCard = createStatsCard(
-                "📈 Revenus ce mois",
-                String.format("%.2f dh", reservationStats.getCurrentMonthRevenue()),
-                "Revenus du mois en cours"
-        );
+        H2 monthRevenueValue = addCard(revenueCards, createStatsCard("📈 Revenus ce mois", "Revenus du mois en cours"));
 
         // Carte places réservées
-        Div placesReservedCard = createStatsCard(
-                "👥 Places réservées",
-                String.valueOf(reservationStats.getTotalPlacesReserved()),
-                "Nombre total de places vendues"
-        );
+        H2 placesReservedValue = addCard(revenueCards, createStatsCard("👥 Places réservées", "Nombre total de places vendues"));
+
+        // Troisième ligne : audience (estimations HyperLogLog)
+        HorizontalLayout audienceCards = new HorizontalLayout();
+        audienceCards.setWidthFull();
+        audienceCards.setSpacing(true);
 
-        revenueCards.add(totalRevenueCard, monthRevenueCard, placesReservedCard);
+        H2 uniqueClientsValue = addCard(audienceCards, createStatsCard("👤 Clients uniques", "Clients distincts ayant réservé"));
+        // Participations en plus des clients uniques, et non clients revenus : les esquisses
+        // donnent la taille d'une union, pas le nombre de clients présents à plusieurs événements
+        H2 repeatValue = addCard(audienceCards, createStatsCard("🔁 Participations répétées",
+                "Participations de clients déjà venus à un autre de vos événements"));
 
-        statsSection.add(statsTitle, statsCards, revenueCards);
+        statsSection.add(statsTitle, statsCards, revenueCards, audienceCards);
 
         // Section événements par statut
         VerticalLayout statusSection = new VerticalLayout();
@@ -164,40 +155,58 @@ public class OrganizerDashboardView extends VerticalLayout {
         statusCards.setSpacing(true);
 
         // Carte brouillons
-        Div draftCard = createStatusCard(
-                "📝 Brouillons",
-                String.valueOf(eventStats.getDraftEvents()),
-                "Événements en préparation",
-                "#6c757d"
-        );
+        H2 draftValue = addCard(statusCards, createStatusCard("📝 Brouillons", "Événements en préparation", "#6c757d"));
 
         // Carte publiés
-        Div publishedCard = createStatusCard(
-                "🟢 Publiés",
-                String.valueOf(eventStats.getPublishedEvents()),
-                "Événements actifs et visibles",
-                "#28a745"
-        );
+        H2 publishedValue = addCard(statusCards, createStatusCard("🟢 Publiés", "Événements actifs et visibles", "#28a745"));
 
         // Carte annulés
-        Div cancelledCard = createStatusCard(
-                "🔴 Annulés",
-                String.valueOf(eventStats.getCancelledEvents()),
-                "Événements annulés",
-                "#dc3545"
-        );
+        H2 cancelledValue = addCard(statusCards, createStatusCard("🔴 Annulés", "Événements annulés", "#dc3545"));
 
         // Carte terminés
-        Div finishedCard = createStatusCard(
-                "✅ Terminés",
-                String.valueOf(eventStats.getFinishedEvents()),
-                "Événements passés",
-                "#17a2b8"
-        );
+        H2 finishedValue = addCard(statusCards, createStatusCard("✅ Terminés", "Événements passés", "#17a2b8"));
 
-        statusCards.add(draftCard, publishedCard, cancelledCard, finishedCard);
         statusSection.add(statusTitle, statusCards);
 
+        // Récupération des statistiques en parallèle
+        loader.load(() -> eventService.getOrganizerStatistics(user.getId()), eventStats -> {
+            totalEventsValue.setText(String.valueOf(eventStats.getTotalEvents()));
+            publishedEventsValue.setText(String.valueOf(eventStats.getPublishedEvents()));
+            draftValue.setText(String.valueOf(eventStats.getDraftEvents()));
+            publishedValue.setText(String.valueOf(eventStats.getPublishedEvents()));
+            cancelledValue.setText(String.valueOf(eventStats.getCancelledEvents()));
+            finishedValue.setText(String.valueOf(eventStats.getFinishedEvents()));
+        }, error -> List.of(totalEventsValue, publishedEventsValue, draftValue, publishedValue, cancelledValue, finishedValue)
+                .forEach(value -> value.setText(DashboardLoader.UNAVAILABLE)));
+
+        loader.load(() -> reservationService.getOrganizerReservationStatistics(user.getId()), reservationStats -> {
+            totalReservationsValue.setText(String.valueOf(reservationStats.getTotalReservations()));
+            totalRevenueValue.setText(String.format("%.2f dh", reservationStats.getTotalRevenue()));
+            monthRevenueValue.setText(String.format("%.2f dh", reservationStats.getCurrentMonthRevenue()));
+            placesReservedValue.setText(String.valueOf(reservationStats.getTotalPlacesReserved()));
+        }, error -> List.of(totalReservationsValue, totalRevenueValue, monthRevenueValue, placesReservedValue)
+                .forEach(value -> value.setText(DashboardLoader.UNAVAILABLE)));
+
+        loader.load(() -> audienceSketchService.getOrganizerAudience(user.getId()), audience -> {
+            String margin = String.format(" (±%.0f %%)", audience.getRelativeError() * 100);
+            uniqueClientsValue.setText("≈ " + audience.getUniqueClients());
+            uniqueClientsValue.getElement().setAttribute("title", "Estimation" + margin);
+            repeatValue.setText("≈ " + audience.getRepeatAttendances());
+            repeatValue.getElement().setAttribute("title", "Estimation" + margin);
+        }, error -> List.of(uniqueClientsValue, repeatValue)
+                .forEach(value -> value.setText(DashboardLoader.UNAVAILABLE)));
+
+        // Tendance des 12 derniers mois
+        VerticalLayout trendSection = new VerticalLayout();
+        trendSection.setPadding(true);
+        trendSection.setWidthFull();
+
+        TrendTable trendTable = new TrendTable("📈 Vos réservations sur 12 mois");
+        trendSection.add(trendTable);
+
+        loader.load(() -> rollupService.getMonthlyTrend(user.getId(), null, 12),
+                trendTable::setPoints, error -> trendTable.setUnavailable());
+
         // Section événements récents
         VerticalLayout recentEventsSection = new VerticalLayout();
         recentEventsSection.setPadding(true);
@@ -207,20 +216,26 @@ public class OrganizerDashboardView extends VerticalLayout {
         H2 recentTitle = new H2("🕒 Événements récents");
         recentTitle.getStyle().set("text-align", "center").set("color", "#333").set("margin-bottom", "1rem");
 
-        List<Event> recentEvents = eventService.getRecentEventsByOrganizer(user.getId(), 5);
         VerticalLayout recentEventsList = new VerticalLayout();
         recentEventsList.setSpacing(true);
         recentEventsList.setWidthFull();
-
-        if (recentEvents.isEmpty()) {
-            Paragraph noEvents = new Paragraph("Aucun événement créé pour le moment.");
-            noEvents.getStyle().set("text-align", "center").set("color", "#666").set("font-style", "italic");
-            recentEventsList.add(noEvents);
-        } else {
-            for (Event event : recentEvents) {
-                recentEventsList.add(createEventCard(event));
+        recentEventsList.add(new Paragraph(DashboardLoader.PLACEHOLDER));
+
+        loader.load(() -> eventService.getRecentEventsByOrganizer(user.getId(), 5), recentEvents -> {
+            recentEventsList.removeAll();
+            if (recentEvents.isEmpty()) {
+                Paragraph noEvents = new Paragraph("Aucun événement créé pour le moment.");
+                noEvents.getStyle().set("text-align", "center").set("color", "#666").set("font-style", "italic");
+                recentEventsList.add(noEvents);
+            } else {
+                for (Event event : recentEvents) {
+                    recentEventsList.add(createEventCard(event));
+                }
             }
-        }
+        }, error -> {
+            recentEventsList.removeAll();
+            recentEventsList.add(new Paragraph(DashboardLoader.UNAVAILABLE));
+        });
 
         recentEventsSection.add(recentTitle, recentEventsList);
 
@@ -277,10 +292,20 @@ public class OrganizerDashboardView extends VerticalLayout {
         shortcutsSection.add(shortcutsTitle, shortcutsGrid);
 
         // Assembler tout
-        add(header, statsSection, statusSection, recentEventsSection, shortcutsSection);
+        add(header, statsSection, statusSection, trendSection, recentEventsSection, shortcutsSection);
+    }
+
+    // Ajoute la carte à la grille et renvoie son champ valeur, rempli une fois le calcul terminé
+    private H2 addCard(HorizontalLayout grid, Div card) {
+        grid.add(card);
+        return card.getChildren()
+                .filter(H2.class::isInstance)
+                .map(H2.class::cast)
+                .findFirst()
+                .orElseThrow();
     }
 
-    private Div createStatsCard(String title, String value, String subtitle) {
+    private Div createStatsCard(String title, String subtitle) {
         Div card = new Div();
         card.getStyle()
                 .set("background", "white")
@@ -298,7 +323,7 @@ public class OrganizerDashboardView extends VerticalLayout {
                 .set("color", "#666")
                 .set("font-size", "1rem");
 
-        H2 cardValue = new H2(value);
+        H2 cardValue = new H2(DashboardLoader.PLACEHOLDER);
         cardValue.getStyle()
                 .set("margin", "0 0 0.5rem 0")
                 .set("color", "#333")
@@ -313,7 +338,7 @@ public class OrganizerDashboardView extends VerticalLayout {
         return card;
     }
 
-    private Div createStatusCard(String title, String value, String subtitle, String color) {
+    private Div createStatusCard(String title, String subtitle, String color) {
         Div card = new Div();
         card.getStyle()
                 .set("background", "white")
@@ -332,7 +357,7 @@ public class OrganizerDashboardView extends VerticalLayout {
                 .set("color", color)
                 .set("font-size", "1.1rem");
 
-        H2 cardValue = new H2(value);
+        H2 cardValue = new H2(DashboardLoader.PLACEHOLDER);
         cardValue.getStyle()
                 .set("margin", "0 0 0.5rem 0")
                 .set("color", "#333")
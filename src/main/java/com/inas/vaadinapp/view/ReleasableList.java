@@ -0,0 +1,52 @@
+package com.inas.vaadinapp.view;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Liste en lecture seule dont le contenu peut être abandonné puis rechargé.
+ *
+ * Sert de collection à un ListDataProvider : le fournisseur, ses filtres et la grille
+ * restent en place, seule la liste d'entités est libérée (release). La lecture suivante
+ * (fetch de la grille, export...) la recharge depuis le service, donc à jour.
+ * Utilisée uniquement sous le verrou de la session Vaadin.
+ */
+class ReleasableList<T> extends AbstractList<T> {
+
+    private final Supplier<List<T>> loader;
+    private List<T> items;
+
+    private ReleasableList(List<T> items, Supplier<List<T>> loader) {
+        this.items = items;
+        this.loader = loader;
+    }
+
+    // Liste déjà chargée ; loader sert aux rechargements après libération
+    static <T> ReleasableList<T> of(List<T> items, Supplier<List<T>> loader) {
+        return new ReleasableList<>(items, loader);
+    }
+
+    boolean release() {
+        boolean loaded = items != null;
+        items = null;
+        return loaded;
+    }
+
+    private List<T> items() {
+        if (items == null) {
+            items = loader.get();
+        }
+        return items;
+    }
+
+    @Override
+    public T get(int index) {
+        return items().get(index);
+    }
+
+    @Override
+    public int size() {
+        return items().size();
+    }
+}
@@ -0,0 +1,14 @@
+package com.inas.vaadinapp.view;
+
+/**
+ * Vue qui garde des données en mémoire de session et sait les libérer.
+ *
+ * Appelée par SessionMemoryMonitor, session verrouillée, quand la session dépasse
+ * app.session.memory-budget. Les données libérées sont rechargées à la prochaine
+ * lecture (défilement de la grille, filtre, export), sans action de l'utilisateur.
+ */
+public interface ReleasableView {
+
+    // true si des données ont effectivement été libérées
+    boolean releaseCachedData();
+}
@@ -0,0 +1,81 @@
+package com.inas.vaadinapp.view;
+
+import com.inas.vaadinapp.dto.RollupPoint;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tendance mensuelle des réservations : une ligne par mois avec une barre
+ * proportionnelle aux revenus (pas de bibliothèque de graphiques).
+ */
+class TrendTable extends VerticalLayout {
+
+    private static final DateTimeFormatter YEAR = DateTimeFormatter.ofPattern("yyyy");
+
+    TrendTable(String title) {
+        setPadding(true);
+        setSpacing(false);
+        setWidthFull();
+        getStyle()
+                .set("background", "white")
+                .set("border-radius", "12px")
+                .set("box-shadow", "0 4px 12px rgba(0,0,0,0.1)");
+
+        H3 header = new H3(title);
+        header.getStyle().set("margin", "0 0 1rem 0").set("color", "#333");
+        add(header, new Span(DashboardLoader.PLACEHOLDER));
+    }
+
+    void setPoints(List<RollupPoint> points) {
+        // Conserver le titre, remplacer les lignes
+        getChildren().skip(1).toList().forEach(this::remove);
+
+        double maxRevenue = points.stream().mapToDouble(RollupPoint::getRevenue).max().orElse(0);
+        for (RollupPoint point : points) {
+            add(createRow(point, maxRevenue));
+        }
+    }
+
+    void setUnavailable() {
+        getChildren().skip(1).toList().forEach(this::remove);
+        add(new Span(DashboardLoader.UNAVAILABLE));
+    }
+
+    private HorizontalLayout createRow(RollupPoint point, double maxRevenue) {
+        HorizontalLayout row = new HorizontalLayout();
+        row.setWidthFull();
+        row.setAlignItems(FlexComponent.Alignment.CENTER);
+
+        String monthName = point.getMonth().getMonth().getDisplayName(TextStyle.SHORT, Locale.FRENCH);
+        Span month = new Span(monthName + " " + point.getMonth().format(YEAR));
+        month.getStyle().set("width", "90px").set("color", "#666").set("font-size", "0.9rem");
+
+        Div bar = new Div();
+        double width = maxRevenue > 0 ? point.getRevenue() * 100 / maxRevenue : 0;
+        bar.getStyle()
+                .set("height", "12px")
+                .set("width", String.format(Locale.ROOT, "%.1f%%", width))
+                .set("min-width", point.getRevenue() > 0 ? "2px" : "0")
+                .set("background", "linear-gradient(90deg, #667eea 0%, #764ba2 100%)")
+                .set("border-radius", "6px");
+
+        Div track = new Div(bar);
+        track.getStyle().set("flex", "1");
+
+        Span values = new Span(String.format("%.2f dh • %d rés. • %d places",
+                point.getRevenue(), point.getBookings(), point.getPlaces()));
+        values.getStyle().set("width", "260px").set("text-align", "right").set("font-size", "0.85rem").set("color", "#333");
+
+        row.add(month, track, values);
+        return row;
+    }
+}
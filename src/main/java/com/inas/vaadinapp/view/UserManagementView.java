@@ -2,7 +2,11 @@ package com.inas.vaadinapp.view;
 
 import com.inas.vaadinapp.entity.Role;
 import com.inas.vaadinapp.entity.User;
+import com.inas.vaadinapp.dto.UserImportReport;
+import com.inas.vaadinapp.service.UserImportService;
 import com.inas.vaadinapp.service.UserService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -14,39 +18,54 @@ import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
-
+import com.vaadin.flow.server.streams.UploadHandler;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @PageTitle("Gestion des utilisateurs - Admin")
 @Route("admin/users")
 public class UserManagementView extends VerticalLayout implements BeforeEnterObserver {
 
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "dateInscription");
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final AsyncTaskExecutor taskExecutor;
 
     private Grid<User> grid;
-    private ListDataProvider<User> dataProvider;
 
     private TextField searchField;
     private ComboBox<Role> roleFilter;
     private ComboBox<String> statusFilter;
 
     private int pageSize = 15;
-    private int currentPage = 0;
-    private List<User> allUsers;
 
-    public UserManagementView(UserService userService) {
+    public UserManagementView(UserService userService, UserImportService userImportService,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.taskExecutor = taskExecutor;
 
         setSizeFull();
         setPadding(true);
@@ -68,7 +87,6 @@ public class UserManagementView extends VerticalLayout implements BeforeEnterObs
             createHeader();
             createFilters();
             createGrid();
-            createPaginationControls();
             loadData();
         }
     }
@@ -77,7 +95,15 @@ public class UserManagementView extends VerticalLayout implements BeforeEnterObs
         H1 title = new H1("Gestion des utilisateurs");
         title.getStyle().set("color", "#333").set("margin", "0");
 
-        add(title);
+        Button importButton = new Button("Importer des utilisateurs", new Icon(VaadinIcon.UPLOAD));
+        importButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        importButton.addClickListener(e -> openImportDialog());
+
+        HorizontalLayout header = new HorizontalLayout(title, importButton);
+        header.setWidthFull();
+        header.setAlignItems(FlexComponent.Alignment.CENTER);
+        header.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
+        add(header);
     }
 
     private void createFilters() {
@@ -121,24 +147,24 @@ public class UserManagementView extends VerticalLayout implements BeforeEnterObs
         grid.addColumn(u -> u.getNom() + " " + u.getPrenom())
                 .setHeader("Nom")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("nom", "prenom");
 
         grid.addColumn(User::getEmail)
                 .setHeader("Email")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("email");
 
         grid.addColumn(u -> u.getRole().name())
                 .setHeader("Rôle")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("role");
 
         grid.addColumn(u -> u.getDateInscription() != null
                 ? u.getDateInscription().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))
                 : "")
                 .setHeader("Date inscription")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("dateInscription");
 
         grid.addComponentColumn(this::createStatusBadge)
                 .setHeader("Statut")
@@ -152,28 +178,6 @@ public class UserManagementView extends VerticalLayout implements BeforeEnterObs
         add(grid);
     }
 
-    private void createPaginationControls() {
-        HorizontalLayout pagination = new HorizontalLayout();
-        pagination.setSpacing(true);
-
-        Button prev = new Button("Précédent", e -> changePage(currentPage - 1));
-        Button next = new Button("Suivant", e -> changePage(currentPage + 1));
-
-        prev.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-        next.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-
-        pagination.add(prev, next);
-        add(pagination);
-    }
-
-    private void changePage(int page) {
-        if (page < 0) return;
-        int maxPage = (int) Math.ceil((double) allUsers.size() / pageSize) - 1;
-        if (page > maxPage) return;
-        currentPage = page;
-        applyFilters();
-    }
-
     private Span createStatusBadge(User user) {
         Span badge = new Span(user.getActif() ? "Actif" : "Inactif");
         badge.getStyle()
@@ -245,7 +249,7 @@ public class UserManagementView extends VerticalLayout implements BeforeEnterObs
             userService.toggleAccountStatus(user.getId(), !user.getActif());
             Notification.show("Statut mis à jour", 3000, Notification.Position.TOP_CENTER)
                     .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-            loadData();
+            applyFilters();
         } catch (Exception ex) {
             Notification.show("Erreur : " + ex.getMessage(), 4000, Notification.Position.TOP_CENTER)
                     .addThemeVariants(NotificationVariant.LUMO_ERROR);
@@ -257,58 +261,106 @@ public class UserManagementView extends VerticalLayout implements BeforeEnterObs
             userService.updateUserRole(user.getId(), newRole);
             Notification.show("Rôle mis à jour", 3000, Notification.Position.TOP_CENTER)
                     .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-            loadData();
+            applyFilters();
         } catch (Exception ex) {
             Notification.show("Erreur : " + ex.getMessage(), 4000, Notification.Position.TOP_CENTER)
                     .addThemeVariants(NotificationVariant.LUMO_ERROR);
         }
     }
 
-    private void loadData() {
-        allUsers = userService.findUsersWithFilters(null, null, null);
-        currentPage = 0;
-        applyFilters();
+    /* ================== IMPORT CSV ================== */
+
+    private void openImportDialog() {
+        Dialog dialog = new Dialog();
+        dialog.setHeaderTitle("Importer des utilisateurs");
+        dialog.setWidth("520px");
+
+        Span format = new Span("Fichier CSV avec en-tête : nom, prenom, email, password, role (CLIENT ou ORGANIZER), telephone.");
+        format.getStyle().set("color", "#666").set("font-size", "0.9rem");
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+        Span status = new Span();
+        VerticalLayout errors = new VerticalLayout();
+        errors.setPadding(false);
+        errors.setSpacing(false);
+
+        UI ui = UI.getCurrent();
+        Upload upload = new Upload();
+        upload.setAcceptedFileTypes(".csv", "text/csv");
+        upload.setMaxFiles(1);
+        upload.setMaxFileSize(50 * 1024 * 1024);
+        // Le fichier est traité hors du thread de requête ; l'avancement revient par push
+        upload.setUploadHandler(UploadHandler.toTempFile((metadata, file) -> {
+            ui.access(() -> {
+                progressBar.setVisible(true);
+                status.setText("Import en cours…");
+            });
+            taskExecutor.submit(() -> runImport(ui, file, progressBar, status, errors));
+        }));
+
+        Button close = new Button("Fermer", e -> dialog.close());
+        dialog.getFooter().add(close);
+        dialog.add(new VerticalLayout(format, upload, progressBar, status, errors));
+        dialog.open();
     }
 
-    private void applyFilters() {
-        List<User> filtered = allUsers;
-
-        // Recherche
-        if (searchField.getValue() != null && !searchField.getValue().trim().isEmpty()) {
-            String term = searchField.getValue().toLowerCase().trim();
-            filtered = filtered.stream()
-                    .filter(u -> (u.getNom() + " " + u.getPrenom()).toLowerCase().contains(term)
-                            || u.getEmail().toLowerCase().contains(term))
-                    .collect(Collectors.toList());
+    private void runImport(UI ui, File file, ProgressBar progressBar, Span status, VerticalLayout errors) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            UserImportReport report = userImportService.importCsv(reader,
+                    progress -> access(ui, () -> status.setText(describe(progress))));
+            access(ui, () -> {
+                progressBar.setVisible(false);
+                status.setText(describe(report));
+                report.getErrors().forEach(error -> errors.add(new Span(error)));
+                applyFilters();
+            });
+        } catch (Exception ex) {
+            access(ui, () -> {
+                progressBar.setVisible(false);
+                status.setText("Import interrompu : " + ex.getMessage());
+            });
+        } finally {
+            file.delete();
         }
+    }
 
-        // Rôle
-        if (roleFilter.getValue() != null) {
-            filtered = filtered.stream()
-                    .filter(u -> u.getRole() == roleFilter.getValue())
-                    .collect(Collectors.toList());
-        }
+    private static String describe(UserImportReport report) {
+        return String.format("%s%d lignes lues • %d importés • %d doublons • %d déjà inscrits • %d invalides",
+                report.isFinished() ? "Terminé : " : "", report.getLines(), report.getImported(),
+                report.getDuplicates(), report.getExisting(), report.getInvalid());
+    }
 
-        // Statut
-        if (statusFilter.getValue() != null) {
-            boolean shouldBeActive = statusFilter.getValue().equals("Actif");
-            filtered = filtered.stream()
-                    .filter(u -> u.getActif() == shouldBeActive)
-                    .collect(Collectors.toList());
+    private static void access(UI ui, Runnable command) {
+        try {
+            ui.access(command::run);
+        } catch (UIDetachedException ignored) {
+            // Vue quittée : l'import se poursuit, seul l'affichage est abandonné
         }
+    }
 
-        // Pagination basique
-        int fromIndex = currentPage * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, filtered.size());
-        if (fromIndex >= filtered.size() && filtered.size() > 0) {
-            currentPage = 0;
-            fromIndex = 0;
-            toIndex = Math.min(pageSize, filtered.size());
-        }
-        List<User> pageItems = filtered.subList(fromIndex, toIndex);
+    // Filtrage, tri et pagination en base : la grille ne charge que les lignes affichées
+    private void loadData() {
+        grid.setItems(
+                query -> userService.searchUsers(searchField.getValue(), roleFilter.getValue(),
+                        getActifFilter(), toPageRequest(query)).stream(),
+                query -> (int) userService.countUsers(searchField.getValue(), roleFilter.getValue(),
+                        getActifFilter())
+        );
+    }
 
-        dataProvider = new ListDataProvider<>(pageItems);
-        grid.setDataProvider(dataProvider);
+    private void applyFilters() {
+        grid.getDataProvider().refreshAll();
     }
-}
 
+    private Boolean getActifFilter() {
+        return statusFilter.getValue() == null ? null : statusFilter.getValue().equals("Actif");
+    }
+
+    private Pageable toPageRequest(Query<User, ?> query) {
+        Sort sort = VaadinSpringDataHelpers.toSpringDataSort(query);
+        return VaadinSpringDataHelpers.toSpringPageRequest(query)
+                .withSort(sort.isSorted() ? sort : DEFAULT_SORT);
+    }
+}
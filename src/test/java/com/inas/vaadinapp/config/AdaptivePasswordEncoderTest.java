@@ -0,0 +1,39 @@
+package com.inas.vaadinapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptivePasswordEncoderTest {
+
+    @Test
+    void testTaggedHashAndUpgradeDecision() {
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(5);
+
+        String encoded = encoder.encode("password123");
+        assertTrue(encoded.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("password123", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+
+        // Hash historique sans préfixe : toujours vérifié, à réencoder
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        assertTrue(encoder.matches("password123", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        // Coût plus faible : montée ; un cran au-dessus : toléré ; au-delà : descente
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("x")));
+        assertFalse(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("x")));
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(7).encode("x")));
+    }
+
+    @Test
+    void testCalibrationStaysWithinBounds() {
+        assertEquals(4, AdaptivePasswordEncoder.calibrate(Duration.ZERO, 4, 6));
+        assertEquals(6, AdaptivePasswordEncoder.calibrate(Duration.ofSeconds(30), 4, 6));
+        assertEquals(12, AdaptivePasswordEncoder.costOf("$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, AdaptivePasswordEncoder.costOf("plain"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.inas.vaadinapp.config;
+
+import com.inas.vaadinapp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Base dédiée : le jeu généré au démarrage par DataInit ne touche pas celle des autres tests
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:dataset", "app.dataset.scale=2000",
+                              "app.dataset.seed=7"})
+public class DatasetGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void testGeneratedDatasetIsConsistent() {
+        // Échelle 2000 : 500 clients, 20 événements, 2 organisateurs
+        assertEquals(500, count("SELECT COUNT(*) FROM users WHERE role = 'CLIENT' AND email LIKE '%@demo.event.ma'"));
+        assertEquals(2, count("SELECT COUNT(*) FROM users WHERE role = 'ORGANIZER' AND email LIKE '%@demo.event.ma'"));
+        assertEquals(2000, count("SELECT COUNT(*) FROM reservations WHERE LENGTH(code_reservation) = 12"));
+
+        // Codes uniques, places actives dans la capacité de chaque événement
+        assertEquals(count("SELECT COUNT(*) FROM reservations"),
+                count("SELECT COUNT(DISTINCT code_reservation) FROM reservations"));
+        assertEquals(0, count("SELECT COUNT(*) FROM events e WHERE e.capacite_max < (SELECT COALESCE(SUM(r.nb_places), 0) "
+                + "FROM reservations r WHERE r.event_id = e.id AND r.status IN ('EN_ATTENTE', 'CONFIRMEE'))"));
+        // Pas de réservation active sur un événement annulé, aucune sur un brouillon
+        assertEquals(0, count("SELECT COUNT(*) FROM reservations r JOIN events e ON r.event_id = e.id "
+                + "JOIN users u ON r.user_id = u.id WHERE u.email LIKE '%@demo.event.ma' "
+                + "AND ((e.status = 'ANNULE' AND r.status <> 'ANNULEE') OR e.status = 'BROUILLON')"));
+
+        // Popularité asymétrique : l'événement le plus demandé dépasse nettement la moyenne
+        List<Map<String, Object>> perEvent = jdbcTemplate.queryForList("SELECT COUNT(*) AS n FROM reservations r "
+                + "JOIN users u ON r.user_id = u.id WHERE u.email LIKE '%@demo.event.ma' GROUP BY r.event_id");
+        long max = perEvent.stream().mapToLong(row -> ((Number) row.get("N")).longValue()).max().orElse(0);
+        assertTrue(max > 2 * 2000 / perEvent.size());
+
+        // Mot de passe commun, comptes trouvables par la recherche
+        String hash = jdbcTemplate.queryForObject("SELECT password FROM users WHERE email = 'client42@demo.event.ma'",
+                String.class);
+        assertTrue(passwordEncoder.matches(DatasetGenerator.PASSWORD, hash));
+        assertEquals(1, userService.countUsers("client42@demo", null, null));
+    }
+
+    private long count(String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value != null ? value : 0L;
+    }
+}
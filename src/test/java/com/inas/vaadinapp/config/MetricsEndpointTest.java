@@ -0,0 +1,87 @@
+package com.inas.vaadinapp.config;
+
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.service.EventService;
+import com.inas.vaadinapp.service.OutboxDispatcher;
+import com.inas.vaadinapp.service.ReservationService;
+import com.inas.vaadinapp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Base dédiée : les réservations créées ici ne touchent pas les données des autres tests.
+// Les tests désactivent l'export des métriques, réactivé ici pour l'endpoint Prometheus
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Test
+    void testPrometheusEndpointExposesServiceAndBusinessMetrics() throws Exception {
+        Event event = eventService.findAll().stream()
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE && e.getDateFin().isAfter(LocalDateTime.now()))
+                .filter(e -> eventService.getAvailablePlaces(e.getId()) >= 2)
+                .findFirst().orElseThrow();
+        Long clientId = userService.findByEmail("client1@event.ma").orElseThrow().getId();
+
+        reservationService.createReservation(event.getId(), clientId, 2, null);
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.createReservation(event.getId(), clientId, 0, null));
+        outboxDispatcher.dispatchPending();
+        assertTrue(userService.login("client1@event.ma", "client123").isPresent());
+
+        String body = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Timers des services, par issue, avec histogramme (percentiles calculés par Prometheus)
+        assertTrue(body.contains("app_service_seconds_count{application=\"vaadinapp\",exception=\"none\","
+                + "method=\"createReservation\",outcome=\"success\",service=\"ReservationService\"}"), body);
+        assertTrue(body.contains("exception=\"IllegalArgumentException\",method=\"createReservation\","
+                + "outcome=\"rejected\",service=\"ReservationService\""));
+        assertTrue(body.contains("app_service_seconds_bucket{"));
+
+        // Compteurs métier
+        assertTrue(body.contains("app_bookings_total{application=\"vaadinapp\",status=\"created\"}"));
+        assertTrue(body.contains("app_bookings_seats_total{application=\"vaadinapp\",status=\"created\"}"));
+        assertTrue(body.contains("app_bookings_revenue_total{application=\"vaadinapp\",status=\"created\"}"));
+        assertTrue(body.contains("app_bookings_failed_total{application=\"vaadinapp\",reason=\"invalid_seats\"} 1.0"));
+
+        // Connexions : tentatives, refus par motif, pool de hachage
+        assertTrue(body.contains("app_login_attempts_total{application=\"vaadinapp\"}"));
+        assertTrue(body.contains("app_login_successes_total{application=\"vaadinapp\"}"));
+        assertTrue(body.contains("app_login_refused_total{application=\"vaadinapp\",reason=\"throttled\"}"));
+        assertTrue(body.contains("app_login_hash_seconds_count{application=\"vaadinapp\"}"));
+        assertTrue(body.contains("app_login_hash_queue{application=\"vaadinapp\"}"));
+        assertTrue(body.contains("app_login_tracked{application=\"vaadinapp\",key=\"email\"}"));
+
+        // Pool de connexions et statistiques Hibernate
+        assertTrue(body.contains("hikaricp_connections_active"));
+        assertTrue(body.contains("hibernate_statements_total"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.inas.vaadinapp.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectSizeEstimatorTest {
+
+    static class Node {
+        long id;
+        String label;
+        Node next;
+        Object payload;
+
+        Node(long id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+    }
+
+    @Test
+    void testShallowLayoutAndStrings() {
+        // En-tête 12 + long 8 + 3 références de 4 = 32 ; chaîne de 5 caractères : 24 + 24
+        long size = new ObjectSizeEstimator(v -> false, 100).measure(new Node(1, "abcde"));
+        assertEquals(32 + 24 + 24, size);
+
+        // Tableau primitif : en-tête 16 + 100 octets, aligné sur 8
+        assertEquals(120, new ObjectSizeEstimator(v -> false, 100).measure((Object) new byte[100]));
+    }
+
+    @Test
+    void testCyclesAndSharedObjectsCountedOnce() {
+        Node first = new Node(1, "a");
+        Node second = new Node(2, "a");
+        first.next = second;
+        second.next = first;
+        second.label = first.label;
+
+        ObjectSizeEstimator estimator = new ObjectSizeEstimator(v -> false, 100);
+        long size = estimator.measure(first, second);
+        assertEquals(3, estimator.getVisitedObjects());
+        assertEquals(32 + 32 + 24 + 24, size);
+
+        // Objet partagé : ni compté ni parcouru
+        Node shared = new Node(3, "partagé");
+        first.payload = shared;
+        assertEquals(size, new ObjectSizeEstimator(v -> v == shared, 100).measure(first));
+    }
+
+    @Test
+    void testCollectionsGrowWithContentAndWalkIsBounded() {
+        List<Node> small = new ArrayList<>();
+        List<Node> large = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Node node = new Node(i, "événement " + i);
+            large.add(node);
+            if (i < 10) {
+                small.add(node);
+            }
+        }
+        long smallSize = new ObjectSizeEstimator(v -> false, 10_000).measure(small);
+        long largeSize = new ObjectSizeEstimator(v -> false, 10_000).measure(large);
+        assertTrue(largeSize > 50 * smallSize, smallSize + " / " + largeSize);
+
+        ObjectSizeEstimator bounded = new ObjectSizeEstimator(v -> false, 100);
+        assertTrue(bounded.measure(large) < largeSize);
+        assertTrue(bounded.isTruncated());
+
+        // Borne de temps : l'horloge est lue tous les 1024 objets, bien avant maxObjects
+        ObjectSizeEstimator timed = new ObjectSizeEstimator(v -> false, 10_000, Duration.ofNanos(1));
+        assertTrue(timed.measure(large) < largeSize);
+        assertTrue(timed.isTruncated());
+        assertTrue(timed.getVisitedObjects() < 10_000);
+    }
+}
@@ -0,0 +1,70 @@
+package com.inas.vaadinapp.config;
+
+import com.inas.vaadinapp.view.ReleasableView;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SessionMemoryMonitorTest {
+
+    static class CachedView extends Div implements ReleasableView {
+        int releases;
+
+        @Override
+        public boolean releaseCachedData() {
+            releases++;
+            return true;
+        }
+    }
+
+    @Test
+    void testTruncatedWalkReleasesViews() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CachedView view = new CachedView();
+        VaadinSession session = session(view);
+
+        // Budget hors d'atteinte : seul l'arrêt du parcours (2 objets) déclenche la libération
+        SessionMemoryMonitor bounded = new SessionMemoryMonitor(registry, new DefaultListableBeanFactory(),
+                DataSize.ofGigabytes(1), 2, Duration.ofSeconds(10));
+        assertTrue(bounded.measure(session) > 0);
+        assertEquals(1, view.releases);
+        assertEquals(1, registry.get("app.session.truncated").counter().count());
+        assertEquals(1, registry.get("app.session.releases").counter().count());
+
+        // Parcours complet sous le budget : rien n'est libéré
+        SessionMemoryMonitor complete = new SessionMemoryMonitor(new SimpleMeterRegistry(),
+                new DefaultListableBeanFactory(), DataSize.ofGigabytes(1), 1_000_000, Duration.ofSeconds(10));
+        complete.measure(session);
+        assertEquals(1, view.releases);
+    }
+
+    // Vraie session (graphe parcouru) dont le verrou et les UIs sont remplacés
+    private static VaadinSession session(CachedView view) {
+        VaadinSession session = spy(new VaadinSession(mock(VaadinService.class)));
+        UI ui = mock(UI.class);
+        UIInternals internals = mock(UIInternals.class);
+        when(ui.getInternals()).thenReturn(internals);
+        when(internals.getActiveRouterTargetsChain()).thenReturn(List.of(view));
+        ReentrantLock lock = new ReentrantLock();
+        doReturn(lock).when(session).getLockInstance();
+        doReturn(List.of(ui)).when(session).getUIs();
+        doAnswer(invocation -> {
+            lock.unlock();
+            return null;
+        }).when(session).unlock();
+        return session;
+    }
+}
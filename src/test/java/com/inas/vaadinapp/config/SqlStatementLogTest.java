@@ -0,0 +1,111 @@
+package com.inas.vaadinapp.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementLogTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SqlStatementLog.class);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    private DataSource dataSource(Duration slowThreshold, double sampleRate) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqllog;DB_CLOSE_DELAY=-1");
+        SqlStatementLog sqlLog = new SqlStatementLog(
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                slowThreshold, sampleRate);
+        return (DataSource) sqlLog.postProcessAfterInitialization(h2, "dataSource");
+    }
+
+    @Test
+    void testSlowStatementLoggedWithParametersAndCaller() throws Exception {
+        // Seuil nul : toute requête est lente
+        DataSource dataSource = dataSource(Duration.ZERO, 0);
+        // Empreinte telle qu'enregistrée en base, préfixée par l'algorithme
+        String hash = new AdaptivePasswordEncoder(4).encode("secret123");
+        try (Connection connection = dataSource.getConnection();
+             Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE IF NOT EXISTS account (id BIGINT, email VARCHAR(100), password VARCHAR(100))");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO account VALUES (?, ?, ?)")) {
+                insert.setLong(1, 7L);
+                insert.setString(2, "client7@event.ma");
+                insert.setString(3, hash);
+                insert.executeUpdate();
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT email FROM account WHERE id = ?")) {
+                select.setLong(1, 7L);
+                try (ResultSet rs = select.executeQuery()) {
+                    assertTrue(rs.next());
+                }
+            }
+        }
+
+        String insertLine = appender.list.stream().map(ILoggingEvent::getFormattedMessage)
+                .filter(m -> m.contains("INSERT INTO account")).findFirst().orElseThrow();
+        assertTrue(insertLine.startsWith("Requête lente : "));
+        assertTrue(insertLine.contains("1=7, 2='client7@event.ma', 3='***'"), insertLine);
+        assertFalse(insertLine.contains(hash.substring(hash.indexOf('$'), 20)), insertLine);
+        assertTrue(insertLine.contains("[SqlStatementLogTest.testSlowStatementLoggedWithParametersAndCaller:"), insertLine);
+
+        assertEquals(1, registry.get("app.sql").tag("operation", "insert").timer().count());
+        assertEquals(1, registry.get("app.sql").tag("operation", "select").timer().count());
+        assertEquals(1, registry.get("app.sql").tag("operation", "other").timer().count());
+    }
+
+    @Test
+    void testFastStatementsOnlyTimedWithoutSampling() throws Exception {
+        DataSource dataSource = dataSource(Duration.ofMinutes(1), 0);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (int i = 0; i < 10; i++) {
+                statement.executeQuery("SELECT 1").close();
+            }
+        }
+        assertTrue(appender.list.isEmpty());
+        assertEquals(10, registry.get("app.sql").tag("operation", "select").timer().count());
+    }
+
+    @Test
+    void testOperationAndParameterFormatting() {
+        assertEquals("select", SqlStatementLog.operation("  select * from events"));
+        assertEquals("other", SqlStatementLog.operation("with t as (select 1) select * from t"));
+        assertEquals("other", SqlStatementLog.operation(null));
+
+        TreeMap<Integer, Object> parameters = new TreeMap<>();
+        parameters.put(2, null);
+        parameters.put(1, "x".repeat(80));
+        assertEquals("[1='" + "x".repeat(64) + "…', 2=NULL]", SqlStatementLog.format(parameters));
+    }
+}
@@ -0,0 +1,55 @@
+package com.inas.vaadinapp.config;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.router.Route;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VaadinMetricsTest {
+
+    @Route("metrics-test")
+    static class SampleView extends Div {
+    }
+
+    @Test
+    void testViewConstructionTimedPerViewClass() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ViewConstructionTimer timer = new ViewConstructionTimer(
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class));
+
+        // Bean ordinaire : ignoré
+        assertNull(timer.postProcessBeforeInstantiation(String.class, "text"));
+        timer.postProcessAfterInitialization("text", "text");
+
+        // Constructeur en échec puis construction réussie : seule la seconde est mesurée
+        timer.postProcessBeforeInstantiation(SampleView.class, "failed");
+        timer.postProcessBeforeInstantiation(SampleView.class, "view");
+        timer.postProcessAfterInitialization(new SampleView(), "view");
+
+        assertEquals(1, registry.get(ViewConstructionTimer.TIMER).tag("view", "SampleView").timer().count());
+        assertEquals(1, registry.getMeters().size());
+    }
+
+    @Test
+    void testSlowRequestBlamesDeepestViewFrame() {
+        StackTraceElement[] stack = {
+                new StackTraceElement("java.lang.Thread", "sleep", "Thread.java", 1),
+                new StackTraceElement("com.inas.vaadinapp.service.EventService", "getPopularEvents", "EventService.java", 210),
+                new StackTraceElement("com.inas.vaadinapp.view.HomeView", "lambda$new$0", "HomeView.java", 42),
+                new StackTraceElement("com.inas.vaadinapp.view.MainLayout", "init", "MainLayout.java", 12),
+                new StackTraceElement("com.vaadin.flow.server.VaadinService", "handleRequest", "VaadinService.java", 1),
+        };
+        assertEquals("lambda$new$0", VaadinMetrics.culprit(stack).getMethodName());
+
+        // Pas de vue dans la pile : le code applicatif le plus profond
+        StackTraceElement[] serviceOnly = {stack[0], stack[1], stack[4]};
+        assertEquals("getPopularEvents", VaadinMetrics.culprit(serviceOnly).getMethodName());
+        assertNull(VaadinMetrics.culprit(new StackTraceElement[]{stack[0], stack[4]}));
+    }
+}
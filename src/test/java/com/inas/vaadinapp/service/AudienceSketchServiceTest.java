@@ -0,0 +1,74 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.dto.AudienceStats;
+import com.inas.vaadinapp.entity.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : les esquisses sont mises à jour après commit
+@SpringBootTest
+public class AudienceSketchServiceTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private AudienceSketchService audienceSketchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void testOrganizerAudienceCountsNewAndReturningClients() {
+        // Événements des tests précédents livrés avant la mesure de référence
+        outboxDispatcher.dispatchPending();
+        List<Event> events = eventService.findAll().stream()
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE)
+                .filter(e -> e.getDateDebut().isAfter(LocalDateTime.now().plusDays(3)))
+                .collect(Collectors.groupingBy(e -> e.getOrganisateur().getId()))
+                .values().stream()
+                .filter(list -> list.size() >= 2)
+                .findFirst()
+                .orElseThrow();
+        Long organizerId = events.get(0).getOrganisateur().getId();
+
+        AudienceStats before = audienceSketchService.getOrganizerAudience(organizerId);
+
+        User client = new User();
+        client.setNom("Audience");
+        client.setPrenom("Client");
+        client.setEmail("audience.client@test.com");
+        client.setPassword("password123");
+        client.setRole(Role.CLIENT);
+        userService.register(client);
+
+        // Le même client réserve deux événements du même organisateur
+        reservationService.createReservation(events.get(0).getId(), client.getId(), 1, null);
+        reservationService.createReservation(events.get(1).getId(), client.getId(), 1, null);
+        outboxDispatcher.dispatchPending();
+
+        // Estimations : une collision de registre peut décaler le résultat d'une unité
+        AudienceStats after = audienceSketchService.getOrganizerAudience(organizerId);
+        assertEquals(before.getUniqueClients() + 1, after.getUniqueClients(), 1);
+        assertEquals(before.getRepeatAttendances() + 1, after.getRepeatAttendances(), 1);
+
+        // Reconstruction depuis les réservations : mêmes esquisses
+        audienceSketchService.rebuild();
+        AudienceStats rebuilt = audienceSketchService.getOrganizerAudience(organizerId);
+        assertEquals(after.getUniqueClients(), rebuilt.getUniqueClients());
+        assertEquals(after.getAttendances(), rebuilt.getAttendances());
+    }
+}
@@ -0,0 +1,83 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.CacheChange;
+import com.inas.vaadinapp.entity.CacheRegion;
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.entity.Role;
+import com.inas.vaadinapp.entity.User;
+import com.inas.vaadinapp.repository.CacheChangeRepository;
+import com.inas.vaadinapp.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Un second nœud est simulé en écrivant directement en base et dans le journal
+@SpringBootTest(properties = {"app.cluster.enabled=true", "app.cluster.node-id=node-test",
+                              "app.cluster.poll-interval=PT1H"})
+public class ClusterChangeLogTest {
+
+    @Autowired
+    private ClusterChangeLog changeLog;
+
+    @Autowired
+    private CacheChangeRepository changeRepository;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void testRemoteChangesInvalidateLocalCaches() {
+        outboxDispatcher.dispatchPending();
+        changeLog.poll();
+
+        // Les changements du nœud local sont journalisés mais pas republiés localement
+        User client = new User();
+        client.setNom("Cluster");
+        client.setPrenom("Client");
+        client.setEmail("cluster.client@test.com");
+        client.setPassword("password123");
+        client.setRole(Role.CLIENT);
+        userService.register(client);
+        assertTrue(changeRepository.count() > 0);
+        assertEquals(0, changeLog.poll());
+
+        // Statistiques en cache : la même instance est resservie jusqu'à invalidation
+        UserService.UserStatistics cached = userService.getUserStatistics(client.getId());
+        assertSame(cached, userService.getUserStatistics(client.getId()));
+
+        // Événement publié annulé par un autre nœud
+        Event event = eventRepository.findAll().stream()
+                .filter(e -> eventCatalog.findAll().stream().anyMatch(c -> c.getId().equals(e.getId())))
+                .findFirst()
+                .orElseThrow();
+        event.setStatus(EventStatus.ANNULE);
+        eventRepository.save(event);
+        changeRepository.save(new CacheChange("node-other", CacheRegion.EVENT_CATALOG, event.getId()));
+        changeRepository.save(new CacheChange("node-other", CacheRegion.USER_STATS, client.getId()));
+        changeRepository.save(new CacheChange("node-other", CacheRegion.USER_STATS, client.getId()));
+
+        // Doublons fusionnés : une invalidation par clé
+        assertEquals(2, changeLog.poll());
+        assertTrue(eventCatalog.findAll().stream().noneMatch(c -> c.getId().equals(event.getId())));
+        assertNotSame(cached, userService.getUserStatistics(client.getId()));
+
+        // Le curseur a avancé : rien n'est relu
+        assertEquals(0, changeLog.poll());
+
+        event.setStatus(EventStatus.PUBLIE);
+        eventRepository.save(event);
+        eventCatalog.rebuild();
+    }
+}
@@ -0,0 +1,64 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.ClusterLease;
+import com.inas.vaadinapp.repository.ClusterLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Un second nœud est simulé en écrivant directement ses baux
+@SpringBootTest(properties = {"app.cluster.enabled=true", "app.cluster.node-id=node-test",
+                              "app.cluster.poll-interval=PT1H"})
+public class ClusterCoordinatorTest {
+
+    @Autowired
+    private ClusterCoordinator coordinator;
+
+    @Autowired
+    private ClusterLeaseRepository leaseRepository;
+
+    @Test
+    void testJobRunsOncePerLease() {
+        AtomicInteger runs = new AtomicInteger();
+        assertTrue(coordinator.runOnce("test-once", runs::incrementAndGet));
+        // Même tick : le bail est encore valide, y compris pour le nœud qui l'a pris
+        assertTrue(coordinator.runOnce("test-once", runs::incrementAndGet));
+        assertEquals(2, runs.get());
+
+        // Bail tenu par un autre nœud : la tâche est sautée
+        leaseRepository.save(new ClusterLease("job:test-other", "node-other", LocalDateTime.now().plusMinutes(5)));
+        assertFalse(coordinator.runOnce("test-other", runs::incrementAndGet));
+        assertEquals(2, runs.get());
+
+        // Bail expiré : repris
+        leaseRepository.save(new ClusterLease("job:test-expired", "node-other", LocalDateTime.now().minusSeconds(1)));
+        assertTrue(coordinator.runOnce("test-expired", runs::incrementAndGet));
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void testShardsSplitRangeBetweenLiveNodes() {
+        coordinator.heartbeat();
+        List<long[]> ranges = new ArrayList<>();
+        assertTrue(coordinator.runSharded("test-shard-alone", 1, 100, (from, to) -> ranges.add(new long[]{from, to})));
+        assertArrayEquals(new long[]{1, 100}, ranges.get(0));
+
+        // Deux nœuds vivants ("node-other" < "node-test") : ce nœud traite la seconde moitié
+        leaseRepository.save(new ClusterLease("node:node-other", "node-other", LocalDateTime.now().plusMinutes(5)));
+        try {
+            assertEquals(List.of("node-other", "node-test"), coordinator.getLiveNodes());
+            ranges.clear();
+            assertTrue(coordinator.runSharded("test-shard-pair", 1, 100, (from, to) -> ranges.add(new long[]{from, to})));
+            assertArrayEquals(new long[]{51, 100}, ranges.get(0));
+        } finally {
+            leaseRepository.deleteById("node:node-other");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.EventStatusChanged;
+import com.inas.vaadinapp.dto.CatalogEvent;
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Pas de @Transactional : le catalogue est mis à jour après commit
+@SpringBootTest
+public class EventCatalogTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void testCatalogFollowsPublication() {
+        outboxDispatcher.dispatchPending();
+        Long organizerId = eventService.findAll().get(0).getOrganisateur().getId();
+
+        Event event = new Event();
+        event.setTitre("Festival des roses");
+        event.setDescription("Musique et artisanat");
+        event.setCategorie(Category.FESTIVAL);
+        event.setVille("Kelaât M'Gouna");
+        event.setLieu("Place centrale");
+        event.setDateDebut(LocalDateTime.now().plusDays(20));
+        event.setDateFin(LocalDateTime.now().plusDays(22));
+        event.setCapaciteMax(200);
+        event.setPrixUnitaire(80.0);
+        Event saved = eventService.createEvent(event, organizerId);
+        outboxDispatcher.dispatchPending();
+
+        // Un brouillon n'apparaît pas dans le catalogue public
+        assertFalse(contains(eventCatalog.findAll(), saved.getId()));
+
+        eventService.publishEvent(saved.getId(), organizerId);
+        outboxDispatcher.dispatchPending();
+
+        // Ville comparée sans accents ni casse, catégorie et plage de dates par index
+        assertTrue(contains(eventCatalog.search(Category.FESTIVAL, "kelaat m'gouna", null, null, null, null, null),
+                saved.getId()));
+        assertTrue(contains(eventCatalog.search(null, null, LocalDateTime.now().plusDays(19),
+                LocalDateTime.now().plusDays(21), null, 100.0, "roses"), saved.getId()));
+        assertFalse(contains(eventCatalog.search(Category.SPORT, "Kelaât M'Gouna", null, null, null, null, null),
+                saved.getId()));
+        assertFalse(contains(eventCatalog.search(null, null, LocalDateTime.now().plusDays(21), null, null, null, null),
+                saved.getId()));
+
+        // Résultats triés par date de début
+        List<CatalogEvent> all = eventCatalog.findAll();
+        for (int i = 1; i < all.size(); i++) {
+            assertFalse(all.get(i).getDateDebut().isBefore(all.get(i - 1).getDateDebut()));
+        }
+
+        // Une reconstruction complète donne le même catalogue
+        int size = eventCatalog.size();
+        eventCatalog.rebuild();
+        assertEquals(size, eventCatalog.size());
+
+        eventService.cancelEvent(saved.getId(), organizerId);
+        outboxDispatcher.dispatchPending();
+        assertFalse(contains(eventCatalog.findAll(), saved.getId()));
+        assertEquals(EventStatus.ANNULE, eventService.findById(saved.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testRebuildDoesNotOverwriteConcurrentUpdate() {
+        outboxDispatcher.dispatchPending();
+        Long organizerId = eventService.findAll().get(0).getOrganisateur().getId();
+
+        Event event = new Event();
+        event.setTitre("Moussem de Tan-Tan");
+        event.setDescription("Rencontre des tribus nomades");
+        event.setCategorie(Category.FESTIVAL);
+        event.setVille("Tan-Tan");
+        event.setLieu("Esplanade");
+        event.setDateDebut(LocalDateTime.now().plusDays(30));
+        event.setDateFin(LocalDateTime.now().plusDays(31));
+        event.setCapaciteMax(500);
+        event.setPrixUnitaire(0.0);
+        Long eventId = eventService.createEvent(event, organizerId).getId();
+        outboxDispatcher.dispatchPending();
+
+        // Catalogue privé : la publication tombe entre la lecture de la reconstruction et son remplacement
+        EventRepository repository = mock(EventRepository.class, delegatesTo(eventRepository));
+        EventCatalog catalog = new EventCatalog(repository, reservationRepository);
+        AtomicBoolean published = new AtomicBoolean();
+        doAnswer(invocation -> {
+            List<Event> stale = eventRepository.findAvailableEvents(invocation.getArgument(0), invocation.getArgument(1));
+            if (published.compareAndSet(false, true)) {
+                eventService.publishEvent(eventId, organizerId);
+                catalog.on(new EventStatusChanged(eventId, organizerId, EventStatus.BROUILLON, EventStatus.PUBLIE));
+                assertTrue(contains(catalog.findAll(), eventId));
+            }
+            return stale;
+        }).when(repository).findAvailableEvents(any(), any());
+
+        catalog.rebuild();
+
+        assertTrue(published.get());
+        assertTrue(contains(catalog.findAll(), eventId));
+
+        eventService.cancelEvent(eventId, organizerId);
+        outboxDispatcher.dispatchPending();
+    }
+
+    private static boolean contains(List<CatalogEvent> events, Long id) {
+        return events.stream().anyMatch(e -> e.getId().equals(id));
+    }
+}
@@ -0,0 +1,70 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.EventCreated;
+import com.inas.vaadinapp.domain.EventStatusChanged;
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+// Base dédiée : l'espion sur le bus d'événements impose un contexte à part
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:eventservice")
+public class EventServiceTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @MockitoSpyBean
+    private DomainEventBus domainEvents;
+
+    @AfterEach
+    void resetBus() {
+        Mockito.reset(domainEvents);
+    }
+
+    @Test
+    void testMutationRolledBackWhenEventCannotBeWritten() {
+        Long organizerId = eventService.findAll().get(0).getOrganisateur().getId();
+
+        // Création : l'outbox refuse l'événement, l'événement métier n'est pas enregistré
+        doThrow(new IllegalStateException("outbox indisponible")).when(domainEvents).publish(any(EventCreated.class));
+        assertThrows(IllegalStateException.class, () -> eventService.createEvent(newEvent("Salon sans outbox"), organizerId));
+        assertTrue(eventRepository.findByTitreContainingIgnoreCase("Salon sans outbox").isEmpty());
+
+        // Publication : le statut reste celui d'avant
+        Mockito.reset(domainEvents);
+        Event draft = eventService.createEvent(newEvent("Salon brouillon"), organizerId);
+        doThrow(new IllegalStateException("outbox indisponible")).when(domainEvents).publish(any(EventStatusChanged.class));
+        assertThrows(IllegalStateException.class, () -> eventService.publishEvent(draft.getId(), organizerId));
+        assertEquals(EventStatus.BROUILLON, eventRepository.findById(draft.getId()).orElseThrow().getStatus());
+    }
+
+    private static Event newEvent(String titre) {
+        Event event = new Event();
+        event.setTitre(titre);
+        event.setDescription("Test de transaction");
+        event.setCategorie(Category.CONFERENCE);
+        event.setVille("Rabat");
+        event.setLieu("Centre des congrès");
+        event.setDateDebut(LocalDateTime.now().plusDays(10));
+        event.setDateFin(LocalDateTime.now().plusDays(11));
+        event.setCapaciteMax(50);
+        event.setPrixUnitaire(20.0);
+        return event;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inas.vaadinapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void testEstimateWithinBoundedError() {
+        for (int cardinality : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog hll = new HyperLogLog();
+            for (long id = 1; id <= cardinality; id++) {
+                hll.add(id);
+                hll.add(id); // les doublons ne comptent pas
+            }
+            double error = Math.abs(hll.estimate() - cardinality) / (double) cardinality;
+            assertTrue(error < 4 * HyperLogLog.relativeError(), "cardinalité " + cardinality + " : erreur " + error);
+        }
+    }
+
+    @Test
+    void testMergeEqualsUnion() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (long id = 0; id < 5_000; id++) {
+            (id % 3 == 0 ? a : b).add(id);
+            union.add(id);
+        }
+
+        assertEquals(union, a.merge(b));
+    }
+
+    @Test
+    void testBytesRoundTrip() {
+        HyperLogLog hll = new HyperLogLog();
+        for (long id = 0; id < 500; id++) {
+            hll.add(id);
+        }
+
+        HyperLogLog copy = HyperLogLog.fromBytes(hll.toBytes());
+        assertEquals(hll.estimate(), copy.estimate());
+        assertFalse(copy.add(42L));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[16]));
+    }
+}
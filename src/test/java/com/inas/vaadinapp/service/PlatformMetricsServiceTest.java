@@ -0,0 +1,96 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : les mises à jour du snapshot sont appliquées après commit
+@SpringBootTest
+public class PlatformMetricsServiceTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private PlatformMetricsService platformMetricsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void testSnapshotFollowsMutations() {
+        // Événements des tests précédents livrés avant la mesure de référence
+        outboxDispatcher.dispatchPending();
+        PlatformMetricsService.PlatformMetrics before = platformMetricsService.getSnapshot();
+
+        User client = new User();
+        client.setNom("Metrics");
+        client.setPrenom("Client");
+        client.setEmail("metrics.client@test.com");
+        client.setPassword("password123");
+        client.setRole(Role.CLIENT);
+        userService.register(client);
+        outboxDispatcher.dispatchPending();
+
+        Event event = eventService.findAll().stream()
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE)
+                .filter(e -> e.getDateDebut().isAfter(java.time.LocalDateTime.now().plusDays(3)))
+                .findFirst()
+                .orElseThrow();
+        Reservation reservation = reservationService.createReservation(event.getId(), client.getId(), 2, null);
+        outboxDispatcher.dispatchPending();
+
+        PlatformMetricsService.PlatformMetrics afterCreate = platformMetricsService.getSnapshot();
+        assertEquals(before.getUsers(Role.CLIENT) + 1, afterCreate.getUsers(Role.CLIENT));
+        assertEquals(before.getReservations(ReservationStatus.EN_ATTENTE) + 1,
+                afterCreate.getReservations(ReservationStatus.EN_ATTENTE));
+        assertEquals(before.getActivePlaces() + 2, afterCreate.getActivePlaces());
+
+        reservationService.cancelReservation(reservation.getId(), client.getId());
+        outboxDispatcher.dispatchPending();
+
+        PlatformMetricsService.PlatformMetrics afterCancel = platformMetricsService.getSnapshot();
+        assertEquals(before.getReservations(ReservationStatus.EN_ATTENTE), afterCancel.getReservations(ReservationStatus.EN_ATTENTE));
+        assertEquals(before.getReservations(ReservationStatus.ANNULEE) + 1, afterCancel.getReservations(ReservationStatus.ANNULEE));
+        assertEquals(before.getActivePlaces(), afterCancel.getActivePlaces());
+
+        // La re-vérification contre la base ne doit constater aucun écart
+        platformMetricsService.verify();
+        assertEquals(afterCancel.getTotalReservations(), platformMetricsService.getSnapshot().getTotalReservations());
+        assertEquals(afterCancel.getActiveRevenue(), platformMetricsService.getSnapshot().getActiveRevenue(), 0.01);
+    }
+
+    @Test
+    void testReloadDoesNotCountUndeliveredEventsTwice() {
+        outboxDispatcher.dispatchPending();
+        long clientsBefore = platformMetricsService.getSnapshot().getUsers(Role.CLIENT);
+
+        User client = new User();
+        client.setNom("Reload");
+        client.setPrenom("Client");
+        client.setEmail("reload.client@test.com");
+        client.setPassword("password123");
+        client.setRole(Role.CLIENT);
+        // Verrou du service tenu : la livraison de UserRegistered attend la fin du rechargement
+        platformMetricsService.updateLock().lock();
+        try {
+            userService.register(client);
+            platformMetricsService.verify();
+            assertEquals(clientsBefore + 1, platformMetricsService.getSnapshot().getUsers(Role.CLIENT));
+        } finally {
+            platformMetricsService.updateLock().unlock();
+        }
+        outboxDispatcher.dispatchPending();
+
+        assertEquals(clientsBefore + 1, platformMetricsService.getSnapshot().getUsers(Role.CLIENT));
+    }
+}
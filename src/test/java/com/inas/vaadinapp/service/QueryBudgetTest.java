@@ -0,0 +1,88 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Budgets SQL par appel de service : un N+1 ou une collection EAGER fait échouer le build.
+// Pas de @Transactional : chaque appel ouvre sa propre session, comme depuis une vue.
+@SpringBootTest
+@Import(StatementCounter.Config.class)
+public class QueryBudgetTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EventCatalog eventCatalog;
+
+    private Long eventId;
+    private Long organizerId;
+
+    @BeforeEach
+    void pickSample() {
+        Reservation sample = reservationService.findAllReservations().get(0);
+        eventId = sample.getEvent().getId();
+        organizerId = sample.getEvent().getOrganisateur().getId();
+    }
+
+    @Test
+    void testAvailablePlacesCostsOneQuery() {
+        StatementCounter.Measured<Integer> measured = StatementCounter.measure(() -> eventService.getAvailablePlaces(eventId));
+        assertEquals(1, measured.cost().statements(), measured.cost()::toString);
+        assertEquals(0, measured.cost().entities());
+    }
+
+    @Test
+    void testEventLoadSkipsReservations() {
+        StatementCounter.Measured<Event> measured = StatementCounter.measure(
+                () -> eventService.findById(eventId).orElseThrow());
+        // Événement et organisateur, sans la collection des réservations
+        assertEquals(1, measured.cost().statements(), measured.cost()::toString);
+        assertEquals(2, measured.cost().entities(), measured.cost()::toString);
+    }
+
+    @Test
+    void testOrganizerStatisticsAggregateInDatabase() {
+        StatementCounter.Cost cost = StatementCounter.count(
+                () -> reservationService.getOrganizerReservationStatistics(organizerId));
+        // Un agrégat sur les réservations, deux sur les agrégats temporels, quel que soit le nombre d'événements
+        assertTrue(cost.statements() <= 3, cost::toString);
+        assertEquals(0, cost.entities());
+    }
+
+    @Test
+    void testAllReservationsLoadAssociationsInOneQuery() {
+        StatementCounter.Measured<List<Reservation>> measured = StatementCounter.measure(
+                () -> reservationService.findAllReservations());
+        StatementCounter.Cost cost = measured.cost();
+        assertEquals(1, cost.statements(), cost::toString);
+
+        // Les colonnes de AllReservationsView ne déclenchent plus aucun chargement
+        StatementCounter.Cost rendering = StatementCounter.count(() -> measured.result().forEach(r ->
+                assertNotNull(r.getClient().getEmail() + r.getEvent().getTitre() + r.getEvent().getOrganisateur().getNom())));
+        assertEquals(0, rendering.statements());
+    }
+
+    @Test
+    void testPopularEventsAndCatalogRebuildAreSingleQueries() {
+        StatementCounter.Cost popular = StatementCounter.count(() -> eventService.getPopularEvents(3));
+        // Requête de tri, plus au plus un chargement d'organisateur par événement retenu
+        assertTrue(popular.statements() <= 1 + 3, popular::toString);
+
+        StatementCounter.Cost rebuild = StatementCounter.count(() -> eventCatalog.rebuild());
+        // Compteurs groupés et événements publiés, plus leurs organisateurs (EAGER, un par organisateur distinct)
+        assertTrue(rebuild.statements() <= 2 + 2, rebuild::toString);
+    }
+}
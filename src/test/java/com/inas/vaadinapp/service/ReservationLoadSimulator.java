@@ -0,0 +1,336 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.Reservation;
+import com.inas.vaadinapp.entity.ReservationRollup;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import com.inas.vaadinapp.repository.ReservationRollupRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Simulateur de charge en processus pour ReservationService.
+ *
+ * Lance d'un coup un grand nombre de créations, confirmations et annulations sur
+ * quelques événements « chauds », puis mesure débit, latences (p50/p99 par opération)
+ * et contention : refus métier (complet, statut...), conflits techniques (verrou,
+ * contrainte d'unicité) et nombre maximal d'opérations simultanées.
+ *
+ * Deux modes : un pool fixe de "concurrency" threads plateforme, ou un thread virtuel
+ * par opération (JDK 21+, profil virtual-threads). Par défaut, les threads virtuels
+ * quand la JVM les propose. Les invariants sont vérifiés en base
+ * après le tir et la livraison des événements métier : places en attente + confirmées
+ * <= capaciteMax, codes uniques, agrégats (rollups) et indicateurs plateforme égaux à
+ * la table des réservations.
+ */
+public class ReservationLoadSimulator {
+
+    public enum Operation { CREATE, CONFIRM, CANCEL }
+
+    private enum Outcome { SUCCESS, REJECTED, CONFLICT }
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final ReservationRollupRepository rollupRepository;
+    private final PlatformMetricsService platformMetrics;
+    private final OutboxDispatcher outboxDispatcher;
+    private final List<Long> eventIds;
+    private final List<Long> clientIds;
+
+    public ReservationLoadSimulator(ReservationService reservationService, ReservationRepository reservationRepository,
+                                    EventRepository eventRepository, ReservationRollupRepository rollupRepository,
+                                    PlatformMetricsService platformMetrics, OutboxDispatcher outboxDispatcher,
+                                    List<Long> eventIds, List<Long> clientIds) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.eventRepository = eventRepository;
+        this.rollupRepository = rollupRepository;
+        this.platformMetrics = platformMetrics;
+        this.outboxDispatcher = outboxDispatcher;
+        this.eventIds = List.copyOf(eventIds);
+        this.clientIds = List.copyOf(clientIds);
+    }
+
+    /* ================== TIR ================== */
+
+    public Report run(int operations, int concurrency, long seed) throws InterruptedException {
+        return run(operations, concurrency, seed, Runtime.version().feature() >= 21);
+    }
+
+    // Répartition : 60 % de créations, 25 % de confirmations, 15 % d'annulations
+    public Report run(int operations, int concurrency, long seed, boolean virtualThreads) throws InterruptedException {
+        Operation[] kinds = new Operation[operations];
+        long[] latencies = new long[operations];
+        Outcome[] outcomes = new Outcome[operations];
+        Map<String, Integer> failures = new ConcurrentHashMap<>();
+        // Réservations créées pendant le tir : cibles des confirmations et annulations
+        List<long[]> created = new ArrayList<>();
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicateCodes = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        Random random = new Random(seed);
+        int[] draws = new int[operations];
+        for (int i = 0; i < operations; i++) {
+            int roll = random.nextInt(100);
+            kinds[i] = roll < 60 ? Operation.CREATE : roll < 85 ? Operation.CONFIRM : Operation.CANCEL;
+            draws[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(operations);
+        ExecutorService executor = newExecutor(concurrency, virtualThreads);
+        long begin;
+        try {
+            for (int i = 0; i < operations; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        long t0 = System.nanoTime();
+                        try {
+                            outcomes[index] = execute(kinds[index], draws[index], created, codes, duplicateCodes);
+                        } catch (IllegalArgumentException ex) {
+                            outcomes[index] = Outcome.REJECTED;
+                        } catch (RuntimeException ex) {
+                            outcomes[index] = Outcome.CONFLICT;
+                            failures.merge(ex.getClass().getSimpleName(), 1, Integer::sum);
+                        } finally {
+                            latencies[index] = System.nanoTime() - t0;
+                            inFlight.decrementAndGet();
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            begin = System.nanoTime();
+            start.countDown();
+            done.await();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        outboxDispatcher.dispatchPending();
+
+        return new Report(virtualThreads, kinds, latencies, outcomes, elapsed, peakInFlight.get(),
+                duplicateCodes.get(), Map.copyOf(failures), verify());
+    }
+
+    private Outcome execute(Operation kind, int draw, List<long[]> created, Set<String> codes,
+                            AtomicInteger duplicateCodes) {
+        if (kind == Operation.CREATE) {
+            Long eventId = eventIds.get(draw % eventIds.size());
+            Long clientId = clientIds.get((draw / eventIds.size()) % clientIds.size());
+            Reservation reservation = reservationService.createReservation(eventId, clientId, 1 + draw % 4, null);
+            if (!codes.add(reservation.getCodeReservation())) {
+                duplicateCodes.incrementAndGet();
+            }
+            synchronized (created) {
+                created.add(new long[]{reservation.getId(), clientId});
+            }
+            return Outcome.SUCCESS;
+        }
+
+        long[] target;
+        synchronized (created) {
+            if (created.isEmpty()) {
+                // Rien à confirmer ni à annuler au tout début du tir
+                return Outcome.REJECTED;
+            }
+            target = created.get(draw % created.size());
+        }
+        if (kind == Operation.CONFIRM) {
+            reservationService.confirmReservation(target[0], target[1]);
+        } else {
+            reservationService.cancelReservation(target[0], target[1]);
+        }
+        return Outcome.SUCCESS;
+    }
+
+    // Threads virtuels par réflexion, sans imposer le JDK 21 à la compilation
+    private static ExecutorService newExecutor(int concurrency, boolean virtualThreads) {
+        if (!virtualThreads) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Threads virtuels indisponibles : JDK 21+ requis", ex);
+        }
+    }
+
+    /* ================== INVARIANTS ================== */
+
+    // À appeler une fois les événements métier livrés (dispatchPending)
+    public List<String> verify() {
+        List<String> violations = new ArrayList<>();
+        Set<String> codes = new HashSet<>();
+        for (Long eventId : eventIds) {
+            Event event = eventRepository.findById(eventId).orElseThrow();
+            int activeBookings = 0;
+            int active = 0;
+            for (Reservation r : reservationRepository.findByEventId(eventId)) {
+                if (r.getStatus() == ReservationStatus.EN_ATTENTE || r.getStatus() == ReservationStatus.CONFIRMEE) {
+                    activeBookings++;
+                    active += r.getNbPlaces();
+                }
+                if (!codes.add(r.getCodeReservation())) {
+                    violations.add("Code en double : " + r.getCodeReservation());
+                }
+            }
+            if (active > event.getCapaciteMax()) {
+                violations.add("Événement " + eventId + " : " + active + " places actives pour "
+                        + event.getCapaciteMax());
+            }
+
+            // Une transition appliquée deux fois décale les agrégats de la table
+            long rollupBookings = 0;
+            long rollupPlaces = 0;
+            for (ReservationRollup rollup : rollupRepository.findAll()) {
+                if (rollup.getEventId().equals(eventId)) {
+                    rollupBookings += rollup.getBookings();
+                    rollupPlaces += rollup.getPlaces();
+                }
+            }
+            if (rollupBookings != activeBookings || rollupPlaces != active) {
+                violations.add("Événement " + eventId + " : agrégats " + rollupBookings + " réservations / "
+                        + rollupPlaces + " places pour " + activeBookings + " / " + active + " en base");
+            }
+        }
+
+        // Indicateurs plateforme, par statut, contre la table entière
+        PlatformMetricsService.PlatformMetrics metrics = platformMetrics.getSnapshot();
+        Map<ReservationStatus, Long> byStatus = new EnumMap<>(ReservationStatus.class);
+        for (Object[] row : reservationRepository.aggregateGroupByStatus()) {
+            byStatus.put((ReservationStatus) row[0], ((Number) row[1]).longValue());
+        }
+        for (ReservationStatus status : ReservationStatus.values()) {
+            long expected = byStatus.getOrDefault(status, 0L);
+            if (metrics.getReservations(status) != expected) {
+                violations.add("Indicateurs plateforme : " + metrics.getReservations(status) + " réservations "
+                        + status + " pour " + expected + " en base");
+            }
+        }
+        return violations;
+    }
+
+    /* ================== RAPPORT ================== */
+
+    public static final class Report {
+
+        private final boolean virtualThreads;
+        private final Operation[] kinds;
+        private final long[] latencies;
+        private final Outcome[] outcomes;
+        private final long elapsedNanos;
+        private final int peakInFlight;
+        private final int duplicateCodes;
+        private final Map<String, Integer> failures;
+        private final List<String> violations;
+
+        private Report(boolean virtualThreads, Operation[] kinds, long[] latencies, Outcome[] outcomes,
+                       long elapsedNanos, int peakInFlight, int duplicateCodes, Map<String, Integer> failures,
+                       List<String> violations) {
+            this.virtualThreads = virtualThreads;
+            this.kinds = kinds;
+            this.latencies = latencies;
+            this.outcomes = outcomes;
+            this.elapsedNanos = elapsedNanos;
+            this.peakInFlight = peakInFlight;
+            this.duplicateCodes = duplicateCodes;
+            this.failures = failures;
+            this.violations = violations;
+        }
+
+        public double throughput() {
+            return kinds.length / (elapsedNanos / 1e9);
+        }
+
+        public int count(Operation kind) {
+            return select(kind, null).length;
+        }
+
+        public int succeeded(Operation kind) {
+            return select(kind, Outcome.SUCCESS).length;
+        }
+
+        public int rejected() {
+            return select(null, Outcome.REJECTED).length;
+        }
+
+        public int conflicts() {
+            return select(null, Outcome.CONFLICT).length;
+        }
+
+        // Percentile en millisecondes (0 < p <= 100) des latences d'un type d'opération
+        public double percentile(Operation kind, double p) {
+            long[] values = select(kind, null);
+            if (values.length == 0) {
+                return 0;
+            }
+            Arrays.sort(values);
+            int rank = (int) Math.ceil(p / 100 * values.length) - 1;
+            return values[Math.max(0, rank)] / 1e6;
+        }
+
+        public int peakInFlight() {
+            return peakInFlight;
+        }
+
+        public int duplicateCodes() {
+            return duplicateCodes;
+        }
+
+        public Map<String, Integer> failures() {
+            return failures;
+        }
+
+        public List<String> violations() {
+            return violations;
+        }
+
+        private long[] select(Operation kind, Outcome outcome) {
+            return IntStream.range(0, kinds.length)
+                    .filter(i -> (kind == null || kinds[i] == kind) && (outcome == null || outcomes[i] == outcome))
+                    .mapToLong(i -> latencies[i])
+                    .toArray();
+        }
+
+        @Override
+        public String toString() {
+            Map<Operation, String> lines = new EnumMap<>(Operation.class);
+            for (Operation kind : Operation.values()) {
+                lines.put(kind, String.format("%d (%d ok) p50=%.1f ms p99=%.1f ms", count(kind), succeeded(kind),
+                        percentile(kind, 50), percentile(kind, 99)));
+            }
+            return String.format("%s : %d opérations en %.2f s (%.0f op/s), %d simultanées au plus ; %s ; "
+                            + "refus=%d conflits=%d %s",
+                    virtualThreads ? "threads virtuels" : "threads plateforme",
+                    kinds.length, elapsedNanos / 1e9, throughput(), peakInFlight, lines,
+                    rejected(), conflicts(), failures);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.Category;
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.entity.Role;
+import com.inas.vaadinapp.entity.User;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import com.inas.vaadinapp.repository.ReservationRollupRepository;
+import com.inas.vaadinapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tir plus lourd : mvn test -Dtest=ReservationLoadTest -Dload.operations=20000 -Dload.concurrency=64
+// Comparaison threads plateforme / virtuels (JDK 21) : mvn test -Pvirtual-threads -Dtest=ReservationLoadTest
+// Pas de @Transactional : chaque opération valide sa propre transaction
+// Base dédiée : les distributeurs des autres contextes ne livrent pas nos événements aux agrégats
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:load")
+public class ReservationLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationLoadTest.class);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReservationRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformMetricsService platformMetrics;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Test
+    void testConcurrentReservationsKeepInvariants() throws InterruptedException {
+        int operations = Integer.getInteger("load.operations", 1500);
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+
+        ReservationLoadSimulator.Report report = simulator(0).run(operations, concurrency, 42L);
+        log.info("Charge réservations : {}", report);
+
+        assertEquals(List.of(), report.violations());
+        assertEquals(0, report.duplicateCodes());
+        assertEquals(0, report.conflicts(), () -> "Conflits : " + report.failures());
+        // Les événements ont bien été remplis, puis des places libérées par annulation
+        assertTrue(report.rejected() > 0);
+        assertTrue(report.succeeded(ReservationLoadSimulator.Operation.CREATE) > 0);
+        assertTrue(report.succeeded(ReservationLoadSimulator.Operation.CANCEL) > 0);
+    }
+
+    // Même tir dans les deux modes, chacun sur ses propres événements
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testVirtualThreadsComparedWithPlatformPool() throws InterruptedException {
+        int operations = Integer.getInteger("load.operations", 1500);
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+
+        ReservationLoadSimulator.Report platform = simulator(10).run(operations, concurrency, 42L, false);
+        ReservationLoadSimulator.Report virtual = simulator(20).run(operations, concurrency, 42L, true);
+        log.info("Charge réservations, pool de {} threads : {}", concurrency, platform);
+        log.info("Charge réservations, threads virtuels : {}", virtual);
+
+        for (ReservationLoadSimulator.Report report : List.of(platform, virtual)) {
+            assertEquals(List.of(), report.violations());
+            assertEquals(0, report.duplicateCodes());
+            assertEquals(0, report.conflicts(), () -> "Conflits : " + report.failures());
+        }
+        // Le pool plafonne les opérations simultanées ; en threads virtuels, le plafond dépend des
+        // threads porteurs (un par cœur) et du pool JDBC, d'où une simple comparaison dans les traces
+        assertTrue(platform.peakInFlight() <= concurrency);
+    }
+
+    // Peu de places sur peu d'événements : les réservations se disputent les dernières places
+    private ReservationLoadSimulator simulator(int firstEvent) {
+        List<Long> eventIds = new ArrayList<>();
+        for (int i = firstEvent; i < firstEvent + 3; i++) {
+            eventIds.add(hotEvent(i, 40).getId());
+        }
+        List<Long> clientIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clientIds.add(client(i).getId());
+        }
+        return new ReservationLoadSimulator(reservationService, reservationRepository, eventRepository,
+                rollupRepository, platformMetrics, outboxDispatcher, eventIds, clientIds);
+    }
+
+    private Event hotEvent(int index, int capacity) {
+        Event event = new Event();
+        event.setTitre("Concert complet " + index);
+        event.setDescription("Événement de test de charge");
+        event.setCategorie(Category.CONCERT);
+        event.setVille("Rabat");
+        event.setLieu("Salle " + index);
+        // Au-delà de 48 h : les annulations restent permises
+        event.setDateDebut(LocalDateTime.now().plusDays(10));
+        event.setDateFin(LocalDateTime.now().plusDays(10).plusHours(3));
+        event.setCapaciteMax(capacity);
+        event.setPrixUnitaire(100.0);
+        event.setStatus(EventStatus.PUBLIE);
+        return eventRepository.save(event);
+    }
+
+    private User client(int index) {
+        String email = "load.client" + index + "@test.com";
+        return userRepository.findByEmail(email).orElseGet(() -> newClient(index, email));
+    }
+
+    private User newClient(int index, String email) {
+        User user = new User();
+        user.setNom("Charge");
+        user.setPrenom("Client" + index);
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(Role.CLIENT);
+        user.setDateInscription(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,96 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.Event;
+import com.inas.vaadinapp.entity.EventStatus;
+import com.inas.vaadinapp.entity.Reservation;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class ReservationRecordingTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void testBookingFlowRecordedWithBundledProfile(@TempDir Path dir) throws Exception {
+        Event event = eventService.findAll().stream()
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE && e.getDateDebut().isAfter(LocalDateTime.now().plusDays(3)))
+                .filter(e -> eventService.getAvailablePlaces(e.getId()) >= 2)
+                .findFirst().orElseThrow();
+        Long clientId = userService.findByEmail("client1@event.ma").orElseThrow().getId();
+
+        Configuration profile;
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/jfr/reservations.jfc"),
+                StandardCharsets.UTF_8)) {
+            profile = Configuration.create(reader);
+        }
+        Path file = dir.resolve("reservations.jfr");
+        Reservation reservation;
+        try (Recording recording = new Recording(profile)) {
+            recording.start();
+            reservation = reservationService.createReservation(event.getId(), clientId, 2, null);
+            reservationService.confirmReservation(reservation.getId(), clientId);
+            reservationService.cancelReservation(reservation.getId(), clientId);
+            assertThrows(IllegalArgumentException.class,
+                    () -> reservationService.createReservation(event.getId(), clientId, 0, null));
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> creates = named(events, "com.inas.vaadinapp.ReservationCreate");
+        assertEquals(2, creates.size());
+        RecordedEvent created = creates.stream().filter(e -> e.getString("outcome").equals("success")).findFirst().orElseThrow();
+        assertEquals(event.getId().longValue(), created.getLong("eventId"));
+        assertEquals(reservation.getId().longValue(), created.getLong("reservationId"));
+        assertEquals(2, created.getInt("seats"));
+        // Attente du verrou mesurée dans le service et rattachée à l'événement de l'aspect
+        assertTrue(created.getDuration("lockWait").toNanos() > 0);
+        assertTrue(created.getDuration().compareTo(created.getDuration("lockWait")) >= 0);
+        assertNull(created.getStackTrace());
+        assertTrue(creates.stream().anyMatch(e -> e.getString("outcome").equals("rejected") && e.getInt("seats") == 0));
+
+        RecordedEvent confirmed = named(events, "com.inas.vaadinapp.ReservationConfirm").get(0);
+        assertEquals("success", confirmed.getString("outcome"));
+        assertEquals(event.getId().longValue(), confirmed.getLong("eventId"));
+        RecordedEvent cancelled = named(events, "com.inas.vaadinapp.ReservationCancel").get(0);
+        assertEquals("success", cancelled.getString("outcome"));
+        assertEquals(reservation.getId().longValue(), cancelled.getLong("reservationId"));
+        assertEquals(event.getId().longValue(), cancelled.getLong("eventId"));
+        assertEquals(2, cancelled.getInt("seats"));
+        assertTrue(named(events, "com.inas.vaadinapp.AvailabilityCheck").stream()
+                .anyMatch(e -> e.getLong("eventId") == event.getId() && e.getString("outcome").equals("success")));
+
+        assertEquals(1, named(events, "com.inas.vaadinapp.CodeGeneration").get(0).getInt("attempts"));
+        // Création, confirmation et annulation
+        assertEquals(3, named(events, "com.inas.vaadinapp.DomainEventPublish").size());
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
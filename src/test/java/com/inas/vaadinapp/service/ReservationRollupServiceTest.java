@@ -0,0 +1,186 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.domain.ReservationCreated;
+import com.inas.vaadinapp.dto.RollupPoint;
+import com.inas.vaadinapp.entity.*;
+import com.inas.vaadinapp.repository.EventRepository;
+import com.inas.vaadinapp.repository.ReservationRepository;
+import com.inas.vaadinapp.repository.ReservationRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : les agrégats sont mis à jour après commit
+@SpringBootTest
+public class ReservationRollupServiceTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private ReservationRollupService rollupService;
+
+    @Autowired
+    private ReservationRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformMetricsService platformMetricsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ClusterCoordinator coordinator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testRollupFollowsReservations() {
+        // Événements des tests précédents livrés avant la mesure de référence
+        outboxDispatcher.dispatchPending();
+        Event event = eventService.findAll().stream()
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE)
+                .filter(e -> e.getDateDebut().isAfter(LocalDateTime.now().plusDays(3)))
+                .findFirst()
+                .orElseThrow();
+        Long organizerId = event.getOrganisateur().getId();
+
+        User client = new User();
+        client.setNom("Rollup");
+        client.setPrenom("Client");
+        client.setEmail("rollup.client@test.com");
+        client.setPassword("password123");
+        client.setRole(Role.CLIENT);
+        userService.register(client);
+
+        RollupPoint before = currentMonth(organizerId);
+        double monthRevenueBefore = rollupService.getCurrentMonthRevenue(organizerId);
+
+        Reservation reservation = reservationService.createReservation(event.getId(), client.getId(), 3, null);
+        outboxDispatcher.dispatchPending();
+
+        RollupPoint afterCreate = currentMonth(organizerId);
+        assertEquals(before.getBookings() + 1, afterCreate.getBookings());
+        assertEquals(before.getPlaces() + 3, afterCreate.getPlaces());
+        assertEquals(before.getRevenue() + reservation.getMontantTotal(), afterCreate.getRevenue(), 0.01);
+        assertEquals(monthRevenueBefore + reservation.getMontantTotal(),
+                rollupService.getCurrentMonthRevenue(organizerId), 0.01);
+
+        reservationService.cancelReservation(reservation.getId(), client.getId());
+        outboxDispatcher.dispatchPending();
+
+        RollupPoint afterCancel = currentMonth(organizerId);
+        assertEquals(before.getBookings(), afterCancel.getBookings());
+        assertEquals(before.getRevenue(), afterCancel.getRevenue(), 0.01);
+    }
+
+    @Test
+    void testCompactionMergesOldHoursIntoDays() {
+        // Événements des tests précédents livrés avant la mesure de référence
+        outboxDispatcher.dispatchPending();
+        Event event = eventService.findAll().get(0);
+        LocalDateTime day = LocalDateTime.now().minusDays(10).toLocalDate().atStartOfDay();
+        rollupRepository.save(newHour(event, day.plusHours(9), 2, 4, 100.0));
+        rollupRepository.save(newHour(event, day.plusHours(15), 1, 1, 25.0));
+
+        long totalBookingsBefore = rollupService.getMonthlyTrend(null, null, 12).stream()
+                .mapToLong(RollupPoint::getBookings).sum();
+
+        assertTrue(rollupService.compact() >= 2);
+
+        assertTrue(rollupRepository.findByGranularityAndBucketStartBefore(RollupGranularity.HOUR,
+                LocalDateTime.now().minusDays(3)).isEmpty());
+        ReservationRollup daily = rollupRepository
+                .findByGranularityAndBucketStartAndEventId(RollupGranularity.DAY, day, event.getId())
+                .orElseThrow();
+        assertTrue(daily.getBookings() >= 3);
+
+        // Le compactage ne change pas les totaux
+        long totalBookingsAfter = rollupService.getMonthlyTrend(null, null, 12).stream()
+                .mapToLong(RollupPoint::getBookings).sum();
+        assertEquals(totalBookingsBefore, totalBookingsAfter);
+
+        // Une reconstruction depuis les réservations retrouve les revenus actifs de la plateforme
+        rollupService.rebuild();
+        platformMetricsService.verify();
+        assertEquals(platformMetricsService.getSnapshot().getActiveRevenue(), rollupService.getTotalRevenue(null), 0.01);
+    }
+
+    @Test
+    void testConcurrentNodesCreatingSameBucketLoseNoIncrement() throws Exception {
+        // Deux instances du service : deux nœuds, sans verrou commun dans la JVM
+        ReservationRollupService otherNode = new ReservationRollupService(rollupRepository, reservationRepository,
+                eventRepository, coordinator, transactionManager, Duration.ofDays(2));
+        Event event = eventService.findAll().get(0);
+        LocalDateTime day = LocalDateTime.now().minusDays(40).toLocalDate().atStartOfDay();
+        int writers = 8;
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                ReservationRollupService node = i % 2 == 0 ? rollupService : otherNode;
+                ReservationCreated created = new ReservationCreated(-1L - i, event.getId(), 1L,
+                        ReservationStatus.CONFIRMEE, 2, 10.0, day.plusHours(12));
+                results.add(pool.submit(() -> {
+                    start.await();
+                    node.on(created);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        ReservationRollup daily = rollupRepository
+                .findByGranularityAndBucketStartAndEventId(RollupGranularity.DAY, day, event.getId())
+                .orElseThrow();
+        assertEquals(writers, daily.getBookings());
+        assertEquals(2L * writers, daily.getPlaces());
+        assertEquals(10.0 * writers, daily.getRevenue(), 0.01);
+        rollupRepository.delete(daily);
+    }
+
+    private RollupPoint currentMonth(Long organizerId) {
+        List<RollupPoint> trend = rollupService.getMonthlyTrend(organizerId, null, 12);
+        assertEquals(12, trend.size());
+        return trend.get(trend.size() - 1);
+    }
+
+    private ReservationRollup newHour(Event event, LocalDateTime bucketStart, long bookings, long places, double revenue) {
+        ReservationRollup rollup = new ReservationRollup(RollupGranularity.HOUR, bucketStart, event.getId(),
+                event.getOrganisateur().getId(), event.getCategorie());
+        rollup.add(bookings, places, revenue);
+        return rollup;
+    }
+}
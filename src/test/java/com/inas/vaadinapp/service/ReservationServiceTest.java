@@ -0,0 +1,117 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.dto.ClientReservationTotals;
+import com.inas.vaadinapp.dto.ReservationRow;
+import com.inas.vaadinapp.dto.ReservationTotals;
+import com.inas.vaadinapp.entity.Reservation;
+import com.inas.vaadinapp.entity.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+public class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void testEventReservationsPagedAndFiltered() {
+        Reservation sample = reservationService.findAllReservations().stream().findFirst().orElseThrow();
+        Long eventId = sample.getEvent().getId();
+        List<Reservation> expected = reservationService.findAllReservations().stream()
+                .filter(r -> r.getEvent().getId().equals(eventId))
+                .collect(Collectors.toList());
+
+        Slice<ReservationRow> page = reservationService.findEventReservations(eventId, null, null,
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "dateReservation")));
+        assertEquals(expected.size() > 1, page.hasNext());
+        assertEquals(1, page.getContent().size());
+        assertEquals(eventId, page.getContent().get(0).getEventId());
+        assertEquals(expected.size(), reservationService.countEventReservations(eventId, null, null));
+
+        // Tri sur une propriété du client (colonne "Client" de la grille)
+        assertEquals(expected.size(), reservationService.findEventReservations(eventId, null, null,
+                PageRequest.of(0, 50, Sort.by("client.prenom", "client.nom"))).getContent().size());
+
+        // Filtre par statut
+        long expectedForStatus = expected.stream().filter(r -> r.getStatus() == sample.getStatus()).count();
+        assertEquals(expectedForStatus, reservationService.countEventReservations(eventId, sample.getStatus(), null));
+
+        // Recherche insensible à la casse sur le code de réservation
+        Slice<ReservationRow> byCode = reservationService.findEventReservations(eventId, null,
+                sample.getCodeReservation().toLowerCase(), PageRequest.of(0, 10));
+        assertEquals(1, byCode.getNumberOfElements());
+        assertEquals(1, reservationService.countEventReservations(eventId, null, sample.getCodeReservation().toLowerCase()));
+        assertEquals(sample.getClient().getEmail(), byCode.getContent().get(0).getClientEmail());
+    }
+
+    @Test
+    void testEventReservationTotals() {
+        Long eventId = reservationService.findAllReservations().get(0).getEvent().getId();
+        List<Reservation> reservations = reservationService.findAllReservations().stream()
+                .filter(r -> r.getEvent().getId().equals(eventId))
+                .collect(Collectors.toList());
+
+        ReservationTotals totals = reservationService.getEventReservationTotals(eventId);
+
+        assertEquals(reservations.size(), totals.getNbReservations());
+        assertEquals(reservations.stream()
+                .filter(r -> r.getStatus() != ReservationStatus.ANNULEE)
+                .mapToInt(Reservation::getNbPlaces).sum(), totals.getPlacesReservees());
+        assertEquals(reservations.stream()
+                .filter(r -> r.getStatus() == ReservationStatus.CONFIRMEE)
+                .mapToDouble(Reservation::getMontantTotal).sum(), totals.getRevenuConfirme(), 0.01);
+    }
+
+    @Test
+    void testClientHistoryKeysetPagination() {
+        Long clientId = reservationService.findAllReservations().get(0).getClient().getId();
+        List<Reservation> expected = reservationService.findByClient(clientId).stream()
+                .sorted(Comparator.comparing(Reservation::getDateReservation)
+                        .thenComparing(Reservation::getId).reversed())
+                .collect(Collectors.toList());
+
+        // Parcours page par page (2 lignes) en suivant le curseur
+        List<Long> seen = new ArrayList<>();
+        ReservationService.HistoryCursor cursor = null;
+        List<ReservationRow> page;
+        do {
+            page = reservationService.findClientHistory(clientId, null, null, cursor, 2);
+            page.forEach(row -> seen.add(row.getId()));
+            if (!page.isEmpty()) {
+                cursor = ReservationService.HistoryCursor.of(page.get(page.size() - 1));
+            }
+        } while (page.size() == 2);
+
+        assertEquals(expected.stream().map(Reservation::getId).collect(Collectors.toList()), seen);
+
+        // Le repli par OFFSET donne la même page
+        if (expected.size() > 2) {
+            assertEquals(expected.get(2).getId(),
+                    reservationService.findClientHistoryAt(clientId, null, null, 2, 2).get(0).getId());
+        }
+
+        // Agrégat par statut et filtre côté serveur
+        ClientReservationTotals totals = reservationService.getClientReservationTotals(clientId);
+        assertEquals(expected.size(), totals.getTotal());
+        for (ReservationStatus status : ReservationStatus.values()) {
+            long count = expected.stream().filter(r -> r.getStatus() == status).count();
+            assertEquals(count, totals.getCount(status));
+            assertEquals(count, reservationService.findClientHistory(clientId, status, null, null, 100).size());
+            assertEquals(count, reservationService.countClientHistory(clientId, status, null));
+        }
+    }
+}
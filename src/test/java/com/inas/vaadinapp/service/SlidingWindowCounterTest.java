@@ -0,0 +1,47 @@
+package com.inas.vaadinapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowCounterTest {
+
+    @Test
+    void testAcquireWithinSlidingWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(3, Duration.ofSeconds(10), 100);
+
+        assertTrue(counter.tryAcquire("a", 0));
+        assertTrue(counter.tryAcquire("a", 4_000));
+        assertTrue(counter.tryAcquire("a", 8_000));
+        assertFalse(counter.tryAcquire("a", 9_000));
+        assertTrue(counter.tryAcquire("b", 9_000));
+
+        // Le premier échec sort de la fenêtre à t = 10 s
+        assertTrue(counter.tryAcquire("a", 10_000));
+        assertFalse(counter.tryAcquire("a", 10_500));
+
+        // Une place rendue se réserve à nouveau
+        counter.release("a", 10_000);
+        assertTrue(counter.tryAcquire("a", 11_000));
+
+        counter.reset("a");
+        counter.release("b", 9_000);
+        assertEquals(0, counter.size());
+    }
+
+    @Test
+    void testPurgeAndBoundedKeys() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(2, Duration.ofSeconds(10), 2);
+
+        counter.tryAcquire("a", 0);
+        counter.tryAcquire("b", 5_000);
+        counter.tryAcquire("c", 6_000);
+        // "a", la moins récemment utilisée, est oubliée au-delà de 2 clés
+        assertEquals(2, counter.size());
+
+        assertEquals(1, counter.purge(15_500));
+        assertEquals(1, counter.size());
+    }
+}
@@ -0,0 +1,204 @@
+package com.inas.vaadinapp.service;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Mesure du coût SQL d'un appel de service : requêtes exécutées, lignes lues et
+ * entités chargées par Hibernate, pour fixer des budgets dans les tests.
+ *
+ * Le DataSource est enveloppé d'un proxy qui compte les exécutions de requêtes et les
+ * lignes parcourues ; un intercepteur Hibernate compte les entités chargées. Seul le
+ * thread qui appelle measure() est compté : l'outbox et les tâches planifiées, qui
+ * interrogent la base en parallèle, ne faussent pas la mesure.
+ *
+ * Usage : @Import(StatementCounter.Config.class), puis StatementCounter.measure(...)
+ * ou StatementCounter.count(...).
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<Cost> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    // Coût seul, le résultat de l'appel est ignoré
+    public static Cost count(Runnable call) {
+        return measure(() -> {
+            call.run();
+            return null;
+        }).cost();
+    }
+
+    public static <T> Measured<T> measure(Supplier<T> call) {
+        Cost cost = new Cost();
+        Cost previous = CURRENT.get();
+        CURRENT.set(cost);
+        try {
+            return new Measured<>(call.get(), cost);
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /* ================== PROXY JDBC ================== */
+
+    private static Object proxy(Object target, Class<?> type) {
+        // Le pool reste fermable par le contexte (méthode close inférée)
+        Class<?>[] types = target instanceof AutoCloseable && type == DataSource.class
+                ? new Class<?>[]{type, AutoCloseable.class} : new Class<?>[]{type};
+        return Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), types, new Counting(target));
+    }
+
+    private static final class Counting implements InvocationHandler {
+
+        private final Object target;
+
+        Counting(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            String name = method.getName();
+            Cost cost = CURRENT.get();
+            if (result instanceof Connection connection && name.equals("getConnection")) {
+                return proxy(connection, Connection.class);
+            }
+            if (target instanceof Connection && result instanceof Statement statement) {
+                // Le texte SQL n'est connu qu'ici pour les requêtes préparées
+                Class<?> type = name.equals("prepareCall") ? CallableStatement.class
+                        : name.equals("prepareStatement") ? PreparedStatement.class : Statement.class;
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                        new CountingStatement(statement, sql));
+            }
+            if (result instanceof ResultSet resultSet && cost != null) {
+                return proxy(resultSet, ResultSet.class);
+            }
+            if (target instanceof ResultSet && name.equals("next") && Boolean.TRUE.equals(result) && cost != null) {
+                cost.rows++;
+            }
+            return result;
+        }
+    }
+
+    private static final class CountingStatement implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+
+        CountingStatement(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            Cost cost = CURRENT.get();
+            if (cost != null && name.startsWith("execute")) {
+                cost.statements.add(args != null && args.length > 0 && args[0] instanceof String text ? text : sql);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if (result instanceof ResultSet resultSet && cost != null) {
+                return proxy(resultSet, ResultSet.class);
+            }
+            return result;
+        }
+    }
+
+    /* ================== INTERCEPTEUR HIBERNATE ================== */
+
+    static final class LoadCounter implements Interceptor {
+
+        @Override
+        public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+            Cost cost = CURRENT.get();
+            if (cost != null) {
+                cost.entities++;
+            }
+            return false;
+        }
+    }
+
+    /* ================== CONFIGURATION ================== */
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? proxy(bean, DataSource.class) : bean;
+                }
+            };
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer loadCounter() {
+            return properties -> properties.put("hibernate.session_factory.interceptor", new LoadCounter());
+        }
+    }
+
+    /* ================== RÉSULTATS ================== */
+
+    public static final class Cost {
+
+        private final List<String> statements = new ArrayList<>();
+        private long rows;
+        private long entities;
+
+        public int statements() {
+            return statements.size();
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public long entities() {
+            return entities;
+        }
+
+        @Override
+        public String toString() {
+            return statements() + " requêtes, " + rows + " lignes, " + entities + " entités :\n  "
+                    + String.join("\n  ", statements);
+        }
+    }
+
+    public record Measured<T>(T result, Cost cost) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.dto.UserImportReport;
+import com.inas.vaadinapp.entity.Role;
+import com.inas.vaadinapp.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : chaque lot est validé dans sa propre transaction
+@SpringBootTest(properties = "app.import.chunk-size=2")
+public class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void testImportSkipsDuplicatesExistingAndInvalidRows() throws Exception {
+        String csv = String.join("\n",
+                "Nom;Prénom;Email;Password;Role;Telephone",
+                "Alaoui;Sara;sara.import@test.com;password123;ORGANIZER;0600000001",
+                "\"El Idrissi; fils\";Omar;OMAR.import@test.com;password123;;",
+                "Doublon;Sara;Sara.Import@test.com;password123;CLIENT;",
+                "Admin;Existant;admin@event.ma;password123;CLIENT;",
+                "Court;Mot;court.import@test.com;court;CLIENT;",
+                "",
+                "Root;Admin;root.import@test.com;password123;ADMIN;");
+
+        List<UserImportReport> progress = new ArrayList<>();
+        UserImportReport report = userImportService.importCsv(new StringReader(csv), progress::add);
+
+        assertTrue(report.isFinished());
+        assertEquals(6, report.getLines());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(1, report.getExisting());
+        assertEquals(2, report.getInvalid());
+        assertEquals(2, report.getErrors().size());
+        assertTrue(report.getErrors().get(0).startsWith("Ligne 6"));
+        // Un avancement par lot complet, puis le bilan
+        assertTrue(progress.size() >= 3);
+
+        User omar = userService.findByEmail("omar.import@test.com").orElseThrow();
+        assertEquals("El Idrissi; fils", omar.getNom());
+        assertEquals(Role.CLIENT, omar.getRole());
+        assertEquals(1, userService.countUsers("fils omar", null, null));
+        assertTrue(userService.login("sara.import@test.com", "password123").isPresent());
+    }
+
+    @Test
+    void testMissingRequiredColumnRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importCsv(new StringReader("nom,prenom,email\nA,B,c@d.ma"), r -> {}));
+    }
+}
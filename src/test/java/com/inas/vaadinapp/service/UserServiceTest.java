@@ -0,0 +1,223 @@
+package com.inas.vaadinapp.service;
+
+import com.inas.vaadinapp.entity.*;
+import com.inas.vaadinapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pas de @Transactional : le cache des statistiques est invalidé après commit
+@SpringBootTest
+public class UserServiceTest {
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private LoginGuard loginGuard;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testStatisticsCacheInvalidatedByOwnMutations() {
+        // Événements des tests précédents livrés avant la mesure de référence
+        outboxDispatcher.dispatchPending();
+        User client = new User();
+        client.setNom("Stats");
+        client.setPrenom("Client");
+        client.setEmail("stats.client@test.com");
+        client.setPassword("password123");
+        client.setRole(Role.CLIENT);
+        userService.register(client);
+
+        UserService.UserStatistics empty = userService.getUserStatistics(client.getId());
+        assertEquals(0, empty.getReservationsCount());
+        // Deuxième lecture servie par le cache
+        assertSame(empty, userService.getUserStatistics(client.getId()));
+
+        Event event = eventService.findAll().stream()
+                .filter(e -> e.getStatus() == EventStatus.PUBLIE)
+                .filter(e -> e.getDateDebut().isAfter(LocalDateTime.now().plusDays(3)))
+                .findFirst()
+                .orElseThrow();
+        Reservation reservation = reservationService.createReservation(event.getId(), client.getId(), 2, null);
+        outboxDispatcher.dispatchPending();
+
+        UserService.UserStatistics afterCreate = userService.getUserStatistics(client.getId());
+        assertEquals(1, afterCreate.getReservationsCount());
+        assertEquals(reservation.getMontantTotal(), afterCreate.getTotalSpent(), 0.01);
+
+        reservationService.cancelReservation(reservation.getId(), client.getId());
+        outboxDispatcher.dispatchPending();
+
+        UserService.UserStatistics afterCancel = userService.getUserStatistics(client.getId());
+        assertEquals(1, afterCancel.getReservationsCount());
+        assertEquals(0.0, afterCancel.getTotalSpent(), 0.01);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.getUserStatistics(-1L));
+    }
+
+    @Test
+    void testSearchUsersByNgramIndex() {
+        User first = register("Lévêque", "Hélène", "helene_leveque@search.test", Role.CLIENT);
+        User second = register("Levesque", "Marc", "marc.levesque@search.test", Role.ORGANIZER);
+
+        // Sous-chaîne sans accents ni casse, sur le nom et l'email
+        Slice<User> slice = userService.searchUsers("LEVE", null, null, PageRequest.of(0, 10, Sort.by("email")));
+        assertEquals(2, slice.getNumberOfElements());
+        assertFalse(slice.hasNext());
+        assertEquals(first.getId(), slice.getContent().get(0).getId());
+        assertEquals(2, userService.countUsers("LEVE", null, null));
+        assertEquals(1, userService.countUsers("e_lev", null, null));
+        assertEquals(1, userService.countUsers("leve", Role.ORGANIZER, true));
+        assertEquals(0, userService.countUsers("leve", null, false));
+
+        // Trigrammes présents mais pas contigus : éliminés par la vérification finale
+        assertEquals(0, userService.countUsers("levesquehelene", null, null));
+
+        // Terme court : début de mot
+        assertTrue(userService.searchUsers("ma", null, null, PageRequest.of(0, 50)).stream()
+                .anyMatch(u -> u.getId().equals(second.getId())));
+
+        // Le changement de nom réindexe l'utilisateur
+        assertEquals(1, userService.countUsers("levesque marc", null, null));
+        User update = new User();
+        update.setNom("Durand");
+        update.setPrenom("Marc");
+        update.setEmail(second.getEmail());
+        userService.updateProfile(second.getId(), update);
+        assertEquals(0, userService.countUsers("levesque marc", null, null));
+        assertEquals(1, userService.countUsers("durand marc", null, null));
+    }
+
+    @Test
+    void testEmailsMatchedWithoutCase() {
+        User user = new User();
+        user.setNom("Dupont");
+        user.setPrenom("Jean");
+        user.setEmail(" Jean.Dupont@Test.com ");
+        user.setPassword("password123");
+        userService.register(user);
+        assertEquals("jean.dupont@test.com", user.getEmail());
+
+        assertTrue(userService.login("Jean.Dupont@Test.com", "password123").isPresent());
+        assertTrue(userService.login("jean.dupont@test.com", "password123").isPresent());
+        assertTrue(userService.findByEmail("JEAN.DUPONT@TEST.COM").isPresent());
+
+        User duplicate = new User();
+        duplicate.setNom("Dupont");
+        duplicate.setPrenom("Jean");
+        duplicate.setEmail("JEAN.dupont@test.com");
+        duplicate.setPassword("password123");
+        assertThrows(IllegalArgumentException.class, () -> userService.register(duplicate));
+
+        // Compte enregistré avant la normalisation : mis en minuscules au démarrage
+        jdbcTemplate.update("UPDATE users SET email = 'Jean.Legacy@Test.com' WHERE id = ?", user.getId());
+        userService.normalizeLegacyEmails();
+        assertEquals("jean.legacy@test.com", userRepository.findById(user.getId()).orElseThrow().getEmail());
+        assertTrue(userService.login("Jean.Legacy@test.com", "password123").isPresent());
+    }
+
+    @Test
+    void testLoginThrottledAfterRepeatedFailures() {
+        register("Throttle", "Client", "throttle.client@test.com", Role.CLIENT);
+
+        assertTrue(userService.login("throttle.client@test.com", "password123", "10.0.0.1").isPresent());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(userService.login("throttle.client@test.com", "mauvais-mdp", "10.0.0.1").isEmpty());
+        }
+
+        // Email bloqué avant tout hachage, même avec le bon mot de passe
+        assertThrows(IllegalStateException.class,
+                () -> userService.login("Throttle.Client@test.com", "password123", "10.0.0.2"));
+        assertTrue(loginGuard.getMetrics().throttled() >= 1);
+    }
+
+    // Tentatives simultanées : la limite est atteinte avant qu'un seul hachage se termine
+    @Test
+    void testConcurrentFailuresDoNotExceedLimit() throws InterruptedException {
+        register("Burst", "Client", "burst.client@test.com", Role.CLIENT);
+
+        int attempts = 20;
+        AtomicInteger hashed = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            for (int i = 0; i < attempts; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        assertTrue(userService.login("burst.client@test.com", "mauvais-mdp").isEmpty());
+                        hashed.incrementAndGet();
+                    } catch (IllegalStateException ex) {
+                        throttled.incrementAndGet();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        // app.login.max-failures-per-email = 5
+        assertEquals(5, hashed.get());
+        assertEquals(attempts - 5, throttled.get());
+        assertThrows(IllegalStateException.class, () -> userService.login("burst.client@test.com", "password123"));
+    }
+
+    @Test
+    void testLegacyHashRehashedOnLogin() {
+        User user = register("Rehash", "Client", "rehash.client@test.com", Role.CLIENT);
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        assertEquals(1, userRepository.updatePassword(user.getId(),
+                userRepository.findById(user.getId()).orElseThrow().getPassword(), legacy));
+
+        User logged = userService.login("rehash.client@test.com", "password123").orElseThrow();
+
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertTrue(stored.startsWith("{bcrypt}"));
+        assertEquals(stored, logged.getPassword());
+        assertTrue(userService.login("rehash.client@test.com", "password123").isPresent());
+    }
+
+    private User register(String nom, String prenom, String email, Role role) {
+        User user = new User();
+        user.setNom(nom);
+        user.setPrenom(prenom);
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return userService.register(user);
+    }
+}
@@ -0,0 +1,40 @@
+package com.inas.vaadinapp.view;
+
+import com.inas.vaadinapp.config.ObjectSizeEstimator;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReleasableListTest {
+
+    @Test
+    void testReleasedListReloadsOnNextFetch() {
+        AtomicInteger loads = new AtomicInteger();
+        List<String> initial = IntStream.range(0, 1000).mapToObj(i -> "Réservation " + i).toList();
+        ReleasableList<String> items = ReleasableList.of(initial, () -> {
+            loads.incrementAndGet();
+            return List.of("Réservation 1", "Réservation 2", "Réservation 10");
+        });
+        ListDataProvider<String> provider = new ListDataProvider<>(items);
+        provider.setFilter(item -> item.endsWith("0"));
+        assertEquals(100, provider.size(new Query<>()));
+
+        long before = new ObjectSizeEstimator(v -> false, 10_000).measure(provider);
+        assertTrue(items.release());
+        assertFalse(items.release());
+        long after = new ObjectSizeEstimator(v -> false, 10_000).measure(provider);
+        assertTrue(after < before / 10, before + " / " + after);
+        assertEquals(0, loads.get());
+
+        // Le fournisseur et son filtre sont conservés ; la liste est rechargée une fois
+        assertEquals(List.of("Réservation 10"), provider.fetch(new Query<>()).toList());
+        assertEquals(1, provider.size(new Query<>()));
+        assertEquals(1, loads.get());
+    }
+}